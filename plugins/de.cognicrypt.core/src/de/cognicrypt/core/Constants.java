@@ -36,7 +36,7 @@ public class Constants {
 	}
 
 	public static enum CG {
-		CHA, SPARK_LIBRARY, SPARK
+		CHA, SPARK_LIBRARY, SPARK, ON_DEMAND
 	}
 
 	public static final String NO_RES_FOUND = "No resource to generate error marker for found.";
@@ -524,6 +524,7 @@ public class Constants {
 	public static final String NEVER_TYPEOF_MARKER_TYPE = "de.cognicrypt.staticanalyzer.neverTypeOfErrorMarker";
 	public static final String INCOMPLETE_OPERATION_MARKER_TYPE = "de.cognicrypt.staticanalyzer.incompleteOperationErrorMarker";
 	public static final String TYPESTATE_ERROR_MARKER_TYPE = "de.cognicrypt.staticanalyzer.typestateErrorMarker";
+	public static final String SEED_TIMEOUT_MARKER_TYPE = "de.cognicrypt.staticanalyzer.seedTimeoutMarker";
 
 	public static final String RULE_SELECTION = "de.cognicrypt.staticanalyzer.ruleSelection";
 	public static final String AUTOMATED_ANALYSIS = "de.cognicrypt.staticanalyzer.automaticAnalysis";
@@ -533,6 +534,15 @@ public class Constants {
 	public static final String SELECT_CUSTOM_RULES = "de.cognicrypt.staticanalyzer.selectCustomRules";
 
 	public static final String ANALYSE_DEPENDENCIES = "de.cognicrypt.staticanalyzer.dependencyAnalysis";
+	public static final String INCREMENTAL_ANALYSIS = "de.cognicrypt.staticanalyzer.incrementalAnalysis";
+	public static final String BYTECODE_PREFILTER = "de.cognicrypt.staticanalyzer.bytecodePrefilter";
+	public static final String CALL_GRAPH_CACHE = "de.cognicrypt.staticanalyzer.callGraphCache";
+	public static final String ANALYSIS_WORKERS = "de.cognicrypt.staticanalyzer.analysisWorkers";
+	public static final String ANALYSIS_WORKER_PROCESS = "de.cognicrypt.staticanalyzer.analysisWorkerProcess";
+	public static final String ANALYSIS_WORKER_HEAP = "de.cognicrypt.staticanalyzer.analysisWorkerHeap";
+	public static final String SEED_TIMEOUT = "de.cognicrypt.staticanalyzer.seedTimeout";
+	public static final String ANALYSIS_DEADLINE = "de.cognicrypt.staticanalyzer.analysisDeadline";
+	public static final String SCOPED_ANALYSIS_DEPTH = "de.cognicrypt.staticanalyzer.scopedAnalysisDepth";
 
 	public static final String PERSIST_CONFIG = "de.cognicrypt.codegenerator.persistConfig";
 	public static final String STATVIEWID = "de.cognicrypt.staticanalyzer.view.StatisticsView";
@@ -0,0 +1,87 @@
+/********************************************************************************
+ * Copyright (c) 2015-2019 TU Darmstadt, Paderborn University This program and the accompanying materials are made available under the terms of the Eclipse Public License v. 2.0
+ * which is available at http://www.eclipse.org/legal/epl-2.0. SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package de.cognicrypt.staticanalyzer.handlers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
+import org.junit.Test;
+
+/**
+ * Tests how the {@link AnalysisScheduler} merges {@link AnalysisRequest}s for the same project.
+ */
+public class AnalysisRequestTest {
+
+	private final IProject project = stub(IProject.class, null);
+	private final IJavaProject javaProject = stub(IJavaProject.class, (proxy, method, args) -> "getProject".equals(method.getName()) ? this.project : null);
+	private final IJavaProject otherJavaProject = stub(IJavaProject.class, (proxy, method, args) -> "getProject".equals(method.getName()) ? stub(IProject.class, null) : null);
+	private final ICompilationUnit first = stub(ICompilationUnit.class, null);
+	private final ICompilationUnit second = stub(ICompilationUnit.class, null);
+
+	/**
+	 * Creates an object of {@link type} that is only equal to itself and answers all other calls with {@link answer}.
+	 */
+	private static <T> T stub(final Class<T> type, final InvocationHandler answer) {
+		return type.cast(Proxy.newProxyInstance(AnalysisRequestTest.class.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+			switch (method.getName()) {
+				case "equals":
+					return proxy == args[0];
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				case "toString":
+					return type.getSimpleName();
+				default:
+					return answer == null ? null : answer.invoke(proxy, method, args);
+			}
+		}));
+	}
+
+	@Test
+	public void requestsForOtherProjectsOrKindsAreNotMerged() {
+		final AnalysisRequest request = new AnalysisRequest(this.javaProject, false);
+		assertTrue(request.canMerge(new AnalysisRequest(this.javaProject, false)));
+		assertFalse(request.canMerge(new AnalysisRequest(this.otherJavaProject, false)));
+		assertFalse(request.canMerge(new AnalysisRequest(this.javaProject, true)));
+		assertFalse(request.canMerge(AnalysisRequest.scopedTo(this.javaProject, Collections.singleton(this.first))));
+	}
+
+	@Test
+	public void changedUnitsAreUnited() {
+		final AnalysisRequest request = new AnalysisRequest(this.javaProject, false, Collections.singleton(this.first));
+		request.merge(new AnalysisRequest(this.javaProject, false, Collections.singleton(this.second)));
+		assertEquals(new HashSet<>(Arrays.asList(this.first, this.second)), request.getChangedUnits());
+	}
+
+	@Test
+	public void fullAnalysisWins() {
+		final AnalysisRequest incremental = new AnalysisRequest(this.javaProject, false, Collections.singleton(this.first));
+		incremental.merge(new AnalysisRequest(this.javaProject, false));
+		assertNull(incremental.getChangedUnits());
+
+		final AnalysisRequest full = new AnalysisRequest(this.javaProject, false);
+		full.merge(new AnalysisRequest(this.javaProject, false, Collections.singleton(this.first)));
+		assertNull(full.getChangedUnits());
+	}
+
+	@Test
+	public void scopesAreUnited() {
+		final AnalysisRequest request = AnalysisRequest.scopedTo(this.javaProject, Collections.singleton(this.first));
+		final AnalysisRequest other = AnalysisRequest.scopedTo(this.javaProject, Collections.singleton(this.second));
+		assertTrue(request.canMerge(other));
+		request.merge(other);
+		assertEquals(new HashSet<>(Arrays.asList(this.first, this.second)), request.getScope());
+		assertNull(request.getChangedUnits());
+	}
+}
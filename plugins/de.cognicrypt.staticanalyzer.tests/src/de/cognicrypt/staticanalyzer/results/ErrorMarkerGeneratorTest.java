@@ -0,0 +1,174 @@
+/********************************************************************************
+ * Copyright (c) 2015-2019 TU Darmstadt, Paderborn University This program and the accompanying materials are made available under the terms of the Eclipse Public License v. 2.0
+ * which is available at http://www.eclipse.org/legal/epl-2.0. SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package de.cognicrypt.staticanalyzer.results;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IMarker;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import de.cognicrypt.core.Constants;
+import de.cognicrypt.core.Constants.Severities;
+
+/**
+ * Tests how {@link ErrorMarkerGenerator} keeps, replaces and deletes the markers of the previous run when the markers of a new run are committed.
+ */
+public class ErrorMarkerGeneratorTest {
+
+	private static final String MARKER_TYPE = Constants.CONSTRAINT_ERROR_MARKER_TYPE;
+
+	private IProject project;
+	private IProject otherProject;
+	private IFile file;
+	private IFile otherFile;
+	private ErrorMarkerGenerator generator;
+
+	@Before
+	public void setUp() throws CoreException {
+		this.project = createProject("ErrorMarkerGeneratorTest");
+		this.otherProject = createProject("ErrorMarkerGeneratorTestOther");
+		this.file = createFile(this.project);
+		this.otherFile = createFile(this.otherProject);
+		this.generator = new ErrorMarkerGenerator();
+	}
+
+	@After
+	public void tearDown() throws CoreException {
+		this.project.delete(true, null);
+		this.otherProject.delete(true, null);
+	}
+
+	private static IProject createProject(final String name) throws CoreException {
+		final IProject project = ResourcesPlugin.getWorkspace().getRoot().getProject(name);
+		if (project.exists()) {
+			project.delete(true, null);
+		}
+		project.create(null);
+		project.open(null);
+		return project;
+	}
+
+	private static IFile createFile(final IProject project) throws CoreException {
+		final IFile file = project.getFile("Main.java");
+		file.create(new ByteArrayInputStream("public class Main {}".getBytes(StandardCharsets.UTF_8)), true, null);
+		return file;
+	}
+
+	private void report(final IFile file, final int line, final boolean suppressed) {
+		assertTrue(this.generator.addMarker(MARKER_TYPE, 1, file, line, "Cipher is not used correctly.", "Cipher", "<Main: void main(java.lang.String[])>", Severities.Error,
+				new HashMap<>(), suppressed));
+	}
+
+	/**
+	 * Runs an analysis of {@link project} that reports the markers added by {@link reports}.
+	 */
+	private void analyse(final IProject project, final Runnable reports) {
+		this.generator.prepareMarkers(project, null);
+		reports.run();
+		assertTrue(this.generator.commitMarkers());
+	}
+
+	private static IMarker[] markersOf(final IFile file) throws CoreException {
+		return file.findMarkers(MARKER_TYPE, false, IResource.DEPTH_ZERO);
+	}
+
+	@Test
+	public void unchangedMarkersAreKept() throws CoreException {
+		analyse(this.project, () -> report(this.file, 3, false));
+		final long id = markersOf(this.file)[0].getId();
+
+		analyse(this.project, () -> report(this.file, 3, false));
+		assertEquals(1, markersOf(this.file).length);
+		assertEquals(id, markersOf(this.file)[0].getId());
+	}
+
+	@Test
+	public void changedMarkersAreReplaced() throws CoreException {
+		analyse(this.project, () -> report(this.file, 3, false));
+		final long id = markersOf(this.file)[0].getId();
+
+		analyse(this.project, () -> report(this.file, 4, false));
+		assertEquals(1, markersOf(this.file).length);
+		assertNotEquals(id, markersOf(this.file)[0].getId());
+		assertEquals(4, markersOf(this.file)[0].getAttribute(IMarker.LINE_NUMBER, -1));
+	}
+
+	@Test
+	public void suppressedMarkersAreReplaced() throws CoreException {
+		analyse(this.project, () -> report(this.file, 3, false));
+		analyse(this.project, () -> report(this.file, 3, true));
+		assertEquals(1, markersOf(this.file).length);
+		assertEquals(IMarker.SEVERITY_INFO, markersOf(this.file)[0].getAttribute(IMarker.SEVERITY, -1));
+	}
+
+	@Test
+	public void onlyChangedMarkersAreTouched() throws CoreException {
+		analyse(this.project, () -> {
+			report(this.file, 3, false);
+			report(this.file, 5, false);
+		});
+		final IMarker[] markers = markersOf(this.file);
+		final long id = markers[0].getAttribute(IMarker.LINE_NUMBER, -1) == 3 ? markers[0].getId() : markers[1].getId();
+
+		analyse(this.project, () -> report(this.file, 3, false));
+		assertEquals(1, markersOf(this.file).length);
+		assertEquals(id, markersOf(this.file)[0].getId());
+	}
+
+	@Test
+	public void unreportedMarkersAreDeleted() throws CoreException {
+		analyse(this.project, () -> report(this.file, 3, false));
+		analyse(this.project, () -> {});
+		assertEquals(0, markersOf(this.file).length);
+	}
+
+	@Test
+	public void markersOfOtherProjectsAreKept() throws CoreException {
+		analyse(this.otherProject, () -> report(this.otherFile, 3, false));
+		analyse(this.project, () -> report(this.file, 3, false));
+		analyse(this.project, () -> {});
+		assertEquals(0, markersOf(this.file).length);
+		assertEquals(1, markersOf(this.otherFile).length);
+	}
+
+	@Test
+	public void markersOfClassesNotAnalysedBeforeDeadlineAreKept() throws CoreException {
+		analyse(this.project, () -> report(this.file, 3, false));
+		final long id = markersOf(this.file)[0].getId();
+
+		// the run has only analysed a class that Main.java does not declare
+		this.generator.prepareMarkers(this.project, null);
+		assertTrue(this.generator.commitMarkers(Collections.singleton("Other")));
+		assertEquals(1, markersOf(this.file).length);
+		assertEquals(id, markersOf(this.file)[0].getId());
+	}
+
+	@Test
+	public void markersOfUncommittedRunAreKept() throws CoreException {
+		analyse(this.project, () -> report(this.file, 3, false));
+		final long id = markersOf(this.file)[0].getId();
+
+		// the analysis is cancelled before its markers are committed
+		this.generator.prepareMarkers(this.project, null);
+		report(this.file, 4, false);
+		assertEquals(id, markersOf(this.file)[0].getId());
+
+		analyse(this.project, () -> report(this.file, 3, false));
+		assertEquals(1, markersOf(this.file).length);
+		assertEquals(id, markersOf(this.file)[0].getId());
+	}
+}
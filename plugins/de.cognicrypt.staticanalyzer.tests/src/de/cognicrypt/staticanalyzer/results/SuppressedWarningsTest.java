@@ -0,0 +1,127 @@
+/********************************************************************************
+ * Copyright (c) 2015-2019 TU Darmstadt, Paderborn University This program and the accompanying materials are made available under the terms of the Eclipse Public License v. 2.0
+ * which is available at http://www.eclipse.org/legal/epl-2.0. SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package de.cognicrypt.staticanalyzer.results;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import javax.xml.parsers.DocumentBuilderFactory;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import de.cognicrypt.core.Constants;
+
+/**
+ * Tests how {@link SuppressedWarnings} updates the line numbers of suppressed warnings and removes the entries of warnings that are no longer detected.
+ */
+public class SuppressedWarningsTest {
+
+	private IProject project;
+	private File warningsFile;
+
+	@Before
+	public void setUp() throws Exception {
+		this.project = ResourcesPlugin.getWorkspace().getRoot().getProject("SuppressedWarningsTest");
+		if (this.project.exists()) {
+			this.project.delete(true, null);
+		}
+		this.project.create(null);
+		this.project.open(null);
+		this.warningsFile = new File(this.project.getLocation().toOSString() + Constants.outerFileSeparator + Constants.SUPPRESSWARNING_FILE);
+		Files.write(this.warningsFile.toPath(), ("<?xml version=\"1.0\" encoding=\"UTF-8\"?><SuppressWarnings>" + entry(7, 3) + entry(9, 12) + "</SuppressWarnings>")
+				.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		this.project.delete(true, null);
+	}
+
+	private static String entry(final int id, final int lineNumber) {
+		return "<SuppressWarning ID=\"" + id + "\"><File>Main.java</File><LineNumber>" + lineNumber + "</LineNumber><Message>Cipher is not used correctly.</Message></SuppressWarning>";
+	}
+
+	/**
+	 * @return maps the id of each entry in the SuppressWarnings.xml file to its line number
+	 */
+	private Map<String, String> readEntries() throws Exception {
+		final Map<String, String> entries = new HashMap<>();
+		final NodeList nodes = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(this.warningsFile).getElementsByTagName(Constants.SUPPRESSWARNING_ELEMENT);
+		for (int i = 0; i < nodes.getLength(); i++) {
+			final Element entry = (Element) nodes.item(i);
+			entries.put(entry.getAttribute(Constants.ID_ATTR), entry.getElementsByTagName(Constants.LINENUMBER_ELEMENT).item(0).getTextContent());
+		}
+		return entries;
+	}
+
+	@Test
+	public void detectsSuppressedWarnings() {
+		final SuppressedWarnings warnings = SuppressedWarnings.load(this.project);
+		assertTrue(warnings.detect(7, 3));
+		assertFalse(warnings.detect(8, 3));
+	}
+
+	@Test
+	public void updatesLineNumbers() throws Exception {
+		final SuppressedWarnings warnings = SuppressedWarnings.load(this.project);
+		warnings.detect(7, 5);
+		warnings.detect(9, 12);
+		warnings.flush();
+
+		final Map<String, String> entries = readEntries();
+		assertEquals("5", entries.get("7"));
+		assertEquals("12", entries.get("9"));
+	}
+
+	@Test
+	public void removesUndetectedEntries() throws Exception {
+		final SuppressedWarnings warnings = SuppressedWarnings.load(this.project);
+		warnings.detect(7, 3);
+		warnings.removeUndetected();
+		warnings.flush();
+
+		final Map<String, String> entries = readEntries();
+		assertEquals(1, entries.size());
+		assertEquals("3", entries.get("7"));
+	}
+
+	@Test
+	public void keepsAllEntriesIfNothingIsDetected() throws Exception {
+		final SuppressedWarnings warnings = SuppressedWarnings.load(this.project);
+		warnings.removeUndetected();
+		warnings.flush();
+
+		assertEquals(2, readEntries().size());
+	}
+
+	@Test
+	public void keepsUndetectedEntriesWithoutRemoval() throws Exception {
+		final SuppressedWarnings warnings = SuppressedWarnings.load(this.project);
+		warnings.detect(7, 4);
+		warnings.flush();
+
+		assertEquals(2, readEntries().size());
+	}
+
+	@Test
+	public void projectWithoutFile() {
+		this.warningsFile.delete();
+		final SuppressedWarnings warnings = SuppressedWarnings.load(this.project);
+		assertFalse(warnings.detect(7, 3));
+		warnings.removeUndetected();
+		warnings.flush();
+		assertFalse(this.warningsFile.exists());
+	}
+}
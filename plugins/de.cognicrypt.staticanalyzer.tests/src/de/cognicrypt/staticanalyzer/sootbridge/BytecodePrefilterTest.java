@@ -0,0 +1,170 @@
+/********************************************************************************
+ * Copyright (c) 2015-2019 TU Darmstadt, Paderborn University This program and the accompanying materials are made available under the terms of the Eclipse Public License v. 2.0
+ * which is available at http://www.eclipse.org/legal/epl-2.0. SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package de.cognicrypt.staticanalyzer.sootbridge;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import javax.crypto.Cipher;
+import org.junit.Test;
+import com.google.common.io.ByteStreams;
+
+/**
+ * Tests the constant pool reader and the descriptor and signature parsing of the {@link BytecodePrefilter}.
+ */
+public class BytecodePrefilterTest {
+
+	/**
+	 * A class whose constant pool contains eight-byte constants, a method handle and an invoke dynamic entry.
+	 */
+	static class Holder {
+
+		static final long LONG_CONSTANT = 123456789012L;
+		static final double DOUBLE_CONSTANT = 0.123456789;
+
+		static Callable<Cipher> cipherFactory() {
+			return () -> Cipher.getInstance("AES/GCM/NoPadding");
+		}
+	}
+
+	private static Set<String> typesOf(final String descriptor) {
+		final Set<String> types = new HashSet<>();
+		BytecodePrefilter.addDescriptorTypes(descriptor, types);
+		return types;
+	}
+
+	private static Set<String> setOf(final String... types) {
+		return new HashSet<>(Arrays.asList(types));
+	}
+
+	@Test
+	public void methodDescriptor() {
+		assertEquals(setOf("javax.crypto.Cipher", "java.lang.String"), typesOf("(IJ[Ljavax/crypto/Cipher;D)Ljava/lang/String;"));
+	}
+
+	@Test
+	public void nestedClass() {
+		assertEquals(setOf("java.util.Map$Entry", "java.lang.String"), typesOf("Ljava/util/Map$Entry<Ljava/lang/String;[B>;"));
+	}
+
+	@Test
+	public void innerClassOfGenericClass() {
+		assertEquals(setOf("a.Outer", "a.Outer$Inner", "javax.crypto.Cipher"), typesOf("La/Outer<TT;>.Inner<Ljavax/crypto/Cipher;>;"));
+	}
+
+	@Test
+	public void genericSignature() {
+		assertEquals(setOf("java.lang.Object", "java.lang.Comparable", "java.util.Map", "java.lang.String", "javax.crypto.SecretKey"),
+				typesOf("<T:Ljava/lang/Object;U::Ljava/lang/Comparable<TU;>;>(TT;Ljava/util/Map<Ljava/lang/String;+Ljavax/crypto/SecretKey;>;)V"));
+	}
+
+	@Test
+	public void typeParameterStartingWithL() {
+		assertEquals(setOf("javax.crypto.Cipher"), typesOf("<LT:Ljavax/crypto/Cipher;>(TLT;)TLT;"));
+		assertEquals(setOf("java.lang.Object", "java.security.Key"), typesOf("<L:Ljava/lang/Object;K:Ljava/security/Key;>(TL;TK;)V"));
+	}
+
+	@Test
+	public void typeVariables() {
+		assertEquals(setOf(), typesOf("TT;"));
+		assertEquals(setOf("java.util.List"), typesOf("Ljava/util/List<TTLS;>;"));
+	}
+
+	@Test
+	public void handWrittenConstantPool() throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final DataOutputStream out = new DataOutputStream(bytes);
+		out.writeInt(0xCAFEBABE);
+		out.writeShort(0);
+		out.writeShort(52);
+		out.writeShort(18);
+		// #1 and #2
+		out.writeByte(5);
+		out.writeLong(Long.MAX_VALUE);
+		// #3 and #4
+		out.writeByte(6);
+		out.writeDouble(0.5);
+		// #5 method handle of kind invokestatic referring to #8
+		out.writeByte(15);
+		out.writeByte(6);
+		out.writeShort(8);
+		// #6 invoke dynamic with bootstrap method 0 and name and type #9
+		out.writeByte(18);
+		out.writeShort(0);
+		out.writeShort(9);
+		// #7 class #10
+		out.writeByte(7);
+		out.writeShort(10);
+		// #8 method reference of class #7 and name and type #9
+		out.writeByte(10);
+		out.writeShort(7);
+		out.writeShort(9);
+		// #9 name and type #11 and #12
+		out.writeByte(12);
+		out.writeShort(11);
+		out.writeShort(12);
+		out.writeByte(1);
+		out.writeUTF("javax/crypto/Cipher");
+		out.writeByte(1);
+		out.writeUTF("getInstance");
+		out.writeByte(1);
+		out.writeUTF("(Ljava/lang/String;)Ljavax/crypto/Cipher;");
+		// #13 class #14
+		out.writeByte(7);
+		out.writeShort(14);
+		out.writeByte(1);
+		out.writeUTF("[Ljava/security/Key;");
+		out.writeByte(1);
+		out.writeUTF("Ljava/util/List<Ljavax/crypto/spec/SecretKeySpec;>;");
+		// #16 method type #12
+		out.writeByte(16);
+		out.writeShort(12);
+		// #17
+		out.writeByte(3);
+		out.writeInt(42);
+		out.flush();
+
+		final Set<String> types = new HashSet<>();
+		BytecodePrefilter.readConstantPool(bytes.toByteArray(), types);
+		assertEquals(setOf("javax.crypto.Cipher", "java.lang.String", "java.security.Key", "java.util.List", "javax.crypto.spec.SecretKeySpec"), types);
+	}
+
+	@Test
+	public void compiledClass() throws IOException {
+		final Set<String> types = new HashSet<>();
+		try (InputStream in = BytecodePrefilterTest.class.getResourceAsStream("BytecodePrefilterTest$Holder.class")) {
+			BytecodePrefilter.readConstantPool(ByteStreams.toByteArray(in), types);
+		}
+		assertTrue(types.contains("javax.crypto.Cipher"));
+		assertTrue(types.contains("java.util.concurrent.Callable"));
+		assertTrue(types.contains("java.lang.invoke.LambdaMetafactory"));
+	}
+
+	@Test(expected = IOException.class)
+	public void noClassFile() throws IOException {
+		BytecodePrefilter.readConstantPool(new byte[] { 0, 1, 2, 3, 4, 5, 6, 7, 8, 9 }, new HashSet<>());
+	}
+
+	@Test(expected = IOException.class)
+	public void unknownConstantPoolTag() throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final DataOutputStream out = new DataOutputStream(bytes);
+		out.writeInt(0xCAFEBABE);
+		out.writeShort(0);
+		out.writeShort(52);
+		out.writeShort(2);
+		out.writeByte(2);
+		out.flush();
+		BytecodePrefilter.readConstantPool(bytes.toByteArray(), new HashSet<>());
+	}
+}
@@ -0,0 +1,88 @@
+/********************************************************************************
+ * Copyright (c) 2015-2019 TU Darmstadt, Paderborn University This program and the accompanying materials are made available under the terms of the Eclipse Public License v. 2.0
+ * which is available at http://www.eclipse.org/legal/epl-2.0. SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package de.cognicrypt.staticanalyzer.sootbridge;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests how {@link ClassDependencies} records the calls between classes and derives the classes to analyse again after a change.
+ */
+public class ClassDependenciesTest {
+
+	private static final Set<String> PROJECT_CLASSES = setOf("a.Main", "a.Service", "a.Service$Inner", "a.Crypto", "a.Util", "a.Unrelated");
+
+	private ClassDependencies dependencies;
+
+	private static Set<String> setOf(final String... classes) {
+		return new HashSet<>(Arrays.asList(classes));
+	}
+
+	/**
+	 * Main -> Service -> Crypto -> Util, and Main -> Unrelated
+	 */
+	@Before
+	public void setUp() {
+		this.dependencies = new ClassDependencies();
+		final CallGraphSummary callGraph = new CallGraphSummary(PROJECT_CLASSES);
+		callGraph.addCall("a.Main", "a.Service");
+		callGraph.addCall("a.Main", "a.Unrelated");
+		callGraph.addCall("a.Service$Inner", "a.Crypto");
+		callGraph.addCall("a.Crypto", "a.Util");
+		callGraph.addCall("a.Crypto", "java.lang.String");
+		this.dependencies.update(callGraph, null);
+	}
+
+	@Test
+	public void initialized() {
+		assertFalse(new ClassDependencies().isInitialized());
+		assertTrue(this.dependencies.isInitialized());
+	}
+
+	@Test
+	public void callersAndDirectCallees() {
+		assertEquals(setOf("a.Crypto", "a.Service", "a.Main", "a.Util"), this.dependencies.getAffectedClasses(Collections.singleton("a.Crypto"), 1));
+	}
+
+	@Test
+	public void calleesOfCallersAreNotIncluded() {
+		assertEquals(setOf("a.Service", "a.Main", "a.Crypto"), this.dependencies.getAffectedClasses(Collections.singleton("a.Service$Inner"), 1));
+		assertEquals(setOf("a.Service", "a.Main"), this.dependencies.getAffectedClasses(Collections.singleton("a.Service"), 0));
+	}
+
+	@Test
+	public void calleeDepth() {
+		assertEquals(setOf("a.Service", "a.Main", "a.Crypto", "a.Util"), this.dependencies.getAffectedClasses(Collections.singleton("a.Service"), 2));
+		assertEquals(setOf("a.Main", "a.Service", "a.Crypto", "a.Util", "a.Unrelated"), this.dependencies.getCallees(Collections.singleton("a.Main"), 10));
+	}
+
+	@Test
+	public void incrementalUpdateReplacesCallsOfReanalysedClasses() {
+		final CallGraphSummary callGraph = new CallGraphSummary(PROJECT_CLASSES);
+		callGraph.addCall("a.Service", "a.Util");
+		this.dependencies.update(callGraph, setOf("a.Service"));
+
+		// Service no longer calls Crypto, but the calls of the other classes are kept
+		assertEquals(setOf("a.Crypto", "a.Util"), this.dependencies.getAffectedClasses(Collections.singleton("a.Crypto"), 1));
+		assertEquals(setOf("a.Util", "a.Crypto", "a.Service", "a.Main"), this.dependencies.getAffectedClasses(Collections.singleton("a.Util"), 1));
+	}
+
+	@Test
+	public void fullUpdateReplacesAllCalls() {
+		final CallGraphSummary callGraph = new CallGraphSummary(PROJECT_CLASSES);
+		callGraph.addCall("a.Unrelated", "a.Crypto");
+		this.dependencies.update(callGraph, null);
+
+		assertEquals(setOf("a.Crypto", "a.Unrelated"), this.dependencies.getAffectedClasses(Collections.singleton("a.Crypto"), 1));
+	}
+}
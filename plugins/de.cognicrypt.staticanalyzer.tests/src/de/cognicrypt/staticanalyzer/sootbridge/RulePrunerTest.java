@@ -0,0 +1,80 @@
+/********************************************************************************
+ * Copyright (c) 2015-2019 TU Darmstadt, Paderborn University This program and the accompanying materials are made available under the terms of the Eclipse Public License v. 2.0
+ * which is available at http://www.eclipse.org/legal/epl-2.0. SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package de.cognicrypt.staticanalyzer.sootbridge;
+
+import static org.junit.Assert.assertEquals;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.Test;
+import crypto.interfaces.ISLConstraint;
+import crypto.rules.CrySLPredicate;
+import crypto.rules.CrySLRule;
+import crypto.rules.StateMachineGraph;
+
+/**
+ * Tests how the {@link RulePruner} keeps the rules that ensure the predicates which the rules of used types require.
+ */
+public class RulePrunerTest {
+
+	/**
+	 * KeyGenerator ensures generatedKey, which Cipher requires. SecureRandom ensures randomized, which KeyGenerator requires. MessageDigest is unrelated.
+	 */
+	private final CrySLRule secureRandom = rule("java.security.SecureRandom", new String[0], "randomized");
+	private final CrySLRule keyGenerator = rule("javax.crypto.KeyGenerator", new String[] { "randomized" }, "generatedKey");
+	private final CrySLRule cipher = rule("javax.crypto.Cipher", new String[] { "generatedKey" }, "encrypted");
+	private final CrySLRule messageDigest = rule("java.security.MessageDigest", new String[0], "digested");
+	private final List<CrySLRule> rules = Arrays.asList(this.secureRandom, this.keyGenerator, this.cipher, this.messageDigest);
+
+	private static CrySLRule rule(final String className, final String[] required, final String... ensured) {
+		final List<ISLConstraint> constraints = new ArrayList<>();
+		for (final String predicate : required) {
+			constraints.add(predicate(predicate));
+		}
+		final List<CrySLPredicate> predicates = new ArrayList<>();
+		for (final String predicate : ensured) {
+			predicates.add(predicate(predicate));
+		}
+		return new CrySLRule(className, new ArrayList<>(), new ArrayList<>(), new StateMachineGraph(), constraints, predicates);
+	}
+
+	private static CrySLPredicate predicate(final String name) {
+		return new CrySLPredicate(null, name, new ArrayList<>(), false);
+	}
+
+	private Set<CrySLRule> addEnsuringRules(final CrySLRule... used) {
+		final Set<CrySLRule> applicable = new HashSet<>(Arrays.asList(used));
+		RulePruner.addEnsuringRules(this.rules, applicable);
+		return applicable;
+	}
+
+	@Test
+	public void requiredPredicatesAreEnsuredTransitively() {
+		assertEquals(new HashSet<>(Arrays.asList(this.cipher, this.keyGenerator, this.secureRandom)), addEnsuringRules(this.cipher));
+	}
+
+	@Test
+	public void rulesThatAreNotRequiredAreLeftOut() {
+		assertEquals(new HashSet<>(Arrays.asList(this.keyGenerator, this.secureRandom)), addEnsuringRules(this.keyGenerator));
+		assertEquals(new HashSet<>(Arrays.asList(this.messageDigest)), addEnsuringRules(this.messageDigest));
+	}
+
+	@Test
+	public void noUsedRules() {
+		assertEquals(new HashSet<>(), addEnsuringRules());
+	}
+
+	@Test
+	public void cyclicRequirements() {
+		final CrySLRule first = rule("a.First", new String[] { "second" }, "first");
+		final CrySLRule second = rule("a.Second", new String[] { "first" }, "second");
+		final Set<CrySLRule> applicable = new HashSet<>(Arrays.asList(first));
+		RulePruner.addEnsuringRules(Arrays.asList(first, second, this.cipher), applicable);
+		assertEquals(new HashSet<>(Arrays.asList(first, second)), applicable);
+	}
+}
@@ -7,8 +7,8 @@
 
 package de.cognicrypt.staticanalyzer;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.jface.preference.IPreferenceStore;
@@ -19,8 +19,11 @@ import org.osgi.framework.BundleContext;
 import de.cognicrypt.core.properties.CogniCryptPreferencePage;
 import de.cognicrypt.staticanalyzer.handlers.ShutDownHandler;
 import de.cognicrypt.staticanalyzer.results.ResultsCCUIListener;
+import de.cognicrypt.staticanalyzer.sootbridge.ClassPathResolver;
+import de.cognicrypt.staticanalyzer.sootbridge.DetectedProviders;
 import de.cognicrypt.staticanalyzer.utilities.ArtifactUtils;
 import de.cognicrypt.staticanalyzer.utilities.DefaultRulePreferences;
+import de.cognicrypt.staticanalyzer.worker.WorkerProcess;
 
 /**
  * The activator class controls the plug-in life cycle
@@ -44,7 +47,7 @@ public class Activator extends AbstractUIPlugin {
 	public void start(final BundleContext context) throws Exception {
 		super.start(context);
 		Activator.plugin = this;
-		resReporters = new ArrayList<ResultsCCUIListener>();
+		resReporters = new CopyOnWriteArrayList<ResultsCCUIListener>();
 		PlatformUI.getWorkbench().addWorkbenchListener(new ShutDownHandler());
 
 		CogniCryptPreferencePage.registerPreferenceListener(new StaticAnalyzerPreferences());
@@ -57,6 +60,9 @@ public class Activator extends AbstractUIPlugin {
 
 	@Override
 	public void stop(final BundleContext context) throws Exception {
+		WorkerProcess.shutdown();
+		ClassPathResolver.shutdown();
+		DetectedProviders.shutdown();
 		Activator.plugin = null;
 		super.stop(context);
 	}
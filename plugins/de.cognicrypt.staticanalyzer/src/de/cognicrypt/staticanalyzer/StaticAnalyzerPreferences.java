@@ -28,6 +28,7 @@ import org.eclipse.swt.widgets.Event;
 import org.eclipse.swt.widgets.Group;
 import org.eclipse.swt.widgets.Label;
 import org.eclipse.swt.widgets.Listener;
+import org.eclipse.swt.widgets.Spinner;
 import org.eclipse.swt.widgets.TableItem;
 import org.eclipse.ui.IWorkbenchWindow;
 import org.eclipse.ui.PlatformUI;
@@ -50,10 +51,19 @@ public class StaticAnalyzerPreferences extends PreferenceListener {
 	private Button providerDetectionCheckBox;
 	private Button secureObjectsCheckBox;
 	private Button analyseDependenciesCheckBox;
+	private Button incrementalAnalysisCheckBox;
+	private Button bytecodePrefilterCheckBox;
+	private Button callGraphCacheCheckBox;
 	private Button addNewRulesetButton, selectCustomRulesCheckBox;
 	private CheckboxTableViewer table;
 
 	private Combo CGSelection;
+	private Spinner analysisWorkers;
+	private Button workerProcessCheckBox;
+	private Spinner workerHeap;
+	private Spinner seedTimeout;
+	private Spinner analysisDeadline;
+	private Spinner scopedAnalysisDepth;
 	private Combo forbidden;
 	private Combo reqPred;
 	private Combo constraint;
@@ -79,6 +89,9 @@ public class StaticAnalyzerPreferences extends PreferenceListener {
 
 	private void initializeBasicValues() {
 		automatedAnalysisCheckBox.setSelection(preferences.getBoolean(Constants.AUTOMATED_ANALYSIS));
+		incrementalAnalysisCheckBox.setSelection(preferences.getBoolean(Constants.INCREMENTAL_ANALYSIS));
+		bytecodePrefilterCheckBox.setSelection(preferences.getBoolean(Constants.BYTECODE_PREFILTER));
+		callGraphCacheCheckBox.setSelection(preferences.getBoolean(Constants.CALL_GRAPH_CACHE));
 		providerDetectionCheckBox.setSelection(preferences.getBoolean(Constants.PROVIDER_DETECTION_ANALYSIS));
 		secureObjectsCheckBox.setSelection(preferences.getBoolean(Constants.SHOW_SECURE_OBJECTS));
 		analyseDependenciesCheckBox.setSelection(preferences.getBoolean(Constants.ANALYSE_DEPENDENCIES));
@@ -88,6 +101,9 @@ public class StaticAnalyzerPreferences extends PreferenceListener {
 	private void performBasicDefaults() {
 		preferences.setDefault(Constants.RULE_SELECTION, 0);
 		preferences.setDefault(Constants.AUTOMATED_ANALYSIS, true);
+		preferences.setDefault(Constants.INCREMENTAL_ANALYSIS, false);
+		preferences.setDefault(Constants.BYTECODE_PREFILTER, true);
+		preferences.setDefault(Constants.CALL_GRAPH_CACHE, false);
 		preferences.setDefault(Constants.PROVIDER_DETECTION_ANALYSIS, false);
 		preferences.setDefault(Constants.SHOW_SECURE_OBJECTS, false);
 		preferences.setDefault(Constants.ANALYSE_DEPENDENCIES, true);
@@ -257,6 +273,15 @@ public class StaticAnalyzerPreferences extends PreferenceListener {
 		automatedAnalysisCheckBox = new Button(staticAnalysisGroup, SWT.CHECK);
 		automatedAnalysisCheckBox.setText("Enable automated analysis when saving");
 
+		incrementalAnalysisCheckBox = new Button(staticAnalysisGroup, SWT.CHECK);
+		incrementalAnalysisCheckBox.setText("Only re-analyse classes affected by the saved changes (all classes are still loaded)");
+
+		bytecodePrefilterCheckBox = new Button(staticAnalysisGroup, SWT.CHECK);
+		bytecodePrefilterCheckBox.setText("Skip classes that do not use any type specified by the rules");
+
+		callGraphCacheCheckBox = new Button(staticAnalysisGroup, SWT.CHECK);
+		callGraphCacheCheckBox.setText("Reuse the call graph of the previous run if no class has changed");
+
 		providerDetectionCheckBox = new Button(staticAnalysisGroup, SWT.CHECK);
 		providerDetectionCheckBox.setText("Enable provider detection analysis");
 
@@ -311,6 +336,20 @@ public class StaticAnalyzerPreferences extends PreferenceListener {
 		int currentCG = preferences.getInt(Constants.CALL_GRAPH_SELECTION);
 		CGSelection.select(currentCG > -1 ? currentCG : preferences.getDefaultInt(Constants.CALL_GRAPH_SELECTION));
 
+		int workers = preferences.getInt(Constants.ANALYSIS_WORKERS);
+		analysisWorkers.setSelection(workers > 0 ? workers : preferences.getDefaultInt(Constants.ANALYSIS_WORKERS));
+
+		workerProcessCheckBox.setSelection(preferences.getBoolean(Constants.ANALYSIS_WORKER_PROCESS));
+		int heap = preferences.getInt(Constants.ANALYSIS_WORKER_HEAP);
+		workerHeap.setSelection(heap > 0 ? heap : preferences.getDefaultInt(Constants.ANALYSIS_WORKER_HEAP));
+		workerHeap.setEnabled(workerProcessCheckBox.getSelection());
+		analysisWorkers.setEnabled(workerProcessCheckBox.getSelection());
+
+		int timeout = preferences.getInt(Constants.SEED_TIMEOUT);
+		seedTimeout.setSelection(timeout > 0 ? timeout : preferences.getDefaultInt(Constants.SEED_TIMEOUT));
+		analysisDeadline.setSelection(preferences.getInt(Constants.ANALYSIS_DEADLINE));
+		scopedAnalysisDepth.setSelection(preferences.getInt(Constants.SCOPED_ANALYSIS_DEPTH));
+
 		int errorType = preferences.getInt(Constants.FORBIDDEN_METHOD_MARKER_TYPE);
 		forbidden.select(errorType > -1 ? errorType : preferences.getDefaultInt(Constants.FORBIDDEN_METHOD_MARKER_TYPE));
 
@@ -331,6 +370,13 @@ public class StaticAnalyzerPreferences extends PreferenceListener {
 	}
 
 	private void performAdvancedDefaults() {
+		preferences.setDefault(Constants.ANALYSIS_WORKERS, 1);
+		preferences.setDefault(Constants.ANALYSIS_WORKER_PROCESS, false);
+		preferences.setDefault(Constants.ANALYSIS_WORKER_HEAP, 4096);
+		preferences.setDefault(Constants.SEED_TIMEOUT, 10);
+		preferences.setDefault(Constants.ANALYSIS_DEADLINE, 0);
+		preferences.setDefault(Constants.SCOPED_ANALYSIS_DEPTH, 1);
+
 		preferences.setDefault(Constants.FORBIDDEN_METHOD_MARKER_TYPE, 0);
 		preferences.setDefault(Constants.TYPESTATE_ERROR_MARKER_TYPE, 0);
 		preferences.setDefault(Constants.INCOMPLETE_OPERATION_MARKER_TYPE, 0);
@@ -353,6 +399,49 @@ public class StaticAnalyzerPreferences extends PreferenceListener {
 		CGSelection = new Combo(callGraphContainer, SWT.DROP_DOWN | SWT.READ_ONLY);
 		CGSelection.setItems(Arrays.stream(Constants.CG.values()).map(Enum::name).toArray(String[]::new));
 
+		final Label workersLabel = new Label(callGraphContainer, SWT.SHADOW_IN);
+		workersLabel.setText("Number of projects analysed concurrently");
+
+		analysisWorkers = new Spinner(callGraphContainer, SWT.BORDER);
+		analysisWorkers.setValues(1, 1, Runtime.getRuntime().availableProcessors(), 0, 1, 1);
+
+		workerProcessCheckBox = new Button(callGraphContainer, SWT.CHECK);
+		workerProcessCheckBox.setText("Run the analysis in a separate process");
+		new Label(callGraphContainer, SWT.NONE);
+
+		final Label heapLabel = new Label(callGraphContainer, SWT.SHADOW_IN);
+		heapLabel.setText("Maximum heap size of the analysis process (MB)");
+
+		workerHeap = new Spinner(callGraphContainer, SWT.BORDER);
+		workerHeap.setValues(4096, 512, 65536, 0, 512, 1024);
+		workerProcessCheckBox.addSelectionListener(new SelectionAdapter() {
+
+			@Override
+			public void widgetSelected(SelectionEvent e) {
+				workerHeap.setEnabled(workerProcessCheckBox.getSelection());
+				// within the IDE, Soot can only run one analysis at a time
+				analysisWorkers.setEnabled(workerProcessCheckBox.getSelection());
+			}
+		});
+
+		final Label seedTimeoutLabel = new Label(callGraphContainer, SWT.SHADOW_IN);
+		seedTimeoutLabel.setText("Time budget per seed (s)");
+
+		seedTimeout = new Spinner(callGraphContainer, SWT.BORDER);
+		seedTimeout.setValues(10, 1, 3600, 0, 1, 10);
+
+		final Label deadlineLabel = new Label(callGraphContainer, SWT.SHADOW_IN);
+		deadlineLabel.setText("Analysis deadline in minutes (0 for none)");
+
+		analysisDeadline = new Spinner(callGraphContainer, SWT.BORDER);
+		analysisDeadline.setValues(0, 0, 1440, 0, 1, 10);
+
+		final Label scopeDepthLabel = new Label(callGraphContainer, SWT.SHADOW_IN);
+		scopeDepthLabel.setText("Depth of callees included when analysing a file, a package or a saved change");
+
+		scopedAnalysisDepth = new Spinner(callGraphContainer, SWT.BORDER);
+		scopedAnalysisDepth.setValues(1, 0, 10, 0, 1, 1);
+
 		final Group errorTypeGroup = new Group(staticAnalysisGroup, SWT.SHADOW_IN);
 		errorTypeGroup.setText("Error-Warning Types");
 		errorTypeGroup.setLayout(new GridLayout(1, true));
@@ -412,6 +501,9 @@ public class StaticAnalyzerPreferences extends PreferenceListener {
 	public void setDefaultValues() {
 		selectCustomRulesCheckBox.setSelection(preferences.getDefaultBoolean(Constants.SELECT_CUSTOM_RULES));
 		automatedAnalysisCheckBox.setSelection(preferences.getDefaultBoolean(Constants.AUTOMATED_ANALYSIS));
+		incrementalAnalysisCheckBox.setSelection(preferences.getDefaultBoolean(Constants.INCREMENTAL_ANALYSIS));
+		bytecodePrefilterCheckBox.setSelection(preferences.getDefaultBoolean(Constants.BYTECODE_PREFILTER));
+		callGraphCacheCheckBox.setSelection(preferences.getDefaultBoolean(Constants.CALL_GRAPH_CACHE));
 		providerDetectionCheckBox.setSelection(preferences.getDefaultBoolean(Constants.PROVIDER_DETECTION_ANALYSIS));
 		secureObjectsCheckBox.setSelection(preferences.getDefaultBoolean(Constants.SHOW_SECURE_OBJECTS));
 		analyseDependenciesCheckBox.setSelection(preferences.getDefaultBoolean(Constants.ANALYSE_DEPENDENCIES));
@@ -428,6 +520,14 @@ public class StaticAnalyzerPreferences extends PreferenceListener {
 		}
 
 		CGSelection.select(preferences.getDefaultInt(Constants.CALL_GRAPH_SELECTION));
+		analysisWorkers.setSelection(preferences.getDefaultInt(Constants.ANALYSIS_WORKERS));
+		workerProcessCheckBox.setSelection(preferences.getDefaultBoolean(Constants.ANALYSIS_WORKER_PROCESS));
+		workerHeap.setSelection(preferences.getDefaultInt(Constants.ANALYSIS_WORKER_HEAP));
+		workerHeap.setEnabled(workerProcessCheckBox.getSelection());
+		analysisWorkers.setEnabled(workerProcessCheckBox.getSelection());
+		seedTimeout.setSelection(preferences.getDefaultInt(Constants.SEED_TIMEOUT));
+		analysisDeadline.setSelection(preferences.getDefaultInt(Constants.ANALYSIS_DEADLINE));
+		scopedAnalysisDepth.setSelection(preferences.getDefaultInt(Constants.SCOPED_ANALYSIS_DEPTH));
 
 		forbidden.select(preferences.getDefaultInt(Constants.FORBIDDEN_METHOD_MARKER_TYPE));
 		constraint.select(preferences.getDefaultInt(Constants.CONSTRAINT_ERROR_MARKER_TYPE));
@@ -440,10 +540,19 @@ public class StaticAnalyzerPreferences extends PreferenceListener {
 	@Override
 	protected void storeValues() {
 		preferences.setValue(Constants.AUTOMATED_ANALYSIS, automatedAnalysisCheckBox.getSelection());
+		preferences.setValue(Constants.INCREMENTAL_ANALYSIS, incrementalAnalysisCheckBox.getSelection());
+		preferences.setValue(Constants.BYTECODE_PREFILTER, bytecodePrefilterCheckBox.getSelection());
+		preferences.setValue(Constants.CALL_GRAPH_CACHE, callGraphCacheCheckBox.getSelection());
 		preferences.setValue(Constants.PROVIDER_DETECTION_ANALYSIS, providerDetectionCheckBox.getSelection());
 		preferences.setValue(Constants.SHOW_SECURE_OBJECTS, secureObjectsCheckBox.getSelection());
 		preferences.setValue(Constants.ANALYSE_DEPENDENCIES, analyseDependenciesCheckBox.getSelection());
 		preferences.setValue(Constants.CALL_GRAPH_SELECTION, CGSelection.getSelectionIndex());
+		preferences.setValue(Constants.ANALYSIS_WORKERS, analysisWorkers.getSelection());
+		preferences.setValue(Constants.ANALYSIS_WORKER_PROCESS, workerProcessCheckBox.getSelection());
+		preferences.setValue(Constants.ANALYSIS_WORKER_HEAP, workerHeap.getSelection());
+		preferences.setValue(Constants.SEED_TIMEOUT, seedTimeout.getSelection());
+		preferences.setValue(Constants.ANALYSIS_DEADLINE, analysisDeadline.getSelection());
+		preferences.setValue(Constants.SCOPED_ANALYSIS_DEPTH, scopedAnalysisDepth.getSelection());
 		preferences.setValue(Constants.FORBIDDEN_METHOD_MARKER_TYPE, forbidden.getSelectionIndex());
 		preferences.setValue(Constants.CONSTRAINT_ERROR_MARKER_TYPE, constraint.getSelectionIndex());
 		preferences.setValue(Constants.INCOMPLETE_OPERATION_MARKER_TYPE, incompleteOp.getSelectionIndex());
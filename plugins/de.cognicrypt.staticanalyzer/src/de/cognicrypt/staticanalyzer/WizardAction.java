@@ -14,12 +14,14 @@ package de.cognicrypt.staticanalyzer;
  * http://www.eclipse.org/legal/epl-2.0. SPDX-License-Identifier: EPL-2.0
  ********************************************************************************/
 
+import org.eclipse.core.resources.IProject;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jface.action.IAction;
 import org.eclipse.jface.viewers.ISelection;
 import org.eclipse.ui.IWorkbenchWindow;
 import org.eclipse.ui.IWorkbenchWindowActionDelegate;
-import de.cognicrypt.staticanalyzer.handlers.AnalysisKickOff;
+import de.cognicrypt.staticanalyzer.handlers.AnalysisRequest;
+import de.cognicrypt.staticanalyzer.handlers.AnalysisScheduler;
 import de.cognicrypt.utils.Utils;
 
 /**
@@ -58,9 +60,10 @@ public class WizardAction implements IWorkbenchWindowActionDelegate {
 	 */
 	@Override
 	public void run(final IAction action) {
-		final AnalysisKickOff akf = new AnalysisKickOff();
-		akf.setUp(JavaCore.create(Utils.getCurrentlySelectedIProject()));
-		akf.run();
+		final IProject project = Utils.getCurrentlySelectedIProject();
+		if (project != null) {
+			AnalysisScheduler.getInstance().schedule(new AnalysisRequest(JavaCore.create(project), false));
+		}
 	}
 
 	/**
@@ -4,6 +4,11 @@
 
 package de.cognicrypt.staticanalyzer.handlers;
 
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -11,13 +16,19 @@ import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
 import de.cognicrypt.core.Constants;
 import de.cognicrypt.staticanalyzer.Activator;
 import de.cognicrypt.staticanalyzer.results.ErrorMarkerGenerator;
+import de.cognicrypt.staticanalyzer.results.ProgressEvent;
 import de.cognicrypt.staticanalyzer.results.ResultsCCUIListener;
+import de.cognicrypt.staticanalyzer.sootbridge.ClassDependencies;
+import de.cognicrypt.staticanalyzer.view.StatisticsView;
 import de.cognicrypt.utils.Utils;
 
 /**
@@ -27,14 +38,38 @@ import de.cognicrypt.utils.Utils;
  */
 public class AnalysisKickOff {
 
-	private static ResultsCCUIListener resultsReporter;
+	private static final long PROGRESS_POLL_INTERVAL = 200;
+
+	private ResultsCCUIListener resultsReporter;
 	private IJavaProject curProj;
 	private boolean depOnly = false;
+	private Collection<ICompilationUnit> changedUnits;
+	private Collection<ICompilationUnit> scope;
+	private Set<String> affectedClasses;
 
 	public void analyzeDependenciesOnly(final Boolean depOnly) {
 		this.depOnly = depOnly;
 	}
 
+	/**
+	 * Restricts the analysis to the given compilation units and the classes depending on them if incremental analysis is enabled and the project has been analysed before.
+	 *
+	 * @param changedUnits compilation units that changed since the last analysis
+	 */
+	public void setChangedCompilationUnits(final Collection<ICompilationUnit> changedUnits) {
+		this.changedUnits = changedUnits;
+	}
+
+	/**
+	 * Restricts the analysis to the given compilation units and the classes they call, up to the depth set on the preference page. Unlike an incremental analysis, a scoped
+	 * analysis does not depend on the incremental analysis preference.
+	 *
+	 * @param scope compilation units to analyse or <code>null</code> to analyse the whole project
+	 */
+	public void setScope(final Collection<ICompilationUnit> scope) {
+		this.scope = scope;
+	}
+
 	/**
 	 * This method sets up the analysis by <br>
 	 * 1) Creating a {@link ErrorMarkerGenerator} <br>
@@ -54,23 +89,22 @@ public class AnalysisKickOff {
 			ip = iJavaElement.getJavaProject().getProject();
 		}
 
-		if (AnalysisKickOff.resultsReporter != null && !AnalysisKickOff.resultsReporter.getReporterProject().equals(ip)) {
-			AnalysisKickOff.resultsReporter = null;
-			for (final ResultsCCUIListener resRep : Activator.getResultsReporters()) {
-				if (resRep.getReporterProject().equals(ip)) {
-					AnalysisKickOff.resultsReporter = resRep;
-					break;
-				}
-			}
-		}
-
-		if (AnalysisKickOff.resultsReporter == null) {
-			AnalysisKickOff.resultsReporter = ResultsCCUIListener.createListener(ip);
+		if (ip == null) {
+			Activator.getDefault().logInfo("No project to analyse found.");
+			return false;
 		}
 
+		this.resultsReporter = getResultsReporter(ip);
 		resultsReporter.analyzeDependenciesOnly(depOnly);
 
-		resultsReporter.getMarkerGenerator().clearMarkers(ip);
+		this.affectedClasses = this.scope != null ? computeScopedClasses(ip) : computeAffectedClasses(ip);
+		resultsReporter.setAffectedClasses(this.affectedClasses);
+		if (this.scope != null) {
+			Activator.getDefault().logInfo("Scoped analysis of " + this.affectedClasses.size() + " classes in " + ip.getName() + ".");
+		} else if (this.affectedClasses != null) {
+			Activator.getDefault().logInfo("Incremental analysis of " + this.affectedClasses.size() + " classes in " + ip.getName() + ".");
+		}
+		resultsReporter.getMarkerGenerator().prepareMarkers(ip, this.affectedClasses);
 		try {
 			if (ip == null || !ip.hasNature(JavaCore.NATURE_ID)) {
 				Activator.getDefault().logInfo("The project " + ip.getName() + " does not have Java nature. No analysis necessary.");
@@ -90,55 +124,139 @@ public class AnalysisKickOff {
 		return true;
 	}
 
+	/**
+	 * Returns the results listener of {@link project}. Each project has exactly one listener, which is created on first use.
+	 */
+	private static synchronized ResultsCCUIListener getResultsReporter(final IProject project) {
+		for (final ResultsCCUIListener resRep : Activator.getResultsReporters()) {
+			if (resRep.getReporterProject().equals(project)) {
+				return resRep;
+			}
+		}
+		return ResultsCCUIListener.createListener(project);
+	}
+
+	public IJavaProject getProject() {
+		return this.curProj;
+	}
+
+	private Set<String> computeAffectedClasses(final IProject ip) {
+		if (this.changedUnits == null || this.changedUnits.isEmpty() || this.depOnly || ip == null
+				|| !Activator.getDefault().getPreferenceStore().getBoolean(Constants.INCREMENTAL_ANALYSIS)) {
+			return null;
+		}
+		final ClassDependencies dependencies = ClassDependencies.forProject(ip);
+		if (!dependencies.isInitialized()) {
+			return null;
+		}
+		final Set<String> changedClasses = new HashSet<>();
+		try {
+			for (final ICompilationUnit unit : this.changedUnits) {
+				for (final IType type : unit.getTypes()) {
+					changedClasses.add(type.getFullyQualifiedName());
+				}
+			}
+		}
+		catch (final JavaModelException e) {
+			Activator.getDefault().logError(e);
+			return null;
+		}
+		return dependencies.getAffectedClasses(changedClasses, Activator.getDefault().getPreferenceStore().getInt(Constants.SCOPED_ANALYSIS_DEPTH));
+	}
+
+	private Set<String> computeScopedClasses(final IProject ip) {
+		final Set<String> scopedClasses = new HashSet<>();
+		try {
+			for (final ICompilationUnit unit : this.scope) {
+				for (final IType type : unit.getTypes()) {
+					scopedClasses.add(type.getFullyQualifiedName());
+				}
+			}
+		}
+		catch (final JavaModelException e) {
+			Activator.getDefault().logError(e);
+		}
+		// the callees are only known once the call graph of the project has been constructed, until then only the selected classes are analysed
+		final ClassDependencies dependencies = ClassDependencies.forProject(ip);
+		final int depth = dependencies.isInitialized() ? Activator.getDefault().getPreferenceStore().getInt(Constants.SCOPED_ANALYSIS_DEPTH) : 0;
+		return dependencies.getCallees(scopedClasses, depth);
+	}
+
 	/**
 	 * This method executes the actual analysis.
 	 */
 	public void run() {
+		final Job analysis = createJob();
+		if (analysis != null) {
+			analysis.schedule();
+		}
+	}
+
+	/**
+	 * Creates the job that executes the actual analysis without scheduling it.
+	 *
+	 * @return the job or <code>null</code> if the analysis has not been set up
+	 */
+	public Job createJob() {
 		if (this.curProj == null)
-			return;
+			return null;
 
 		final Job analysis = new Job(Constants.ANALYSIS_LABEL) {
 
-			@SuppressWarnings("deprecation")
 			@Override
 			protected IStatus run(final IProgressMonitor monitor) {
-				int curSeed = 0;
-				final SootThread sootThread = new SootThread(AnalysisKickOff.this.curProj, AnalysisKickOff.resultsReporter, depOnly);
-				final MonitorReporter monitorThread = new MonitorReporter(AnalysisKickOff.resultsReporter, sootThread);
-				monitorThread.start();
+				// a cancelled run of the same project may still be winding down and must not report into this run
+				final Thread previousThread = AnalysisKickOff.this.resultsReporter.getAnalysisThread();
+				if (previousThread != null && !awaitTermination(previousThread, monitor)) {
+					return Status.CANCEL_STATUS;
+				}
+				final BlockingQueue<ProgressEvent> progressEvents = AnalysisKickOff.this.resultsReporter.startProgressReporting();
+				final SootThread sootThread = new SootThread(AnalysisKickOff.this.curProj, AnalysisKickOff.this.resultsReporter, depOnly, affectedClasses);
+				AnalysisKickOff.this.resultsReporter.setAnalysisThread(sootThread);
 				sootThread.start();
-				AnalysisKickOff.resultsReporter.setCgGenComplete(false);
 				SubMonitor subMonitor = SubMonitor.convert(monitor, 100);
 				SubMonitor cgGen = subMonitor.newChild(50);
+				SubMonitor seedProgress = null;
+				int percentCompleted = 0;
+				cgGen.setTaskName("Constructing call Graphs...");
 				while (sootThread.isAlive()) {
-					try {
-						Thread.sleep(1);
-					}
-					catch (final InterruptedException e) {}
-
-					if (!monitorThread.isCgGen()) {
-						cgGen.setWorkRemaining(1000).split(1);
-						cgGen.setTaskName("Constructing call Graphs...");
-					} else {
-						if (monitorThread.getProcessedSeeds() - curSeed != 0) {
-							curSeed = monitorThread.getProcessedSeeds();
-							subMonitor.split(monitorThread.getWorkUnitsCompleted() / 2);
-							subMonitor.setTaskName("Completed " + monitorThread.getProcessedSeeds() + " of " + monitorThread.getTotalSeeds() + " seeds.");
-						}
-					}
 					if (monitor.isCanceled()) {
-						sootThread.stop();
+						// class loading and call graph construction do not check for cancellation, so the thread stops in the background; SootRunner.SOOT_LOCK keeps
+						// the next analysis from entering Soot before it has stopped
+						sootThread.cancel();
+						StatisticsView.allowAnalysisRerun(true);
 						Activator.getDefault().logInfo("Static analysis job cancelled for " + curProj.getElementName() + ".");
 						return Status.CANCEL_STATUS;
 					}
 
+					ProgressEvent event;
+					try {
+						event = progressEvents.poll(PROGRESS_POLL_INTERVAL, TimeUnit.MILLISECONDS);
+					}
+					catch (final InterruptedException e) {
+						monitor.setCanceled(true);
+						continue;
+					}
+
+					if (event == null || !event.isCgGenComplete()) {
+						if (seedProgress == null) {
+							cgGen.setWorkRemaining(1000).worked(1);
+						}
+						continue;
+					}
+					if (seedProgress == null) {
+						cgGen.done();
+						seedProgress = SubMonitor.convert(subMonitor.newChild(50), 100);
+					}
+					if (event.getPercentCompleted() > percentCompleted) {
+						seedProgress.worked(event.getPercentCompleted() - percentCompleted);
+						percentCompleted = event.getPercentCompleted();
+					}
+					if (event.getTotalSeeds() > 0) {
+						subMonitor.setTaskName("Completed " + event.getProcessedSeeds() + " of " + event.getTotalSeeds() + " seeds.");
+					}
 				}
 				monitor.done();
-				AnalysisKickOff.resultsReporter.setPercentCompleted(0);
-				AnalysisKickOff.resultsReporter.setProcessedSeeds(0);
-				AnalysisKickOff.resultsReporter.setTotalSeeds(0);
-				AnalysisKickOff.resultsReporter.setWorkUnitsCompleted(0);
-				AnalysisKickOff.resultsReporter.setWork(0);
 				if (sootThread.isSucc()) {
 					Activator.getDefault().logInfo("Static analysis job successfully terminated for " + curProj.getElementName() + ".");
 					return Status.OK_STATUS;
@@ -153,8 +271,27 @@ public class AnalysisKickOff {
 			protected void canceling() {
 				cancel();
 			}
+
+			/**
+			 * @return <code>true</code> if {@link thread} has terminated, <code>false</code> if the job has been cancelled while waiting
+			 */
+			private boolean awaitTermination(final Thread thread, final IProgressMonitor monitor) {
+				monitor.setTaskName("Waiting for the cancelled analysis to stop...");
+				while (thread.isAlive()) {
+					if (monitor.isCanceled()) {
+						return false;
+					}
+					try {
+						thread.join(PROGRESS_POLL_INTERVAL);
+					}
+					catch (final InterruptedException e) {
+						return false;
+					}
+				}
+				return true;
+			}
 		};
 		analysis.setPriority(Job.LONG);
-		analysis.schedule();
+		return analysis;
 	}
 }
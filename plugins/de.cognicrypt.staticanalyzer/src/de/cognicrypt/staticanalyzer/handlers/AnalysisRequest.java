@@ -0,0 +1,111 @@
+/********************************************************************************
+ * Copyright (c) 2015-2019 TU Darmstadt, Paderborn University
+ * 
+
+ * http://www.eclipse.org/legal/epl-2.0. SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package de.cognicrypt.staticanalyzer.handlers;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
+
+/**
+ * This class describes a pending analysis of a project. Requests for the same project and analysis kind are merged by the {@link AnalysisScheduler}.
+ */
+public class AnalysisRequest {
+
+	private final IJavaProject project;
+	private final boolean depOnly;
+	private Set<ICompilationUnit> changedUnits;
+	private Set<ICompilationUnit> scope;
+
+	/**
+	 * Creates a request to analyse the whole project {@link project}.
+	 */
+	public AnalysisRequest(final IJavaProject project, final boolean depOnly) {
+		this(project, depOnly, null);
+	}
+
+	/**
+	 * Creates a request to analyse {@link project} after the compilation units {@link changedUnits} have changed.
+	 *
+	 * @param changedUnits changed compilation units or <code>null</code> to analyse the whole project
+	 */
+	public AnalysisRequest(final IJavaProject project, final boolean depOnly, final Collection<ICompilationUnit> changedUnits) {
+		this.project = project;
+		this.depOnly = depOnly;
+		this.changedUnits = changedUnits == null ? null : new LinkedHashSet<>(changedUnits);
+	}
+
+	/**
+	 * Creates a request to analyse only the compilation units {@link scope} of {@link project} and the classes they call.
+	 */
+	public static AnalysisRequest scopedTo(final IJavaProject project, final Collection<ICompilationUnit> scope) {
+		final AnalysisRequest request = new AnalysisRequest(project, false);
+		request.scope = new LinkedHashSet<>(scope);
+		return request;
+	}
+
+	public IProject getProject() {
+		return this.project.getProject();
+	}
+
+	public boolean isDepOnly() {
+		return this.depOnly;
+	}
+
+	/**
+	 * @return the changed compilation units or <code>null</code> if the whole project is analysed
+	 */
+	public Set<ICompilationUnit> getChangedUnits() {
+		return this.changedUnits;
+	}
+
+	/**
+	 * @return the compilation units the analysis is scoped to or <code>null</code> if it is not scoped
+	 */
+	public Set<ICompilationUnit> getScope() {
+		return this.scope;
+	}
+
+	/**
+	 * @return <code>true</code> if {@link other} analyses the same project in the same way and can therefore be merged into this request
+	 */
+	public boolean canMerge(final AnalysisRequest other) {
+		return getProject().equals(other.getProject()) && this.depOnly == other.depOnly && (this.scope == null) == (other.scope == null);
+	}
+
+	/**
+	 * Merges {@link other} into this request. The merged request analyses the whole project if either request does. Scoped requests are merged into a request that
+	 * analyses the union of both scopes.
+	 */
+	public void merge(final AnalysisRequest other) {
+		if (this.scope != null) {
+			this.scope.addAll(other.scope);
+			return;
+		}
+		if (this.changedUnits == null || other.changedUnits == null) {
+			this.changedUnits = null;
+		} else {
+			this.changedUnits.addAll(other.changedUnits);
+		}
+	}
+
+	/**
+	 * Sets up the analysis described by this request.
+	 *
+	 * @return the set up analysis or <code>null</code> if the project cannot be analysed
+	 */
+	public AnalysisKickOff createKickOff() {
+		final AnalysisKickOff kickOff = new AnalysisKickOff();
+		kickOff.analyzeDependenciesOnly(this.depOnly);
+		kickOff.setChangedCompilationUnits(this.changedUnits);
+		kickOff.setScope(this.scope);
+		return kickOff.setUp(this.project) ? kickOff : null;
+	}
+}
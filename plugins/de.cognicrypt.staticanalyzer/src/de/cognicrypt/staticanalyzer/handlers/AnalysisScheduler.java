@@ -0,0 +1,170 @@
+/********************************************************************************
+ * Copyright (c) 2015-2019 TU Darmstadt, Paderborn University
+ * 
+
+ * http://www.eclipse.org/legal/epl-2.0. SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package de.cognicrypt.staticanalyzer.handlers;
+
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
+import org.eclipse.ui.IEditorPart;
+import org.eclipse.ui.IPartListener2;
+import org.eclipse.ui.IWorkbenchPart;
+import org.eclipse.ui.IWorkbenchPartReference;
+import de.cognicrypt.core.Constants;
+import de.cognicrypt.staticanalyzer.Activator;
+
+/**
+ * This class schedules analyses of projects. Repeated requests for a project that is still waiting are merged into one, a project is never analysed twice at the same
+ * time, the project of the active editor is served first, and at most {@link Constants#ANALYSIS_WORKERS} analyses run concurrently. Analyses only run concurrently in
+ * separate analysis processes. Within the IDE, Soot can only run one analysis at a time, and a second running job would only hold its slot while waiting for Soot, where
+ * it can no longer be overtaken by the project of the active editor.
+ */
+public class AnalysisScheduler {
+
+	private static final AnalysisScheduler INSTANCE = new AnalysisScheduler();
+
+	private final List<AnalysisRequest> pending = new LinkedList<>();
+	private final Set<IProject> running = new HashSet<>();
+	private volatile IProject activeEditorProject;
+
+	private final IPartListener2 activeEditorTracker = new IPartListener2() {
+
+		@Override
+		public void partActivated(final IWorkbenchPartReference partRef) {
+			final IWorkbenchPart part = partRef.getPart(false);
+			if (part instanceof IEditorPart) {
+				final IFile file = ((IEditorPart) part).getEditorInput().getAdapter(IFile.class);
+				if (file != null) {
+					AnalysisScheduler.this.activeEditorProject = file.getProject();
+				}
+			}
+		}
+
+		@Override
+		public void partBroughtToTop(final IWorkbenchPartReference partRef) {}
+
+		@Override
+		public void partClosed(final IWorkbenchPartReference partRef) {}
+
+		@Override
+		public void partDeactivated(final IWorkbenchPartReference partRef) {}
+
+		@Override
+		public void partOpened(final IWorkbenchPartReference partRef) {}
+
+		@Override
+		public void partHidden(final IWorkbenchPartReference partRef) {}
+
+		@Override
+		public void partVisible(final IWorkbenchPartReference partRef) {}
+
+		@Override
+		public void partInputChanged(final IWorkbenchPartReference partRef) {
+			partActivated(partRef);
+		}
+	};
+
+	private AnalysisScheduler() {}
+
+	public static AnalysisScheduler getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * @return the listener that keeps track of the project of the active editor
+	 */
+	public IPartListener2 getActiveEditorTracker() {
+		return this.activeEditorTracker;
+	}
+
+	/**
+	 * Queues {@link request}. If a request for the same project is already waiting, both are merged.
+	 *
+	 * @param request the analysis to schedule
+	 */
+	public void schedule(final AnalysisRequest request) {
+		synchronized (this) {
+			boolean merged = false;
+			for (final AnalysisRequest waiting : this.pending) {
+				if (waiting.canMerge(request)) {
+					waiting.merge(request);
+					merged = true;
+					break;
+				}
+			}
+			if (!merged) {
+				this.pending.add(request);
+			}
+		}
+		dispatch();
+	}
+
+	/**
+	 * Starts waiting analyses as long as workers are available.
+	 */
+	private void dispatch() {
+		AnalysisRequest next;
+		while ((next = takeNext()) != null) {
+			final AnalysisKickOff kickOff = next.createKickOff();
+			final Job analysis = kickOff == null ? null : kickOff.createJob();
+			if (analysis == null) {
+				finished(next.getProject());
+				continue;
+			}
+			final IProject project = next.getProject();
+			analysis.addJobChangeListener(new JobChangeAdapter() {
+
+				@Override
+				public void done(final IJobChangeEvent event) {
+					finished(project);
+					dispatch();
+				}
+			});
+			analysis.schedule();
+		}
+	}
+
+	private synchronized AnalysisRequest takeNext() {
+		if (this.running.size() >= getWorkerCount()) {
+			return null;
+		}
+		AnalysisRequest next = null;
+		for (final AnalysisRequest waiting : this.pending) {
+			if (this.running.contains(waiting.getProject())) {
+				continue;
+			}
+			if (next == null || waiting.getProject().equals(this.activeEditorProject)) {
+				next = waiting;
+			}
+			if (waiting.getProject().equals(this.activeEditorProject)) {
+				break;
+			}
+		}
+		if (next != null) {
+			this.pending.remove(next);
+			this.running.add(next.getProject());
+		}
+		return next;
+	}
+
+	private synchronized void finished(final IProject project) {
+		this.running.remove(project);
+	}
+
+	private static int getWorkerCount() {
+		if (!Activator.getDefault().getPreferenceStore().getBoolean(Constants.ANALYSIS_WORKER_PROCESS)) {
+			return 1;
+		}
+		return Math.max(1, Activator.getDefault().getPreferenceStore().getInt(Constants.ANALYSIS_WORKERS));
+	}
+}
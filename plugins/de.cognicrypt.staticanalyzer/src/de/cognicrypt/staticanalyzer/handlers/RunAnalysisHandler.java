@@ -28,7 +28,6 @@ public class RunAnalysisHandler extends AbstractHandler {
 
 	@Override
 	public Object execute(ExecutionEvent event) throws ExecutionException {
-		final AnalysisKickOff akf = new AnalysisKickOff();
 		IEditorPart openEditor = UIUtils.getCurrentlyOpenEditor();
 
 		// check if there are unsaved changes
@@ -43,9 +42,12 @@ public class RunAnalysisHandler extends AbstractHandler {
 				return null;
 			}
 		}
-		if (akf.setUp(JavaCore.create(Utils.getCurrentlySelectedIProject()))) {
-			akf.run();
+		final IProject project = Utils.getCurrentlySelectedIProject();
+		if (project == null) {
+			Activator.getDefault().logInfo("No project to analyse found.");
+			return null;
 		}
+		AnalysisScheduler.getInstance().schedule(new AnalysisRequest(JavaCore.create(project), false));
 		return null;
 	}
 
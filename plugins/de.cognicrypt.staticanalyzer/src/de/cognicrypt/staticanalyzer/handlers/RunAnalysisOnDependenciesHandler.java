@@ -30,11 +30,7 @@ public class RunAnalysisOnDependenciesHandler extends AbstractHandler {
 			return false;
 		}
 
-		final AnalysisKickOff akf = new AnalysisKickOff();
-		akf.analyzeDependenciesOnly(true);
-		if (akf.setUp(javaProject)) {
-			akf.run();
-		}
+		AnalysisScheduler.getInstance().schedule(new AnalysisRequest(javaProject, true));
 
 		return null;
 	}
@@ -0,0 +1,99 @@
+/********************************************************************************
+ * Copyright (c) 2015-2019 TU Darmstadt, Paderborn University http://www.eclipse.org/legal/epl-2.0. SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package de.cognicrypt.staticanalyzer.handlers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import javax.swing.JOptionPane;
+import org.eclipse.core.commands.AbstractHandler;
+import org.eclipse.core.commands.ExecutionEvent;
+import org.eclipse.core.commands.ExecutionException;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.Adapters;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jface.viewers.ISelection;
+import org.eclipse.jface.viewers.IStructuredSelection;
+import org.eclipse.ui.IEditorPart;
+import org.eclipse.ui.handlers.HandlerUtil;
+import de.cognicrypt.staticanalyzer.Activator;
+import de.cognicrypt.utils.UIUtils;
+import de.cognicrypt.utils.Utils;
+
+/**
+ * This handler analyses only the selected compilation units or packages, or the file in the active editor if nothing is selected, together with the classes they call.
+ * It gives quick feedback on the code that is being edited without analysing the whole project.
+ */
+public class RunScopedAnalysisHandler extends AbstractHandler {
+
+	@Override
+	public Object execute(ExecutionEvent event) throws ExecutionException {
+		final List<ICompilationUnit> units = getSelectedUnits(HandlerUtil.getCurrentSelection(event));
+		if (units.isEmpty()) {
+			final IEditorPart openEditor = UIUtils.getCurrentlyOpenEditor();
+			final IFile openFile = Utils.getCurrentlyOpenFile();
+			final ICompilationUnit openUnit = openFile == null ? null : JavaCore.createCompilationUnitFrom(openFile);
+			if (openUnit == null) {
+				Activator.getDefault().logInfo("No file or package to analyse found.");
+				return null;
+			}
+			if (openEditor.isDirty()) {
+				int answr = RunAnalysisHandler.saveFile(openFile);
+				if (answr == JOptionPane.YES_OPTION) {
+					openEditor.doSave(null);
+				} else if (answr == JOptionPane.CLOSED_OPTION) {
+					return null;
+				}
+			}
+			units.add(openUnit);
+		}
+
+		// a selection may span several projects, each of which is analysed on its own
+		final Map<IJavaProject, List<ICompilationUnit>> unitsPerProject = new LinkedHashMap<>();
+		for (final ICompilationUnit unit : units) {
+			unitsPerProject.computeIfAbsent(unit.getJavaProject(), p -> new ArrayList<>()).add(unit);
+		}
+		for (final Entry<IJavaProject, List<ICompilationUnit>> projectUnits : unitsPerProject.entrySet()) {
+			AnalysisScheduler.getInstance().schedule(AnalysisRequest.scopedTo(projectUnits.getKey(), projectUnits.getValue()));
+		}
+		return null;
+	}
+
+	private static List<ICompilationUnit> getSelectedUnits(final ISelection selection) {
+		final List<ICompilationUnit> units = new ArrayList<>();
+		if (!(selection instanceof IStructuredSelection)) {
+			return units;
+		}
+		for (final Object element : ((IStructuredSelection) selection).toList()) {
+			IJavaElement javaElement = Adapters.adapt(element, IJavaElement.class);
+			if (javaElement == null && element instanceof IResource) {
+				javaElement = JavaCore.create((IResource) element);
+			}
+			try {
+				if (javaElement instanceof ICompilationUnit) {
+					units.add((ICompilationUnit) javaElement);
+				} else if (javaElement instanceof IType && ((IType) javaElement).getCompilationUnit() != null) {
+					units.add(((IType) javaElement).getCompilationUnit());
+				} else if (javaElement instanceof IPackageFragment) {
+					units.addAll(Arrays.asList(((IPackageFragment) javaElement).getCompilationUnits()));
+				}
+			}
+			catch (final JavaModelException e) {
+				Activator.getDefault().logError(e);
+			}
+		}
+		return units;
+	}
+}
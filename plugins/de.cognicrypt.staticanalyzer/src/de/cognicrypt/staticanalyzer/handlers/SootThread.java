@@ -10,6 +10,7 @@
 
 package de.cognicrypt.staticanalyzer.handlers;
 
+import java.util.Set;
 import org.eclipse.jdt.core.IJavaProject;
 import de.cognicrypt.staticanalyzer.results.ResultsCCUIListener;
 import de.cognicrypt.staticanalyzer.sootbridge.SootRunner;
@@ -19,19 +20,33 @@ public class SootThread extends Thread {
 	private final IJavaProject curProj;
 	private final ResultsCCUIListener resultsReporter;
 	private final Boolean dependencyAnalyser;
+	private final Set<String> affectedClasses;
 
 	public SootThread(final IJavaProject curProject, final ResultsCCUIListener resultsListener, final Boolean dependencyAnalyser) {
+		this(curProject, resultsListener, dependencyAnalyser, null);
+	}
+
+	public SootThread(final IJavaProject curProject, final ResultsCCUIListener resultsListener, final Boolean dependencyAnalyser, final Set<String> affectedClasses) {
 		this.curProj = curProject;
 		this.resultsReporter = resultsListener;
 		this.dependencyAnalyser = dependencyAnalyser;
+		this.affectedClasses = affectedClasses;
 	}
 
 	public boolean isSucc() {
 		return this.succ;
 	}
 
+	/**
+	 * Asks the analysis to stop cooperatively. The thread terminates once the analysis reaches the next phase boundary or finishes the current seed.
+	 */
+	public void cancel() {
+		this.resultsReporter.cancel();
+		interrupt();
+	}
+
 	@Override
 	public void run() {
-		this.succ = SootRunner.runSoot(this.curProj, this.resultsReporter, this.dependencyAnalyser);
+		this.succ = SootRunner.runSoot(this.curProj, this.resultsReporter, this.dependencyAnalyser, this.affectedClasses);
 	}
 }
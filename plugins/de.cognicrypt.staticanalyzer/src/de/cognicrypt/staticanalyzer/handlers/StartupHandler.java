@@ -7,24 +7,33 @@
 
 package de.cognicrypt.staticanalyzer.handlers;
 
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Queue;
+import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.IResourceChangeEvent;
 import org.eclipse.core.resources.IResourceChangeListener;
 import org.eclipse.core.resources.IResourceDelta;
 import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jface.preference.IPreferenceStore;
 import org.eclipse.ui.IStartup;
+import org.eclipse.ui.IWorkbenchWindow;
+import org.eclipse.ui.PlatformUI;
 import de.cognicrypt.core.Constants;
 import de.cognicrypt.staticanalyzer.Activator;
+import de.cognicrypt.staticanalyzer.results.ResultStore;
+import de.cognicrypt.staticanalyzer.results.StoredResults;
+import de.cognicrypt.staticanalyzer.sootbridge.ResultFingerprint;
 import de.cognicrypt.utils.Utils;
 
 /**
@@ -34,17 +43,14 @@ import de.cognicrypt.utils.Utils;
  * @author Stefan Krueger
  */
 public class StartupHandler implements IStartup {
-	static Queue<AnalysisKickOff> analysis_Queue = new LinkedList<AnalysisKickOff>();
-	static boolean analysis_running = false;
 
 	private static class AfterBuildListener implements IResourceChangeListener {
 
 		/**
 		 * This method sets up the analysis by <br>
 		 * 1) Listening to any resource change in the workspace <br>
-		 * 2) Setting Up the analysis by calling the "setup" method of {@link AnalysisKickOff} <br>
-		 * 3) Running the analysis on the setup {@link AnalysisKickOff} object <br>
-		 * It maintains a Queue and a monitor flag that allows running only one analysis at a time.
+		 * 2) Scheduling an analysis of the changed project with the {@link AnalysisScheduler} <br>
+		 * The scheduler merges repeated requests for the same project and limits the number of concurrent analyses.
 		 *
 		 * @param event : an object of the {@link IResourceChangeEvent} class, contains info about the changed resources from the workspace
 		 * @return <code>true</code>/<code>false</code> if change (not) in java element
@@ -110,18 +116,14 @@ public class StartupHandler implements IStartup {
 					Activator.getDefault().logInfo("No changed resource found. Abort.");
 					return;
 				} else  {
-					final AnalysisKickOff ako = new AnalysisKickOff();
-					if (ako.setUp(changedJavaElements.get(0))) {
-						analysis_Queue.add(ako);
-					}
-					while (analysis_Queue.size() > 0) {
-						if (!analysis_running) {
-							final AnalysisKickOff ak = analysis_Queue.remove();
-							analysis_running = true;
-							ak.run();
-							analysis_running = false;
+					final IJavaProject changedProject = changedJavaElements.get(0).getJavaProject();
+					final List<ICompilationUnit> changedUnits = new ArrayList<>();
+					for (final IJavaElement changedElement : changedJavaElements) {
+						if (changedElement instanceof ICompilationUnit && changedProject.equals(changedElement.getJavaProject())) {
+							changedUnits.add((ICompilationUnit) changedElement);
 						}
 					}
+					AnalysisScheduler.getInstance().schedule(new AnalysisRequest(changedProject, false, changedUnits.isEmpty() ? null : changedUnits));
 				}
 			}
 		}
@@ -129,9 +131,50 @@ public class StartupHandler implements IStartup {
 
 	private static final AfterBuildListener BUILD_LISTENER = new AfterBuildListener();
 
+	/**
+	 * Markers are removed on shutdown. This job brings back the results of the projects that have not changed since their last analysis by scheduling an analysis for them,
+	 * which then restores the stored results instead of analysing the project again.
+	 */
+	private static Job createRestoreJob() {
+		return new Job("Restoring CogniCrypt analysis results") {
+
+			@Override
+			protected IStatus run(final IProgressMonitor monitor) {
+				for (final IProject project : ResourcesPlugin.getWorkspace().getRoot().getProjects()) {
+					if (monitor.isCanceled()) {
+						return Status.CANCEL_STATUS;
+					}
+					try {
+						if (!project.isOpen() || !project.hasNature(JavaCore.NATURE_ID) || !ResultStore.getInstance().contains(project)) {
+							continue;
+						}
+						final IJavaProject javaProject = JavaCore.create(project);
+						final StoredResults stored = ResultStore.getInstance().load(project);
+						if (stored != null && stored.getFingerprint().equals(ResultFingerprint.compute(javaProject).getValue())) {
+							AnalysisScheduler.getInstance().schedule(new AnalysisRequest(javaProject, false));
+						}
+					}
+					catch (final CoreException | IOException e) {
+						Activator.getDefault().logError(e, "Could not restore the analysis results of " + project.getName() + ".");
+					}
+				}
+				return Status.OK_STATUS;
+			}
+		};
+	}
+
 	@Override
 	public void earlyStartup() {
 		ResourcesPlugin.getWorkspace().addResourceChangeListener(StartupHandler.BUILD_LISTENER, IResourceChangeEvent.POST_BUILD);
+		final Job restoreJob = createRestoreJob();
+		restoreJob.setSystem(true);
+		restoreJob.schedule();
+		PlatformUI.getWorkbench().getDisplay().asyncExec(() -> {
+			final IWorkbenchWindow window = PlatformUI.getWorkbench().getActiveWorkbenchWindow();
+			if (window != null) {
+				window.getPartService().addPartListener(AnalysisScheduler.getInstance().getActiveEditorTracker());
+			}
+		});
 	}
 
 }
@@ -0,0 +1,285 @@
+/********************************************************************************
+ * Copyright (c) 2015-2019 TU Darmstadt, Paderborn University http://www.eclipse.org/legal/epl-2.0. SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package de.cognicrypt.staticanalyzer.headless;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.ProcessBuilder.Redirect;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import crypto.analysis.CrySLRulesetSelector.RuleFormat;
+import crypto.cryslhandler.CrySLModelReader;
+import crypto.rules.CrySLRule;
+import de.cognicrypt.staticanalyzer.results.ErrorSummary;
+import de.cognicrypt.staticanalyzer.sootbridge.AnalysisConfig;
+import de.cognicrypt.staticanalyzer.sootbridge.AnalysisMetrics;
+import de.cognicrypt.staticanalyzer.worker.WorkerConnection;
+import de.cognicrypt.staticanalyzer.worker.WorkerMessage;
+
+/**
+ * This class analyses jars and class directories without a running workbench, e.g., for nightly scans on a build server. The targets are distributed over a number of
+ * analysis processes that run in parallel. For every target, one line with a JSON object describing its findings is written to the output.
+ *
+ * With <code>-cg compare</code>, every target is analysed once with each call graph algorithm, which serves as a benchmark of the algorithms: the lines of a target differ
+ * in their <code>callGraph</code>, and their metrics and findings show what each algorithm costs and finds.
+ *
+ * The class path has to contain this plug-in and the libraries of the core plug-in:
+ *
+ * <pre>
+ * java -cp de.cognicrypt.staticanalyzer.jar:de.cognicrypt.core/lib/* de.cognicrypt.staticanalyzer.headless.HeadlessAnalysis
+ *      -rules &lt;dir&gt; [-cp &lt;library class path&gt;] [-cg cha|spark|ondemand|compare] [-workers &lt;n&gt;] [-heap &lt;MB&gt;] [-out &lt;file&gt;] &lt;jar or class directory&gt;...
+ * </pre>
+ *
+ * The exit code is 0 if all targets have been analysed, 1 if the analysis of at least one target failed, and 2 if the arguments are invalid.
+ */
+public class HeadlessAnalysis {
+
+	private static final int DEFAULT_HEAP_SIZE = 4096;
+
+	/**
+	 * the call graph algorithms that can be selected by name
+	 */
+	private static final Map<String, Integer> CALL_GRAPHS = new LinkedHashMap<>();
+
+	static {
+		CALL_GRAPHS.put("cha", 0);
+		CALL_GRAPHS.put("spark", 1);
+		CALL_GRAPHS.put("ondemand", AnalysisConfig.ON_DEMAND_CALL_GRAPH);
+	}
+
+	private String rulesDir;
+	private String libraryClassPath = "";
+	private List<String> callGraphs = Collections.singletonList("cha");
+	private int workers = 1;
+	private int heapSize = DEFAULT_HEAP_SIZE;
+	private String outputFile;
+	private final List<String> targets = new ArrayList<>();
+
+	private final BlockingQueue<WorkerConnection> idleWorkers = new LinkedBlockingQueue<>();
+	private final Gson gson = new Gson();
+
+	/**
+	 * The result of analysing one target, serialized as one line of the output.
+	 */
+	private static class TargetResult {
+
+		private String target;
+		private String callGraph;
+		private String status;
+		private long durationMs;
+		private int seeds;
+		private final List<Finding> errors = new ArrayList<>();
+		private String failure;
+		private JsonObject metrics;
+	}
+
+	private static class Finding {
+
+		private final String type;
+		private final String className;
+		private final int line;
+		private final String rule;
+		private final String message;
+
+		private Finding(final ErrorSummary error) {
+			this.type = error.getErrorType().getSimpleName();
+			this.className = error.getClassName();
+			this.line = error.getLineNumber();
+			this.rule = error.getRuleName();
+			this.message = error.getMessage();
+		}
+	}
+
+	public static void main(final String[] args) {
+		final HeadlessAnalysis analysis = new HeadlessAnalysis();
+		if (!analysis.parseArguments(args)) {
+			printUsage();
+			System.exit(2);
+		}
+		try {
+			System.exit(analysis.run() ? 0 : 1);
+		}
+		catch (final IOException e) {
+			e.printStackTrace();
+			System.exit(1);
+		}
+	}
+
+	private boolean parseArguments(final String[] args) {
+		try {
+			for (int i = 0; i < args.length; i++) {
+				switch (args[i]) {
+					case "-rules":
+						this.rulesDir = args[++i];
+						break;
+					case "-cp":
+						this.libraryClassPath = args[++i];
+						break;
+					case "-cg":
+						final String algorithm = args[++i].toLowerCase();
+						if ("compare".equals(algorithm)) {
+							this.callGraphs = new ArrayList<>(CALL_GRAPHS.keySet());
+						} else if (CALL_GRAPHS.containsKey(algorithm)) {
+							this.callGraphs = Arrays.asList(algorithm);
+						} else {
+							return false;
+						}
+						break;
+					case "-workers":
+						this.workers = Math.max(1, Integer.parseInt(args[++i]));
+						break;
+					case "-heap":
+						this.heapSize = Integer.parseInt(args[++i]);
+						break;
+					case "-out":
+						this.outputFile = args[++i];
+						break;
+					default:
+						this.targets.add(args[i]);
+				}
+			}
+		}
+		catch (final ArrayIndexOutOfBoundsException | NumberFormatException e) {
+			return false;
+		}
+		return this.rulesDir != null && !this.targets.isEmpty();
+	}
+
+	private static void printUsage() {
+		System.err.println(
+				"Usage: HeadlessAnalysis -rules <dir> [-cp <library class path>] [-cg cha|spark|ondemand|compare] [-workers <n>] [-heap <MB>] [-out <file>] <jar or class directory>...");
+	}
+
+	/**
+	 * Analyses all targets.
+	 *
+	 * @return <code>true</code> if all targets have been analysed successfully
+	 */
+	private boolean run() throws IOException {
+		final List<CrySLRule> rules = readRules(new File(this.rulesDir));
+		System.err.println("Loaded " + rules.size() + " CrySL rules.");
+
+		final AtomicBoolean successful = new AtomicBoolean(true);
+		final ExecutorService executor = Executors.newFixedThreadPool(this.workers);
+		try (PrintWriter output = this.outputFile == null ? new PrintWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))
+				: new PrintWriter(new OutputStreamWriter(new FileOutputStream(this.outputFile), StandardCharsets.UTF_8))) {
+			for (final String target : this.targets) {
+				for (final String callGraph : this.callGraphs) {
+					executor.execute(() -> {
+						final TargetResult result = analyse(target, callGraph, rules);
+						if (result.failure != null) {
+							successful.set(false);
+						}
+						synchronized (output) {
+							output.println(this.gson.toJson(result));
+							output.flush();
+						}
+					});
+				}
+			}
+			executor.shutdown();
+			executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+		}
+		catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+		finally {
+			executor.shutdownNow();
+			for (final WorkerConnection worker : this.idleWorkers) {
+				worker.destroy();
+			}
+		}
+		return successful.get();
+	}
+
+	private TargetResult analyse(final String target, final String callGraph, final List<CrySLRule> rules) {
+		final TargetResult result = new TargetResult();
+		result.target = target;
+		result.callGraph = callGraph;
+		final long start = System.currentTimeMillis();
+
+		final AnalysisConfig config = new AnalysisConfig();
+		config.setSootClassPath(this.libraryClassPath.isEmpty() ? target : target + File.pathSeparator + this.libraryClassPath);
+		config.setProcessDirs(Collections.singletonList(target));
+		config.setRules(rules);
+		config.setCallGraph(CALL_GRAPHS.get(callGraph));
+
+		WorkerConnection worker = this.idleWorkers.poll();
+		try {
+			if (worker == null) {
+				worker = WorkerConnection.start(System.getProperty("java.class.path"), this.heapSize, Redirect.INHERIT);
+			}
+			worker.analyse(config, message -> {
+				if (message.getKind() == WorkerMessage.Kind.SEED) {
+					result.seeds++;
+				} else if (message.getKind() == WorkerMessage.Kind.ERROR) {
+					result.errors.add(new Finding(message.getPayload()));
+				} else if (message.getKind() == WorkerMessage.Kind.METRICS) {
+					result.metrics = ((AnalysisMetrics) message.getPayload()).toJson();
+				}
+			});
+			result.status = "analysed";
+		}
+		catch (final IOException | RuntimeException e) {
+			result.status = "failed";
+			result.failure = e.getMessage();
+		}
+		finally {
+			if (worker != null) {
+				if (worker.isAlive()) {
+					this.idleWorkers.add(worker);
+				} else {
+					worker.destroy();
+				}
+			}
+		}
+		result.durationMs = System.currentTimeMillis() - start;
+		System.err.println("Analysed " + target + " with " + callGraph + " in " + result.durationMs + " ms: " + result.status + ", " + result.errors.size() + " errors.");
+		return result;
+	}
+
+	private static List<CrySLRule> readRules(final File rulesDir) throws IOException {
+		final CrySLModelReader reader;
+		try {
+			reader = new CrySLModelReader();
+		}
+		catch (final Exception e) {
+			throw new IOException("Could not set up the CrySL parser.", e);
+		}
+		final List<CrySLRule> rules = new ArrayList<>();
+		try (Stream<Path> files = Files.walk(rulesDir.toPath())) {
+			for (final File ruleFile : files.map(Path::toFile).filter(file -> file.getName().endsWith(RuleFormat.SOURCE.toString())).collect(Collectors.toList())) {
+				final CrySLRule rule = reader.readRule(ruleFile);
+				if (rule != null) {
+					rules.add(rule);
+				} else {
+					System.err.println("Could not parse CrySL rule " + ruleFile + ".");
+				}
+			}
+		}
+		return rules;
+	}
+}
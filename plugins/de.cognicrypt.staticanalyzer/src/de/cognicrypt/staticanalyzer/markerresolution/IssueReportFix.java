@@ -18,6 +18,7 @@ import org.eclipse.egit.github.core.Label;
 import org.eclipse.egit.github.core.client.GitHubClient;
 import org.eclipse.egit.github.core.service.IssueService;
 import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTParser;
 import org.eclipse.jdt.core.dom.ASTVisitor;
@@ -29,6 +30,7 @@ import org.eclipse.ui.PlatformUI;
 import de.cognicrypt.core.Activator;
 import de.cognicrypt.core.Constants;
 import de.cognicrypt.core.Constants.Severities;
+import de.cognicrypt.staticanalyzer.sootbridge.JimpleBodies;
 import de.cognicrypt.staticanalyzer.utilities.QuickFixUtils;
 import de.cognicrypt.staticanalyzer.utilities.Reporter;
 
@@ -148,7 +150,8 @@ public class IssueReportFix implements IMarkerResolution {
 
 			if (attachmentIndex == 1 || attachmentIndex == 0) {
 				builder.append("**Jimple Code**\n\n");
-				builder.append("```java\n" + (String) marker.getAttribute("errorJimpleCode") + "```");
+				final String jimpleBody = JimpleBodies.get(JavaCore.create(marker.getResource().getProject()), (String) marker.getAttribute("errorMethodSignature"));
+				builder.append("```java\n" + (jimpleBody != null ? jimpleBody : "Jimple code not available.\n") + "```");
 				builder.append("\n\n");
 			}
 
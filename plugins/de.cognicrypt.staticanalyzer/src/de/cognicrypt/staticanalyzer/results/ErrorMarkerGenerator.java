@@ -9,17 +9,28 @@ package de.cognicrypt.staticanalyzer.results;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaCore;
 import de.cognicrypt.core.Constants;
 import de.cognicrypt.core.Constants.Severities;
 import de.cognicrypt.staticanalyzer.Activator;
 
 /**
- * This class handles error markers for crypto misuses.
+ * This class handles error markers for crypto misuses. Markers reported during an analysis are collected and only written to the workspace by {@link #commitMarkers()},
+ * which keeps the markers that have not changed since the previous run and creates and deletes all others in a single workspace operation.
  *
  * @author Stefan Krueger
  * @author Andre Sonntag
@@ -27,23 +38,59 @@ import de.cognicrypt.staticanalyzer.Activator;
 public class ErrorMarkerGenerator {
 
 	private final List<IMarker> markers;
+	private final List<MarkerDescription> pendingMarkers;
+	private final List<IMarker> staleMarkers;
+
+	/**
+	 * A marker that has been reported, but not yet been created.
+	 */
+	private static class MarkerDescription {
+
+		private final IResource resource;
+		private final String type;
+		private final Map<String, Object> attributes;
+
+		private MarkerDescription(final IResource resource, final String type, final Map<String, Object> attributes) {
+			this.resource = resource;
+			this.type = type;
+			this.attributes = attributes;
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (!(obj instanceof MarkerDescription)) {
+				return false;
+			}
+			final MarkerDescription other = (MarkerDescription) obj;
+			return this.resource.equals(other.resource) && this.type.equals(other.type) && Objects.equals(this.attributes, other.attributes);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(this.resource, this.type, this.attributes);
+		}
+	}
 
 	public ErrorMarkerGenerator() {
 		this.markers = new ArrayList<>();
+		this.pendingMarkers = new ArrayList<>();
+		this.staleMarkers = new ArrayList<>();
 	}
 
 	/**
-	 * Adds crypto-misuse error marker with message {@link message} into file {@link sourceFile} at Line {@link line}.
+	 * Adds crypto-misuse error marker with message {@link message} into file {@link sourceFile} at Line {@link line}. The marker is created by the next call of
+	 * {@link #commitMarkers()}.
 	 *
 	 * @param markerType name of the error
 	 * @param id unique id of the error
 	 * @param sourceFile File the marker is generated into
 	 * @param line Line the marker is generated at
 	 * @param message Error Message
+	 * @param methodSignature Soot signature of the method containing the error
 	 * @param sev Severities type
 	 * @return <code>true</code>/<code>false</code> if error marker was (not) added successfully
 	 */
-	public boolean addMarker(final String markerType, final int id, final IResource sourceFile, final int line, final String message, final String crySLRuleName, final String jimpleCode, final Severities sev,
+	public boolean addMarker(final String markerType, final int id, final IResource sourceFile, final int line, final String message, final String crySLRuleName, final String methodSignature, final Severities sev,
 			final HashMap<String, String> additionalErrorInfos, boolean isSuppressed) {
 
 		if (!sourceFile.exists() || !sourceFile.isAccessible()) {
@@ -51,36 +98,128 @@ public class ErrorMarkerGenerator {
 			return false;
 		}
 
-		IMarker marker;
-		try {
-			marker = sourceFile.createMarker(markerType);
-			marker.setAttribute("errorType", markerType);
-			marker.setAttribute(IMarker.LINE_NUMBER, line);
-			marker.setAttribute(IMarker.MESSAGE, message);
-			marker.setAttribute("crySLRuleName", crySLRuleName);
-			marker.setAttribute("errorJimpleCode", jimpleCode);
-			marker.setAttribute(IMarker.PRIORITY, IMarker.PRIORITY_HIGH);
-			if (isSuppressed) {
-				marker.setAttribute(IMarker.SEVERITY, IMarker.SEVERITY_INFO);
-			} else {
-				marker.setAttribute(IMarker.SEVERITY,
-						(sev == Severities.Error) ? IMarker.SEVERITY_ERROR : ((sev == Severities.Warning) ? IMarker.SEVERITY_WARNING : IMarker.SEVERITY_INFO));
+		final Map<String, Object> attributes = new HashMap<>();
+		attributes.put("errorType", markerType);
+		attributes.put(IMarker.LINE_NUMBER, line);
+		attributes.put(IMarker.MESSAGE, message);
+		attributes.put("crySLRuleName", crySLRuleName);
+		// only the signature is stored, the Jimple body of the method is rendered on demand by JimpleBodies
+		attributes.put("errorMethodSignature", methodSignature);
+		attributes.put(IMarker.PRIORITY, IMarker.PRIORITY_HIGH);
+		if (isSuppressed) {
+			attributes.put(IMarker.SEVERITY, IMarker.SEVERITY_INFO);
+		} else {
+			attributes.put(IMarker.SEVERITY, (sev == Severities.Error) ? IMarker.SEVERITY_ERROR : ((sev == Severities.Warning) ? IMarker.SEVERITY_WARNING : IMarker.SEVERITY_INFO));
+		}
+		attributes.put(IMarker.SOURCE_ID, id);
+
+		if (markerType.equals(Constants.REQUIRED_PREDICATE_MARKER_TYPE)) {
+			attributes.put("predicate", additionalErrorInfos.get("predicate"));
+			attributes.put("predicateParamCount", additionalErrorInfos.get("predicateParamCount"));
+			attributes.put("errorParam", additionalErrorInfos.get("errorParam"));
+			attributes.put("errorParamIndex", additionalErrorInfos.get("errorParamIndex"));
+		}
+		// markers do not store null values, so they must not take part in the comparison with existing markers
+		attributes.values().removeIf(Objects::isNull);
+
+		synchronized (this.pendingMarkers) {
+			return this.pendingMarkers.add(new MarkerDescription(sourceFile, markerType, attributes));
+		}
+	}
+
+	/**
+	 * Prepares an analysis of {@link curProj}. The existing markers of the project are replaced by the markers reported during the analysis once it is committed.
+	 *
+	 * @param curProj project that is analysed
+	 * @param classNames fully qualified names of the analysed top-level classes or <code>null</code> if the whole project is analysed
+	 */
+	public void prepareMarkers(final IProject curProj, final Set<String> classNames) {
+		synchronized (this.pendingMarkers) {
+			this.pendingMarkers.clear();
+		}
+		// the markers of a previous run that has not been committed are still in the workspace
+		this.markers.addAll(this.staleMarkers);
+		this.staleMarkers.clear();
+		final Iterator<IMarker> markerIterator = this.markers.iterator();
+		while (markerIterator.hasNext()) {
+			final IMarker marker = markerIterator.next();
+			final IResource resource = marker.getResource();
+			if (curProj.equals(resource.getProject()) && (classNames == null || declaresAnyOf(resource, classNames))) {
+				this.staleMarkers.add(marker);
+				markerIterator.remove();
 			}
-			marker.setAttribute(IMarker.SOURCE_ID, id);
+		}
+	}
+
+	/**
+	 * Writes the markers reported since {@link #prepareMarkers(IProject, Set)} to the workspace. Markers that already exist with the same attributes are kept, all other
+	 * markers of the analysed classes are deleted.
+	 *
+	 * @return <code>true</code>/<code>false</code> if all error markers were (not) updated successfully
+	 */
+	public boolean commitMarkers() {
+		return commitMarkers(null);
+	}
 
-			if (markerType.equals(Constants.REQUIRED_PREDICATE_MARKER_TYPE)) {
-				marker.setAttribute("predicate", additionalErrorInfos.get("predicate"));
-				marker.setAttribute("predicateParamCount", additionalErrorInfos.get("predicateParamCount"));
-				marker.setAttribute("errorParam", additionalErrorInfos.get("errorParam"));
-				marker.setAttribute("errorParamIndex", additionalErrorInfos.get("errorParamIndex"));
+	/**
+	 * Writes the markers reported since {@link #prepareMarkers(IProject, Set)} to the workspace like {@link #commitMarkers()}, but only deletes the markers of
+	 * {@link classNames}, e.g., because the analysis has been stopped before it has reached the other classes.
+	 *
+	 * @param classNames fully qualified names of the top-level classes whose markers are replaced or <code>null</code> for all prepared classes
+	 * @return <code>true</code>/<code>false</code> if all error markers were (not) updated successfully
+	 */
+	public boolean commitMarkers(final Set<String> classNames) {
+		final List<MarkerDescription> reported;
+		synchronized (this.pendingMarkers) {
+			reported = new ArrayList<>(this.pendingMarkers);
+			this.pendingMarkers.clear();
+		}
+		final Map<MarkerDescription, IMarker> existing = new HashMap<>();
+		final List<IMarker> obsolete = new ArrayList<>();
+		for (final IMarker marker : this.staleMarkers) {
+			try {
+				if (marker.exists()) {
+					final IMarker duplicate = existing.put(new MarkerDescription(marker.getResource(), marker.getType(), marker.getAttributes()), marker);
+					if (duplicate != null) {
+						obsolete.add(duplicate);
+					}
+				}
+			}
+			catch (final CoreException e) {
+				Activator.getDefault().logError(e);
 			}
+		}
+		this.staleMarkers.clear();
 
+		try {
+			ResourcesPlugin.getWorkspace().run(monitor -> {
+				for (final MarkerDescription description : reported) {
+					final IMarker unchanged = existing.remove(description);
+					if (unchanged != null) {
+						this.markers.add(unchanged);
+					} else if (description.resource.exists()) {
+						final IMarker marker = description.resource.createMarker(description.type);
+						marker.setAttributes(description.attributes);
+						this.markers.add(marker);
+					}
+				}
+				for (final IMarker marker : existing.values()) {
+					if (classNames == null || declaresAnyOf(marker.getResource(), classNames)) {
+						obsolete.add(marker);
+					} else {
+						this.markers.add(marker);
+					}
+				}
+				for (final IMarker marker : obsolete) {
+					marker.delete();
+				}
+			}, null, IWorkspace.AVOID_UPDATE, null);
 		}
 		catch (final CoreException e) {
 			Activator.getDefault().logError(e);
 			return false;
 		}
-		return this.markers.add(marker);
+		return true;
 	}
 
 	/**
@@ -93,22 +232,47 @@ public class ErrorMarkerGenerator {
 	}
 
 	public boolean clearMarkers(final IProject curProj) {
-		final boolean allMarkersDeleted = true;
+		final List<IMarker> deletedMarkers = new ArrayList<>(this.staleMarkers);
+		for (final IMarker marker : this.markers) {
+			if (curProj == null || curProj.equals(marker.getResource().getProject())) {
+				deletedMarkers.add(marker);
+			}
+		}
+		this.markers.removeAll(deletedMarkers);
+		this.staleMarkers.clear();
+		synchronized (this.pendingMarkers) {
+			this.pendingMarkers.clear();
+		}
 		try {
-			for (final IMarker marker : this.markers) {
-				if (curProj == null || (curProj != null && curProj.equals(marker.getResource().getProject()))) {
+			ResourcesPlugin.getWorkspace().run(monitor -> {
+				for (final IMarker marker : deletedMarkers) {
 					marker.delete();
 				}
-			}
-			if (curProj != null) {
-				curProj.refreshLocal(IResource.DEPTH_INFINITE, null);
+			}, null, IWorkspace.AVOID_UPDATE, null);
+		}
+		catch (final CoreException e) {
+			Activator.getDefault().logError(e);
+			return false;
+		}
+		return true;
+	}
+
+	private boolean declaresAnyOf(final IResource resource, final Set<String> classNames) {
+		final IJavaElement javaElement = JavaCore.create(resource);
+		if (!(javaElement instanceof ICompilationUnit)) {
+			return false;
+		}
+		try {
+			for (final IType type : ((ICompilationUnit) javaElement).getTypes()) {
+				if (classNames.contains(type.getFullyQualifiedName())) {
+					return true;
+				}
 			}
 		}
 		catch (final CoreException e) {
 			Activator.getDefault().logError(e);
 		}
-		this.markers.clear();
-		return allMarkersDeleted;
+		return false;
 	}
 
 }
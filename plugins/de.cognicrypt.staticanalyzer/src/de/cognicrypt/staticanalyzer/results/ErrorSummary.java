@@ -0,0 +1,138 @@
+/********************************************************************************
+ * Copyright (c) 2015-2019 TU Darmstadt, Paderborn University http://www.eclipse.org/legal/epl-2.0. SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package de.cognicrypt.staticanalyzer.results;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import boomerang.jimple.Statement;
+import crypto.analysis.errors.AbstractError;
+import crypto.analysis.errors.ErrorWithObjectAllocation;
+import crypto.analysis.errors.IncompleteOperationError;
+import crypto.analysis.errors.RequiredPredicateError;
+import crypto.analysis.errors.TypestateError;
+import soot.SootMethod;
+import soot.jimple.InstanceInvokeExpr;
+import soot.jimple.InvokeExpr;
+import soot.jimple.Stmt;
+import soot.tagkit.AbstractHost;
+
+/**
+ * This class describes a misuse found by the analysis without referring to any Soot object. Like {@link SeedSummary}, it stays valid after the Soot scene has been reset and
+ * can be sent from an analysis process to the IDE.
+ */
+public class ErrorSummary implements Serializable {
+
+	private static final long serialVersionUID = -1818424108305683529L;
+
+	private final int id;
+	private final Class<? extends AbstractError> errorType;
+	private final String className;
+	private final int lineNumber;
+	private final String message;
+	private final String ruleName;
+	private final String methodSignature;
+	private final HashMap<String, String> errorInfo = new HashMap<>();
+	private SeedSummary objectLocation;
+	private String callDescription;
+	private String receiverKey;
+
+	private ErrorSummary(final AbstractError error) {
+		final Statement errorLocation = error.getErrorLocation();
+		final SootMethod method = errorLocation.getMethod();
+		final Stmt stmt = errorLocation.getUnit().get();
+
+		this.id = error.hashCode();
+		this.errorType = error.getClass();
+		this.className = method.getDeclaringClass().getName();
+		this.lineNumber = ((AbstractHost) stmt).getJavaSourceStartLineNumber();
+		this.message = error.toErrorMarkerString();
+		this.ruleName = error.getRule().getClassName();
+		this.methodSignature = method.getSignature();
+
+		if (error instanceof RequiredPredicateError) {
+			final RequiredPredicateError predicateError = (RequiredPredicateError) error;
+			this.errorInfo.put("predicate", predicateError.getContradictedPredicate().getPredName());
+			this.errorInfo.put("predicateParamCount", predicateError.getContradictedPredicate().getParameters().size() + "");
+			final int errorIndex = predicateError.getExtractedValues().getCallSite().getIndex();
+			this.errorInfo.put("errorParamIndex", errorIndex + "");
+			if (stmt.containsInvokeExpr()) {
+				this.errorInfo.put("errorParam", stmt.getInvokeExpr().getArg(errorIndex).toString());
+			}
+		}
+
+		if (error instanceof ErrorWithObjectAllocation) {
+			this.objectLocation = SeedSummary.of(((ErrorWithObjectAllocation) error).getObjectLocation());
+		}
+		if (stmt.containsInvokeExpr()) {
+			final InvokeExpr invoke = stmt.getInvokeExpr();
+			if (!(error instanceof IncompleteOperationError || error instanceof TypestateError)) {
+				this.callDescription = "Call to " + invoke.getMethodRef().getSignature() + " in Line " + this.lineNumber + " of Method " + method.getName() + "()";
+			}
+			if (invoke instanceof InstanceInvokeExpr) {
+				this.receiverKey = method.getSignature() + "#" + ((InstanceInvokeExpr) invoke).getBase().toString();
+			}
+		}
+	}
+
+	public static ErrorSummary of(final AbstractError error) {
+		return new ErrorSummary(error);
+	}
+
+	public int getId() {
+		return this.id;
+	}
+
+	public Class<? extends AbstractError> getErrorType() {
+		return this.errorType;
+	}
+
+	public String getClassName() {
+		return this.className;
+	}
+
+	public int getLineNumber() {
+		return this.lineNumber;
+	}
+
+	public String getMessage() {
+		return this.message;
+	}
+
+	public String getRuleName() {
+		return this.ruleName;
+	}
+
+	/**
+	 * @return Soot signature of the method containing the error, whose Jimple body is rendered by {@link de.cognicrypt.staticanalyzer.sootbridge.JimpleBodies} on demand
+	 */
+	public String getMethodSignature() {
+		return this.methodSignature;
+	}
+
+	public HashMap<String, String> getErrorInfo() {
+		return new HashMap<>(this.errorInfo);
+	}
+
+	/**
+	 * @return the seed of the misused object or <code>null</code> if the error does not refer to an object allocation
+	 */
+	public SeedSummary getObjectLocation() {
+		return this.objectLocation;
+	}
+
+	/**
+	 * @return description of the call the error is reported at or <code>null</code> if the error is described by its object location
+	 */
+	public String getCallDescription() {
+		return this.callDescription;
+	}
+
+	/**
+	 * @return key of the receiver variable of the call the error is reported at, comparable to {@link SeedSummary#getVariableKey()}
+	 */
+	public String getReceiverKey() {
+		return this.receiverKey;
+	}
+}
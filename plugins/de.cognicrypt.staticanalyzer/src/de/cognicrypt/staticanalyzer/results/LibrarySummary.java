@@ -0,0 +1,40 @@
+/********************************************************************************
+ * Copyright (c) 2015-2019 TU Darmstadt, Paderborn University http://www.eclipse.org/legal/epl-2.0. SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package de.cognicrypt.staticanalyzer.results;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import de.cognicrypt.staticanalyzer.view.AnalysisData;
+
+/**
+ * This class holds the seeds, errors and secure objects a dependency analysis found in the classes of one library. Summaries are stored in the {@link ResultStore} by the
+ * fingerprint of the library, so that each version of a library is analysed only once.
+ */
+public class LibrarySummary implements Serializable {
+
+	private static final long serialVersionUID = 8427130645946351892L;
+
+	private final String libraryName;
+	private final HashMap<String, AnalysisData> classesAnalysed;
+
+	/**
+	 * @param libraryName file name of the library, for logging only
+	 * @param classesAnalysed results of the classes of the library that have any
+	 */
+	public LibrarySummary(final String libraryName, final Map<String, AnalysisData> classesAnalysed) {
+		this.libraryName = libraryName;
+		this.classesAnalysed = new HashMap<>(classesAnalysed);
+	}
+
+	public String getLibraryName() {
+		return this.libraryName;
+	}
+
+	public Map<String, AnalysisData> getClassesAnalysed() {
+		return Collections.unmodifiableMap(this.classesAnalysed);
+	}
+}
@@ -0,0 +1,43 @@
+/********************************************************************************
+ * Copyright (c) 2015-2019 TU Darmstadt, Paderborn University
+ * 
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v. 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ * 
+ * SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package de.cognicrypt.staticanalyzer.results;
+
+/**
+ * This class describes the progress of a running analysis at one point in time. Events are published by {@link ResultsCCUIListener} and consumed by the analysis job.
+ */
+public class ProgressEvent {
+
+	private final boolean cgGenComplete;
+	private final int processedSeeds;
+	private final int totalSeeds;
+
+	public ProgressEvent(final boolean cgGenComplete, final int processedSeeds, final int totalSeeds) {
+		this.cgGenComplete = cgGenComplete;
+		this.processedSeeds = processedSeeds;
+		this.totalSeeds = totalSeeds;
+	}
+
+	public boolean isCgGenComplete() {
+		return this.cgGenComplete;
+	}
+
+	public int getProcessedSeeds() {
+		return this.processedSeeds;
+	}
+
+	public int getTotalSeeds() {
+		return this.totalSeeds;
+	}
+
+	public int getPercentCompleted() {
+		return this.totalSeeds == 0 ? 0 : Math.round((float) this.processedSeeds * 100 / this.totalSeeds);
+	}
+}
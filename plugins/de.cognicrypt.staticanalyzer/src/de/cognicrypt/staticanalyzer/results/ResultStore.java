@@ -0,0 +1,136 @@
+/********************************************************************************
+ * Copyright (c) 2015-2019 TU Darmstadt, Paderborn University http://www.eclipse.org/legal/epl-2.0. SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package de.cognicrypt.staticanalyzer.results;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.eclipse.core.resources.IProject;
+import de.cognicrypt.staticanalyzer.Activator;
+
+/**
+ * This class stores the results of the last full analysis of each project in the plug-in's state location, so that they survive a restart of the IDE. There is one
+ * compressed file per project, which is replaced after each full analysis. In addition, it keeps a {@link LibrarySummary} per analysed library version and hosts the call
+ * graph cache of each project.
+ */
+public class ResultStore {
+
+	private static final String STORE_FOLDER = "results";
+	private static final String LIBRARY_FOLDER = "libraries";
+	private static final String CALL_GRAPH_FOLDER = "callgraphs";
+	private static final String STORE_FILE_ENDING = ".ser.gz";
+
+	private static ResultStore instance;
+
+	private final File storeFolder;
+	private final File libraryFolder;
+	private final File callGraphFolder;
+
+	private ResultStore(final File storeFolder) {
+		this.storeFolder = storeFolder;
+		this.storeFolder.mkdirs();
+		this.libraryFolder = new File(storeFolder, LIBRARY_FOLDER);
+		this.libraryFolder.mkdirs();
+		this.callGraphFolder = new File(storeFolder, CALL_GRAPH_FOLDER);
+		this.callGraphFolder.mkdirs();
+	}
+
+	public static synchronized ResultStore getInstance() {
+		if (instance == null) {
+			instance = new ResultStore(Activator.getDefault().getStateLocation().append(STORE_FOLDER).toFile());
+		}
+		return instance;
+	}
+
+	/**
+	 * @return <code>true</code> if results of {@link project} have been stored
+	 */
+	public boolean contains(final IProject project) {
+		return getStoreFile(project).exists();
+	}
+
+	/**
+	 * Reads the stored results of {@link project}.
+	 *
+	 * @return the results or <code>null</code> if there are none or they cannot be read
+	 */
+	public StoredResults load(final IProject project) {
+		return read(getStoreFile(project), StoredResults.class);
+	}
+
+	/**
+	 * Replaces the stored results of {@link project}.
+	 */
+	public void save(final IProject project, final StoredResults results) {
+		write(getStoreFile(project), results, "the analysis results of " + project.getName());
+	}
+
+	/**
+	 * Reads the summary of the library with fingerprint {@link fingerprint}.
+	 *
+	 * @return the summary or <code>null</code> if this library version has not been analysed with the current rules
+	 */
+	public LibrarySummary loadLibrary(final String fingerprint) {
+		return read(new File(this.libraryFolder, fingerprint + STORE_FILE_ENDING), LibrarySummary.class);
+	}
+
+	public void saveLibrary(final String fingerprint, final LibrarySummary summary) {
+		write(new File(this.libraryFolder, fingerprint + STORE_FILE_ENDING), summary, "the summary of " + summary.getLibraryName());
+	}
+
+	/**
+	 * Returns the file the call graph of {@link project} is cached in. The file is read and written by the analysis itself, which may run in a separate process.
+	 *
+	 * @param dependencies <code>true</code> for the call graph of the analysis of the project's dependencies
+	 */
+	public File getCallGraphFile(final IProject project, final boolean dependencies) {
+		return new File(this.callGraphFolder, project.getName() + (dependencies ? "-dependencies" : "") + STORE_FILE_ENDING);
+	}
+
+	private File getStoreFile(final IProject project) {
+		return new File(this.storeFolder, project.getName() + STORE_FILE_ENDING);
+	}
+
+	private static <T> T read(final File storeFile, final Class<T> type) {
+		if (!storeFile.exists()) {
+			return null;
+		}
+		try (ObjectInputStream in = new ObjectInputStream(new GZIPInputStream(new BufferedInputStream(new FileInputStream(storeFile))))) {
+			return type.cast(in.readObject());
+		}
+		catch (IOException | ClassNotFoundException | ClassCastException e) {
+			// The file was written by an incompatible version of the plug-in or is corrupt. It is replaced after the next analysis.
+			storeFile.delete();
+			return null;
+		}
+	}
+
+	/**
+	 * Replaces {@link storeFile}. The file is written next to the current one first, so that a crash does not leave a partially written store behind.
+	 */
+	private static void write(final File storeFile, final Serializable content, final String description) {
+		final File tempFile = new File(storeFile.getParentFile(), storeFile.getName() + ".tmp");
+		try {
+			try (ObjectOutputStream out = new ObjectOutputStream(new GZIPOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile))))) {
+				out.writeObject(content);
+			}
+			Files.move(tempFile.toPath(), storeFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+		catch (final IOException e) {
+			tempFile.delete();
+			Activator.getDefault().logError(e, "Could not store " + description + ".");
+		}
+	}
+}
@@ -5,26 +5,24 @@
 
 package de.cognicrypt.staticanalyzer.results;
 
-import java.io.File;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
-import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IPackageDeclaration;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jface.preference.IPreferenceStore;
-import org.w3c.dom.Node;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Table;
 import boomerang.BackwardQuery;
@@ -52,20 +50,10 @@ import crypto.rules.CrySLPredicate;
 import de.cognicrypt.core.Constants;
 import de.cognicrypt.core.Constants.Severities;
 import de.cognicrypt.staticanalyzer.Activator;
+import de.cognicrypt.staticanalyzer.sootbridge.ClassDependencies;
 import de.cognicrypt.staticanalyzer.view.AnalysisData;
-import de.cognicrypt.staticanalyzer.view.ResultsUnit;
 import de.cognicrypt.staticanalyzer.view.StatisticsView;
 import de.cognicrypt.staticanalyzer.view.Stats;
-import de.cognicrypt.utils.Utils;
-import de.cognicrypt.utils.XMLParser;
-import soot.SootClass;
-import soot.Value;
-import soot.ValueBox;
-import soot.jimple.InvokeExpr;
-import soot.jimple.Stmt;
-import soot.jimple.internal.JimpleLocal;
-import soot.jimple.internal.JimpleLocalBox;
-import soot.tagkit.AbstractHost;
 import typestate.TransitionFunction;
 
 /**
@@ -79,23 +67,30 @@ public class ResultsCCUIListener extends CrySLAnalysisListener {
 
 	private final ErrorMarkerGenerator markerGenerator;
 	private final IProject currentProject;
-	private ArrayList<String> suppressedWarningIds;
-	private String warningFilePath;
-	private XMLParser xmlParser;
+	private volatile SuppressedWarnings suppressedWarnings;
+	private volatile TypeResourceIndex typeResources;
 	private Boolean depOnly = false;
-	private static Stats stat;
-
-	private int totalSeeds;
-	private int processedSeeds;
-	private int percentCompleted;
-	private int workUnitsCompleted;
-	private boolean cgGenComplete;
-	private int work = 0;
+	private Set<String> affectedClasses;
+	private volatile Set<String> classesAnalysedBeforeDeadline;
+	private Collection<AnalysisData> cachedResults = Collections.emptyList();
+	private volatile Stats stats;
+	private volatile Stats previousStats;
+
+	private static final int PROGRESS_QUEUE_CAPACITY = 64;
+	private static final long VIEW_UPDATE_INTERVAL = 1000;
+
+	private volatile int totalSeeds;
+	private volatile int processedSeeds;
+	private volatile boolean cgGenComplete;
+	private volatile boolean cancelled;
+	private final AtomicLong lastViewUpdate = new AtomicLong();
+	private volatile Runnable cancelHandler;
+	private volatile Thread analysisThread;
+	private volatile BlockingQueue<ProgressEvent> progressEvents = new ArrayBlockingQueue<>(PROGRESS_QUEUE_CAPACITY);
 
 	private ResultsCCUIListener(final IProject curProj, final ErrorMarkerGenerator gen) {
 		this.currentProject = curProj;
 		this.markerGenerator = gen;
-		this.suppressedWarningIds = new ArrayList<>();
 	}
 
 	public static ResultsCCUIListener createListener(final IProject project) {
@@ -115,22 +110,63 @@ public class ResultsCCUIListener extends CrySLAnalysisListener {
 		this.depOnly = depOnly;
 	}
 
+	/**
+	 * Sets the top-level classes analysed by the next run. Results for all other classes are retained from the previous run.
+	 *
+	 * @param affectedClasses the classes or <code>null</code> if the whole project is analysed
+	 */
+	public void setAffectedClasses(final Set<String> affectedClasses) {
+		this.affectedClasses = affectedClasses;
+	}
+
+	/**
+	 * Marks the current run as stopped at its deadline. Only the markers of {@link analysedClasses} are replaced when the run has finished, and suppressed warnings that have
+	 * not been detected are kept.
+	 *
+	 * @param analysedClasses top-level classes whose seeds have all been analysed before the deadline
+	 */
+	public void setStoppedAtDeadline(final Set<String> analysedClasses) {
+		this.classesAnalysedBeforeDeadline = analysedClasses;
+	}
+
+	/**
+	 * Sets results the next run reports in addition to its own, e.g., the summaries of libraries that are not analysed again. They are reported as soon as the run starts.
+	 */
+	public void setCachedResults(final Collection<AnalysisData> cachedResults) {
+		this.cachedResults = cachedResults;
+	}
+
 	@Override
 	public void reportError(final AbstractError error) {
-		IResource sourceFile = null;
+		if (isOutOfScope(error.getErrorLocation().getMethod().getDeclaringClass().getName())) {
+			return;
+		}
+		reportError(ErrorSummary.of(error));
+	}
+
+	/**
+	 * Reports a misuse that has been found by the analysis, either within the IDE or in a separate analysis process.
+	 *
+	 * @param error summary of the misuse
+	 */
+	public void reportError(final ErrorSummary error) {
+		if (isOutOfScope(error.getClassName())) {
+			return;
+		}
 		if (this.depOnly) {
+			// the classes of libraries have no source files to create markers in, so their misuses only end up in the summaries of the libraries
+			this.stats.addError(error.getClassName(), error);
 			return;
 		}
-		final String errorMessage = error.toErrorMarkerString();
-		final Statement errorLocation = error.getErrorLocation();
-		final String errorJimpleBody = errorLocation.getMethod().getActiveBody().toString();
-		final String errorCrySLRuleName = error.getRule().getClassName();
+		final String errorMessage = error.getMessage();
+		final String errorMethodSignature = error.getMethodSignature();
+		final String errorCrySLRuleName = error.getRuleName();
 
-		sourceFile = unitToResource(errorLocation);
-		final int lineNumber = ((AbstractHost) errorLocation.getUnit().get()).getJavaSourceStartLineNumber();
+		final IResource sourceFile = classToResource(error.getClassName());
+		final int lineNumber = error.getLineNumber();
 
-		final int stmtId = error.hashCode();
-		HashMap<String, String> errorInfoMap = new HashMap<>();
+		final int stmtId = error.getId();
+		HashMap<String, String> errorInfoMap = error.getErrorInfo();
 
 		ICompilationUnit javaFile = (ICompilationUnit) JavaCore.create(sourceFile);
 		String className = "";
@@ -142,52 +178,10 @@ public class ResultsCCUIListener extends CrySLAnalysisListener {
 		catch (JavaModelException e1) {}
 		className += javaFile.getElementName().substring(0, javaFile.getElementName().lastIndexOf("."));
 
-		if (stat.getClassesAnalysed().containsKey(className)) {
-			AnalysisData data = stat.getClassesAnalysed().get(className);
-			data.addError(error);
-			data.setHealth(false);
-		} else {
-			AnalysisData data = new AnalysisData();
-			data.addError(error);
-			data.setHealth(false);
-			Map<String, AnalysisData> classesAnalysedMap = stat.getClassesAnalysed();
-			classesAnalysedMap.put(className, data);
-		}
+		this.stats.addError(className, error);
+		showPartialResults();
 
-		/*
-		 * Adding of new marker types for new errors: 1) add new ErrorMarker extension point in plugin.xml 2) add new markerResolutionGenerator tag in plugin.xml 3) add new Marker
-		 * constant in Constants.java (CogniCrypt Core) 4) add new else if in the following query
-		 */
-
-		String markerType;
-		if (error instanceof ForbiddenMethodError) {
-			markerType = Constants.FORBIDDEN_METHOD_MARKER_TYPE;
-		} else if (error instanceof PredicateContradictionError) {
-			markerType = Constants.PREDICATE_CONTRADICTION_MARKER_TYPE;
-		} else if (error instanceof RequiredPredicateError) {
-			markerType = Constants.REQUIRED_PREDICATE_MARKER_TYPE;
-			errorInfoMap.put("predicate", ((RequiredPredicateError) error).getContradictedPredicate().getPredName());
-			errorInfoMap.put("predicateParamCount", ((RequiredPredicateError) error).getContradictedPredicate().getParameters().size() + "");
-			int errorIndex = ((RequiredPredicateError) error).getExtractedValues().getCallSite().getIndex();
-			errorInfoMap.put("errorParamIndex", errorIndex + "");
-			if (errorLocation.getUnit().get().containsInvokeExpr()) {
-				InvokeExpr invoke = errorLocation.getUnit().get().getInvokeExpr();
-				String errorParam = invoke.getArg(errorIndex).toString();
-				errorInfoMap.put("errorParam", errorParam);
-			}
-		} else if (error instanceof ConstraintError) {
-			markerType = Constants.CONSTRAINT_ERROR_MARKER_TYPE;
-		} else if (error instanceof NeverTypeOfError) {
-			markerType = Constants.NEVER_TYPEOF_MARKER_TYPE;
-		} else if (error instanceof IncompleteOperationError) {
-			markerType = Constants.INCOMPLETE_OPERATION_MARKER_TYPE;
-		} else if (error instanceof TypestateError) {
-			markerType = Constants.TYPESTATE_ERROR_MARKER_TYPE;
-		} else if (error instanceof ImpreciseValueExtractionError) {
-			markerType = Constants.IMPRECISE_VALUE_EXTRACTION_MARKER_TYPE;
-		} else {
-			markerType = Constants.CC_MARKER_TYPE;
-		}
+		final String markerType = getMarkerType(error.getErrorType());
 
 		int selectedSeverity = Activator.getDefault().getPreferenceStore().getInt(markerType);
 		if (selectedSeverity == -1) {
@@ -198,105 +192,108 @@ public class ResultsCCUIListener extends CrySLAnalysisListener {
 			return;
 		}
 
-		this.warningFilePath = sourceFile.getProject().getLocation().toOSString() + Constants.outerFileSeparator + Constants.SUPPRESSWARNING_FILE;
-		final File warningsFile = new File(this.warningFilePath);
-
-		if (!warningsFile.exists()) {
-			this.markerGenerator.addMarker(markerType, stmtId, sourceFile, lineNumber, errorMessage, errorCrySLRuleName, errorJimpleBody, sev, errorInfoMap, false);
-		} else {
-			this.xmlParser = new XMLParser(warningsFile);
-			this.xmlParser.useDocFromFile();
-			String idAsString = String.valueOf(stmtId);
-			if (!this.xmlParser.getAttrValuesByAttrName(Constants.SUPPRESSWARNING_ELEMENT, Constants.ID_ATTR).contains(idAsString)) {
-				this.markerGenerator.addMarker(markerType, stmtId, sourceFile, lineNumber, errorMessage, errorCrySLRuleName, errorJimpleBody, sev, errorInfoMap, false);
-			} else {
-
-				// update existing line number
-				final Node suppressWarningNode = this.xmlParser.getNodeByAttrValue(Constants.SUPPRESSWARNING_ELEMENT, Constants.ID_ATTR, idAsString);
-				final Node lineNumberNode = this.xmlParser.getChildNodeByTagName(suppressWarningNode, Constants.LINENUMBER_ELEMENT);
-				this.xmlParser.updateNodeValue(lineNumberNode, lineNumber + "");
-				this.xmlParser.writeXML();
-				// last parameter(true) implies that the error was suppressed and info marker has to be shown.
-				this.markerGenerator.addMarker(markerType, stmtId, sourceFile, lineNumber, errorMessage, errorCrySLRuleName, errorJimpleBody, sev, errorInfoMap, true);
-
-				try {
-					this.currentProject.refreshLocal(IResource.DEPTH_INFINITE, null);
-				}
-				catch (final CoreException e) {
-					Activator.getDefault().logError(e);
-				}
-				this.suppressedWarningIds.add(idAsString);
-			}
+		if (this.suppressedWarnings == null) {
+			this.suppressedWarnings = SuppressedWarnings.load(this.currentProject);
 		}
-
+		// the line number of a suppressed warning is updated in memory, the file is written once the analysis has finished
+		final boolean suppressed = this.suppressedWarnings.detect(stmtId, lineNumber);
+		// last parameter(true) implies that the error was suppressed and info marker has to be shown.
+		this.markerGenerator.addMarker(markerType, stmtId, sourceFile, lineNumber, errorMessage, errorCrySLRuleName, errorMethodSignature, sev, errorInfoMap, suppressed);
 	}
 
 	// It only works when the secure object checkbox in preference page is checked
 	@Override
 	public void onSecureObjectFound(final IAnalysisSeed secureObject) {
 		IPreferenceStore store = Activator.getDefault().getPreferenceStore();
-		if (!store.getBoolean(Constants.SHOW_SECURE_OBJECTS) || this.depOnly) {
+		if (!store.getBoolean(Constants.SHOW_SECURE_OBJECTS) || isOutOfScope(secureObject.getMethod().getDeclaringClass().getName())) {
 			return;
 		}
+		onSecureObjectFound(SeedSummary.ofSecureObject(secureObject));
+	}
 
-		final Statement stmt = secureObject.stmt();
-		final Stmt unit = stmt.getUnit().get();
-		final List<ValueBox> useAndDefBoxes = unit.getUseAndDefBoxes();
-		final Optional<ValueBox> varOpt = useAndDefBoxes.stream().filter(e -> e instanceof JimpleLocalBox).findFirst();
-		ValueBox var = null;
-		if (varOpt.isPresent()) {
-			var = varOpt.get();
-		} else {
-			for (final ValueBox box : useAndDefBoxes) {
-				if (box.getValue() instanceof JimpleLocal) {
-					var = box;
-					break;
-				}
-			}
+	/**
+	 * Reports an object that is used securely, either found within the IDE or in a separate analysis process.
+	 *
+	 * @param secureObject summary created by {@link SeedSummary#ofSecureObject(IAnalysisSeed)}
+	 */
+	public void onSecureObjectFound(final SeedSummary secureObject) {
+		if (isOutOfScope(secureObject.getClassName())) {
+			return;
+		}
+		this.stats.addSecureObject(secureObject.getClassName(), secureObject);
+		if (this.depOnly) {
+			return;
+		}
+		this.markerGenerator.addMarker(Constants.CC_MARKER_TYPE, -1, classToResource(secureObject.getClassName()), secureObject.getLineNumber(), secureObject.getSecureObjectMessage(), "",
+				secureObject.getMethodSignature(), Severities.Info, new HashMap<>(), false);
+	}
+
+	/*
+	 * Adding of new marker types for new errors: 1) add new ErrorMarker extension point in plugin.xml 2) add new markerResolutionGenerator tag in plugin.xml 3) add new Marker
+	 * constant in Constants.java (CogniCrypt Core) 4) add new else if in the following query
+	 */
+	private static String getMarkerType(final Class<? extends AbstractError> errorType) {
+		if (ForbiddenMethodError.class.isAssignableFrom(errorType)) {
+			return Constants.FORBIDDEN_METHOD_MARKER_TYPE;
+		} else if (PredicateContradictionError.class.isAssignableFrom(errorType)) {
+			return Constants.PREDICATE_CONTRADICTION_MARKER_TYPE;
+		} else if (RequiredPredicateError.class.isAssignableFrom(errorType)) {
+			return Constants.REQUIRED_PREDICATE_MARKER_TYPE;
+		} else if (ConstraintError.class.isAssignableFrom(errorType)) {
+			return Constants.CONSTRAINT_ERROR_MARKER_TYPE;
+		} else if (NeverTypeOfError.class.isAssignableFrom(errorType)) {
+			return Constants.NEVER_TYPEOF_MARKER_TYPE;
+		} else if (IncompleteOperationError.class.isAssignableFrom(errorType)) {
+			return Constants.INCOMPLETE_OPERATION_MARKER_TYPE;
+		} else if (TypestateError.class.isAssignableFrom(errorType)) {
+			return Constants.TYPESTATE_ERROR_MARKER_TYPE;
+		} else if (ImpreciseValueExtractionError.class.isAssignableFrom(errorType)) {
+			return Constants.IMPRECISE_VALUE_EXTRACTION_MARKER_TYPE;
 		}
-		final Value varName = var.getValue();
-		this.markerGenerator.addMarker(Constants.CC_MARKER_TYPE, -1, unitToResource(stmt), unit.getJavaSourceStartLineNumber(),
-				"Object " + (varName.toString().startsWith("$r") || varName.toString().startsWith("$stack")  ? " of Type " + var.getValue().getType().toQuotedString() : varName) + " is secure.", "",
-				secureObject.getMethod().getActiveBody().toString(), Severities.Info, new HashMap<>(), false);
+		return Constants.CC_MARKER_TYPE;
 	}
 
 	/**
-	 * This method removes superfluous suppressed warning entries from the SuppressWarnings.xml file.
+	 * This method removes superfluous suppressed warning entries from the SuppressWarnings.xml file and writes the line numbers updated during the analysis.
 	 */
 	public void removeUndetectableWarnings() {
-		if (!this.suppressedWarningIds.isEmpty()) {
-
-			final ArrayList<String> allSuppressedWarningIds = this.xmlParser.getAttrValuesByAttrName(Constants.SUPPRESSWARNING_ELEMENT, Constants.ID_ATTR);
-
-			final ArrayList<String> difference = new ArrayList<>(allSuppressedWarningIds.size());
-			difference.addAll(allSuppressedWarningIds);
-			difference.removeAll(this.suppressedWarningIds);
-
-			for (int i = 0; i < difference.size(); i++) {
-				this.xmlParser.removeNodeByAttrValue(Constants.SUPPRESSWARNING_ELEMENT, Constants.ID_ATTR, difference.get(i));
-			}
-			this.xmlParser.writeXML();
-			try {
-				this.currentProject.refreshLocal(IResource.DEPTH_INFINITE, null);
-			}
-			catch (final CoreException e) {
-				Activator.getDefault().logError(e);
-			}
+		if (this.suppressedWarnings == null) {
+			return;
+		}
+		// neither an incremental run nor a run stopped at its deadline detects the warnings in the classes it has not analysed, which therefore must not be removed
+		if (this.affectedClasses == null && this.classesAnalysedBeforeDeadline == null) {
+			this.suppressedWarnings.removeUndetected();
 		}
-		this.suppressedWarningIds = new ArrayList<>();
+		this.suppressedWarnings.flush();
+		this.suppressedWarnings = null;
 	}
 
-	private IResource unitToResource(final Statement stmt) {
-		final SootClass className = stmt.getMethod().getDeclaringClass();
-		try {
-			return Utils.findClassByName(className.getName(), this.currentProject);
+	/**
+	 * @return <code>true</code> if the class {@link className} belongs to a class whose results are retained from the previous run
+	 */
+	private boolean isOutOfScope(final String className) {
+		return this.affectedClasses != null && !this.affectedClasses.contains(ClassDependencies.getTopLevelName(className));
+	}
+
+	private IResource classToResource(final String className) {
+		TypeResourceIndex index = this.typeResources;
+		if (index == null) {
+			synchronized (this) {
+				index = this.typeResources;
+				if (index == null) {
+					index = TypeResourceIndex.build(this.currentProject);
+					this.typeResources = index;
+				}
+			}
 		}
-		catch (final ClassNotFoundException e) {
-			Activator.getDefault().logError(e);
+		final IResource resource = index.find(className);
+		if (resource != null) {
+			return resource;
 		}
+		Activator.getDefault().logError("Class " + className + " not found.");
 		// Fall-back path when retrieval of actual path fails. If the statement below
 		// fails, it should be left untouched as the actual bug is above.
-		return this.currentProject.getFile("src/" + className.getName().replace(".", "/") + ".java");
+		return this.currentProject.getFile("src/" + className.replace(".", "/") + ".java");
 	}
 
 	@Override
@@ -306,22 +303,63 @@ public class ResultsCCUIListener extends CrySLAnalysisListener {
 
 	@Override
 	public void discoveredSeed(final IAnalysisSeed seed) {
-		String seedClass = seed.getMethod().getDeclaringClass().getName();
-		if (stat.getClassesAnalysed().containsKey(seedClass)) {
-			AnalysisData data = stat.getClassesAnalysed().get(seedClass);
-			data.addSeed(seed);
-		} else {
-			AnalysisData data = new AnalysisData();
-			data.addSeed(seed);
-
-			Map<String, AnalysisData> classesAnalysedMap = stat.getClassesAnalysed();
-			classesAnalysedMap.put(seedClass, data);
+		checkCancelled();
+		if (isOutOfScope(seed.getMethod().getDeclaringClass().getName())) {
+			return;
+		}
+		discoveredSeed(SeedSummary.of(seed));
+	}
+
+	/**
+	 * Records a seed that has been discovered, either within the IDE or in a separate analysis process.
+	 */
+	public void discoveredSeed(final SeedSummary seed) {
+		if (isOutOfScope(seed.getClassName())) {
+			return;
+		}
+		this.stats.addSeed(seed.getClassName(), seed);
+		showPartialResults();
+	}
+
+	/**
+	 * Shows the results reported so far in the Statistics View, at most once per {@link #VIEW_UPDATE_INTERVAL}.
+	 */
+	private void showPartialResults() {
+		final long now = System.currentTimeMillis();
+		final long lastUpdate = this.lastViewUpdate.get();
+		// only one of several concurrently reporting threads triggers the update
+		if (now - lastUpdate >= VIEW_UPDATE_INTERVAL && this.lastViewUpdate.compareAndSet(lastUpdate, now)) {
+			StatisticsView.updateViewPartially(this.stats);
 		}
 	}
 
 	@Override
-	public void onSeedTimeout(final sync.pds.solver.nodes.Node<Statement, Val> arg0) {
-		// Nothing
+	public void onSeedTimeout(final sync.pds.solver.nodes.Node<Statement, Val> seed) {
+		if (isOutOfScope(seed.stmt().getMethod().getDeclaringClass().getName())) {
+			return;
+		}
+		onSeedTimeout(SeedSummary.ofTimeout(seed));
+	}
+
+	/**
+	 * Reports a seed whose analysis has exceeded its time budget, either within the IDE or in a separate analysis process. Misuses of the seed may therefore be missing, which
+	 * is shown by a marker of its own type.
+	 *
+	 * @param seed summary created by {@link SeedSummary#ofTimeout(sync.pds.solver.nodes.Node)}
+	 */
+	public void onSeedTimeout(final SeedSummary seed) {
+		if (isOutOfScope(seed.getClassName())) {
+			return;
+		}
+		this.stats.addTimedOutSeed(seed.getClassName(), seed);
+		if (this.depOnly) {
+			return;
+		}
+		// variables introduced by Soot are not known to the user
+		final String object = seed.getVariable().startsWith("$") ? "an object of type " + seed.getTypeName() : seed.getVariable();
+		this.markerGenerator.addMarker(Constants.SEED_TIMEOUT_MARKER_TYPE, -1, classToResource(seed.getClassName()), seed.getLineNumber(),
+				"The analysis of " + object + " exceeded its time budget. Misuses of this object may not be reported.", "", seed.getMethodSignature(), Severities.Info,
+				new HashMap<>(), false);
 	}
 
 	@Override
@@ -334,6 +372,15 @@ public class ResultsCCUIListener extends CrySLAnalysisListener {
 		// Nothing
 	}
 
+	/**
+	 * Sets the stats the next analysis run records its results in.
+	 *
+	 * @param stats stats owned by the session of the run
+	 */
+	public void setStats(final Stats stats) {
+		this.stats = stats;
+	}
+
 	public ErrorMarkerGenerator getMarkerGenerator() {
 		return this.markerGenerator;
 	}
@@ -342,34 +389,68 @@ public class ResultsCCUIListener extends CrySLAnalysisListener {
 	public void beforeAnalysis() {
 		DateTimeFormatter dateTimeFormat = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
 		LocalDateTime currentTime = LocalDateTime.now();
-		stat = new Stats();
+		if (this.stats == null || this.stats == this.previousStats) {
+			// the analysis has not been started by SootRunner, which hands over the stats of its session
+			this.stats = new Stats();
+		}
+		final Stats stat = this.stats;
+		if (this.affectedClasses != null && this.previousStats != null) {
+			for (Entry<String, AnalysisData> previousResult : this.previousStats.getClassesAnalysed().entrySet()) {
+				if (!this.affectedClasses.contains(ClassDependencies.getTopLevelName(previousResult.getKey()))) {
+					stat.retainResults(previousResult.getKey(), previousResult.getValue());
+				}
+			}
+		}
+		this.classesAnalysedBeforeDeadline = null;
 		stat.setProject(currentProject);
 		stat.setTimeOfAnalysis(dateTimeFormat.format(currentTime));
+		this.suppressedWarnings = SuppressedWarnings.load(this.currentProject);
+		// the sources may have changed since the previous run
+		this.typeResources = null;
 		StatisticsView.allowAnalysisRerun(false);
+		final Collection<AnalysisData> cached = this.cachedResults;
+		this.cachedResults = Collections.emptyList();
+		replayResults(cached);
 	}
 
 	@Override
 	public void afterAnalysis() {
 		removeUndetectableWarnings();
-		List<ResultsUnit> units = new ArrayList<ResultsUnit>();
-		for (Entry<String, AnalysisData> result : stat.getClassesAnalysed().entrySet()) {
-			String className = result.getKey();
-			AnalysisData findings = result.getValue();
-			boolean first = true;
-			for (AbstractError err : findings.getErrors()) {
-				units.add(new ResultsUnit(className, null, err, false, first));
-				first = false;
-			}
+		this.markerGenerator.commitMarkers(this.classesAnalysedBeforeDeadline);
+		StatisticsView.allowAnalysisRerun(true);
+		final Stats stat = this.stats;
+		this.previousStats = stat;
+		StatisticsView.updateView(stat.getProject(), stat.getTimeOfAnalysis(), stat.createResultsUnits());
+	}
 
-			for (IAnalysisSeed seed : findings.getSeeds()) {
-				if (units.parallelStream().noneMatch(e -> e.doesSeedmatchWithError(seed))) {
-					units.add(new ResultsUnit(className, seed, null, true));
-				}
+	/**
+	 * Reports the results of a previous analysis again instead of analysing the project. Markers are created and the Statistics View is updated just as if the analysis had
+	 * found them.
+	 *
+	 * @param results results of a full analysis of the project with the current content
+	 */
+	public void restoreResults(final StoredResults results) {
+		beforeAnalysis();
+		this.stats.setTimeOfAnalysis(results.getTimeOfAnalysis());
+		replayResults(results.getClassesAnalysed().values());
+		afterAnalysis();
+	}
+
+	private void replayResults(final Collection<AnalysisData> results) {
+		for (final AnalysisData data : results) {
+			for (final SeedSummary seed : data.getSeeds()) {
+				discoveredSeed(seed);
+			}
+			for (final ErrorSummary error : data.getErrors()) {
+				reportError(error);
+			}
+			for (final SeedSummary secureObject : data.getSecureObjects()) {
+				onSecureObjectFound(secureObject);
+			}
+			for (final SeedSummary timedOutSeed : data.getTimedOutSeeds()) {
+				onSeedTimeout(timedOutSeed);
 			}
 		}
-
-		StatisticsView.allowAnalysisRerun(true);
-		StatisticsView.updateView(stat.getProject(), stat.getTimeOfAnalysis(), units);
 	}
 
 	@Override
@@ -413,59 +494,89 @@ public class ResultsCCUIListener extends CrySLAnalysisListener {
 
 	@Override
 	public void addProgress(final int processSeeds, final int workListsize) {
-		setProcessedSeeds(processSeeds);
-		setTotalSeeds(workListsize + processSeeds);
-		setPercentCompleted((int) Math.round((float) processedSeeds * 100 / totalSeeds));
-		int tempWork = getPercentCompleted() - work;
-		if (tempWork > 0) {
-			setWorkUnitsCompleted(tempWork);
-			work = getPercentCompleted();
-		} else {
-			setWorkUnitsCompleted(0);
-		}
+		checkCancelled();
+		this.processedSeeds = processSeeds;
+		this.totalSeeds = workListsize + processSeeds;
+		publishProgress();
 	}
 
-	public int getPercentCompleted() {
-		return percentCompleted;
+	/**
+	 * Resets the progress of this listener and returns the queue the progress of the next analysis run is published to. Each event describes the absolute progress, so
+	 * events that do not fit into the bounded queue can safely be dropped.
+	 *
+	 * @return queue of progress events
+	 */
+	public BlockingQueue<ProgressEvent> startProgressReporting() {
+		this.totalSeeds = 0;
+		this.processedSeeds = 0;
+		this.cgGenComplete = false;
+		this.cancelled = false;
+		this.progressEvents = new ArrayBlockingQueue<>(PROGRESS_QUEUE_CAPACITY);
+		return this.progressEvents;
 	}
 
-	public void setPercentCompleted(int percentCompleted) {
-		this.percentCompleted = percentCompleted;
+	private void publishProgress() {
+		this.progressEvents.offer(new ProgressEvent(this.cgGenComplete, this.processedSeeds, this.totalSeeds));
 	}
 
-	public int getTotalSeeds() {
-		return totalSeeds;
+	/**
+	 * Requests the running analysis to stop. The analysis terminates at the next phase boundary or analysed seed.
+	 */
+	public void cancel() {
+		this.cancelled = true;
+		final Runnable handler = this.cancelHandler;
+		if (handler != null) {
+			handler.run();
+		}
 	}
 
-	public void setTotalSeeds(int totalSeeds) {
-		this.totalSeeds = totalSeeds;
+	/**
+	 * Sets an action that is executed when the running analysis is cancelled, e.g., to terminate an analysis process that cannot check for cancellation itself.
+	 *
+	 * @param cancelHandler the action or <code>null</code> to remove the current one
+	 */
+	public void setCancelHandler(final Runnable cancelHandler) {
+		this.cancelHandler = cancelHandler;
 	}
 
-	public int getProcessedSeeds() {
-		return processedSeeds;
+	public boolean isCancelled() {
+		return this.cancelled;
 	}
 
-	public void setProcessedSeeds(int processedSeeds) {
-		this.processedSeeds = processedSeeds;
+	/**
+	 * @return the thread running the latest analysis of the project, which may still be alive after the analysis has been cancelled
+	 */
+	public Thread getAnalysisThread() {
+		return this.analysisThread;
 	}
 
-	public boolean isCgGenComplete() {
-		return cgGenComplete;
+	public void setAnalysisThread(final Thread analysisThread) {
+		this.analysisThread = analysisThread;
 	}
 
-	public void setCgGenComplete(boolean cgGenComplete) {
-		this.cgGenComplete = cgGenComplete;
+	/**
+	 * @throws OperationCanceledException if the running analysis has been cancelled
+	 */
+	public void checkCancelled() {
+		if (this.cancelled) {
+			throw new OperationCanceledException();
+		}
+	}
+
+	public int getTotalSeeds() {
+		return totalSeeds;
 	}
 
-	public int getWorkUnitsCompleted() {
-		return workUnitsCompleted;
+	public int getProcessedSeeds() {
+		return processedSeeds;
 	}
 
-	public void setWorkUnitsCompleted(int workUnitsCompleted) {
-		this.workUnitsCompleted = workUnitsCompleted;
+	public boolean isCgGenComplete() {
+		return cgGenComplete;
 	}
 
-	public void setWork(int work) {
-		this.work = work;
+	public void setCgGenComplete(boolean cgGenComplete) {
+		this.cgGenComplete = cgGenComplete;
+		publishProgress();
 	}
 }
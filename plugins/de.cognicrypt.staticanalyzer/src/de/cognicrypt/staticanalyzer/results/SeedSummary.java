@@ -0,0 +1,138 @@
+/********************************************************************************
+ * Copyright (c) 2015-2019 TU Darmstadt, Paderborn University http://www.eclipse.org/legal/epl-2.0. SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package de.cognicrypt.staticanalyzer.results;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Optional;
+import boomerang.jimple.Statement;
+import boomerang.jimple.Val;
+import crypto.analysis.IAnalysisSeed;
+import soot.SootMethod;
+import soot.Value;
+import soot.ValueBox;
+import soot.jimple.Stmt;
+import soot.jimple.internal.JimpleLocal;
+import soot.jimple.internal.JimpleLocalBox;
+import sync.pds.solver.nodes.Node;
+
+/**
+ * This class describes an analysis seed without referring to any Soot object. Summaries are created while the analysis runs and stay valid after the Soot scene has been
+ * reset, which also allows to send them from an analysis process to the IDE.
+ */
+public class SeedSummary implements Serializable {
+
+	private static final long serialVersionUID = 3457214889211208127L;
+
+	private final String className;
+	private final String methodName;
+	private final int lineNumber;
+	private final String variable;
+	private final String typeName;
+	private final String allocationKey;
+	private final String variableKey;
+	private String secureObjectMessage;
+	private String methodSignature;
+
+	private SeedSummary(final IAnalysisSeed seed) {
+		this(seed.stmt(), seed.var());
+	}
+
+	private SeedSummary(final Statement stmt, final Val fact) {
+		final SootMethod method = stmt.getMethod();
+		final Value var = fact.value();
+		this.className = method.getDeclaringClass().getName();
+		this.methodName = method.getName();
+		this.lineNumber = stmt.getUnit().get().getJavaSourceStartLineNumber();
+		this.variable = var.toString();
+		this.typeName = var.getType().toQuotedString();
+		this.variableKey = method.getSignature() + "#" + this.variable;
+		this.allocationKey = method.getSignature() + "#" + stmt.toString() + "#" + this.variable;
+	}
+
+	public static SeedSummary of(final IAnalysisSeed seed) {
+		return new SeedSummary(seed);
+	}
+
+	/**
+	 * Creates the summary of a seed whose analysis has exceeded its time budget. In addition to the seed itself, it contains the method signature the timeout marker is
+	 * created from.
+	 */
+	public static SeedSummary ofTimeout(final Node<Statement, Val> seed) {
+		final SeedSummary summary = new SeedSummary(seed.stmt(), seed.fact());
+		summary.methodSignature = seed.stmt().getMethod().getSignature();
+		return summary;
+	}
+
+	/**
+	 * Creates the summary of an object that is used securely. In addition to the seed itself, it contains the message and method signature the secure object marker is created
+	 * from.
+	 */
+	public static SeedSummary ofSecureObject(final IAnalysisSeed secureObject) {
+		final SeedSummary summary = new SeedSummary(secureObject);
+		final Statement stmt = secureObject.stmt();
+		final Stmt unit = stmt.getUnit().get();
+		final List<ValueBox> useAndDefBoxes = unit.getUseAndDefBoxes();
+		final Optional<ValueBox> varOpt = useAndDefBoxes.stream().filter(e -> e instanceof JimpleLocalBox).findFirst();
+		ValueBox var = null;
+		if (varOpt.isPresent()) {
+			var = varOpt.get();
+		} else {
+			for (final ValueBox box : useAndDefBoxes) {
+				if (box.getValue() instanceof JimpleLocal) {
+					var = box;
+					break;
+				}
+			}
+		}
+		final Value varName = var.getValue();
+		summary.secureObjectMessage = "Object " + (varName.toString().startsWith("$r") || varName.toString().startsWith("$stack") ? " of Type " + var.getValue().getType().toQuotedString() : varName)
+				+ " is secure.";
+		summary.methodSignature = secureObject.getMethod().getSignature();
+		return summary;
+	}
+
+	public String getClassName() {
+		return this.className;
+	}
+
+	public String getMethodName() {
+		return this.methodName;
+	}
+
+	public int getLineNumber() {
+		return this.lineNumber;
+	}
+
+	public String getVariable() {
+		return this.variable;
+	}
+
+	public String getTypeName() {
+		return this.typeName;
+	}
+
+	/**
+	 * @return key that identifies the allocation site of this seed
+	 */
+	public String getAllocationKey() {
+		return this.allocationKey;
+	}
+
+	/**
+	 * @return key that identifies the local variable of this seed within its method
+	 */
+	public String getVariableKey() {
+		return this.variableKey;
+	}
+
+	public String getSecureObjectMessage() {
+		return this.secureObjectMessage;
+	}
+
+	public String getMethodSignature() {
+		return this.methodSignature;
+	}
+}
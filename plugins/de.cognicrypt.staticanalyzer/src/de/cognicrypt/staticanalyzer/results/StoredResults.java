@@ -0,0 +1,74 @@
+/********************************************************************************
+ * Copyright (c) 2015-2019 TU Darmstadt, Paderborn University http://www.eclipse.org/legal/epl-2.0. SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package de.cognicrypt.staticanalyzer.results;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import de.cognicrypt.staticanalyzer.sootbridge.CallGraphSummary;
+import de.cognicrypt.staticanalyzer.view.AnalysisData;
+import de.cognicrypt.staticanalyzer.view.Stats;
+
+/**
+ * This class holds the results of a full analysis of a project as they are written to the {@link ResultStore}. The results are only valid for the project content the
+ * fingerprint has been computed of.
+ */
+public class StoredResults implements Serializable {
+
+	private static final long serialVersionUID = -4306117052392614128L;
+
+	private final String fingerprint;
+	private final String timeOfAnalysis;
+	private final HashMap<String, AnalysisData> classesAnalysed;
+	private final LinkedHashMap<String, Long> phaseTimes;
+	private final TreeSet<String> ruleVersions;
+	private final CallGraphSummary callGraph;
+
+	/**
+	 * @param fingerprint fingerprint of the project content the results have been computed for
+	 * @param stats results of the analysis
+	 * @param phaseTimes time in milliseconds each phase of the analysis took
+	 * @param ruleVersions versions of the rule sets the analysis used
+	 * @param callGraph summary of the call graph of the analysis or <code>null</code> if the call graph has not been reported
+	 */
+	public StoredResults(final String fingerprint, final Stats stats, final Map<String, Long> phaseTimes, final Collection<String> ruleVersions,
+			final CallGraphSummary callGraph) {
+		this.fingerprint = fingerprint;
+		this.timeOfAnalysis = stats.getTimeOfAnalysis();
+		this.classesAnalysed = new HashMap<>(stats.getClassesAnalysed());
+		this.phaseTimes = new LinkedHashMap<>(phaseTimes);
+		this.ruleVersions = new TreeSet<>(ruleVersions);
+		this.callGraph = callGraph;
+	}
+
+	public String getFingerprint() {
+		return this.fingerprint;
+	}
+
+	public String getTimeOfAnalysis() {
+		return this.timeOfAnalysis;
+	}
+
+	public Map<String, AnalysisData> getClassesAnalysed() {
+		return Collections.unmodifiableMap(this.classesAnalysed);
+	}
+
+	public Map<String, Long> getPhaseTimes() {
+		return Collections.unmodifiableMap(this.phaseTimes);
+	}
+
+	public Set<String> getRuleVersions() {
+		return Collections.unmodifiableSet(this.ruleVersions);
+	}
+
+	public CallGraphSummary getCallGraph() {
+		return this.callGraph;
+	}
+}
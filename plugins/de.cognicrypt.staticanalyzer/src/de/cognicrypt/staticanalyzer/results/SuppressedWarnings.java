@@ -0,0 +1,119 @@
+/********************************************************************************
+ * Copyright (c) 2015-2019 TU Darmstadt, Paderborn University http://www.eclipse.org/legal/epl-2.0. SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package de.cognicrypt.staticanalyzer.results;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.CoreException;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import de.cognicrypt.core.Constants;
+import de.cognicrypt.staticanalyzer.Activator;
+import de.cognicrypt.utils.XMLParser;
+
+/**
+ * This class holds the entries of a project's SuppressWarnings.xml file during one analysis run. The file is parsed once when the run starts, and all changes to it are
+ * written back at once when the run has finished.
+ */
+class SuppressedWarnings {
+
+	private final IProject project;
+	private final XMLParser xmlParser;
+	private final Map<String, Element> entries = new HashMap<>();
+	private final Set<String> detectedIds = new HashSet<>();
+	private boolean modified = false;
+
+	private SuppressedWarnings(final IProject project, final XMLParser xmlParser) {
+		this.project = project;
+		this.xmlParser = xmlParser;
+		if (xmlParser != null) {
+			final NodeList nodes = xmlParser.getDoc().getElementsByTagName(Constants.SUPPRESSWARNING_ELEMENT);
+			for (int i = 0; i < nodes.getLength(); i++) {
+				final Element entry = (Element) nodes.item(i);
+				this.entries.put(entry.getAttribute(Constants.ID_ATTR), entry);
+			}
+		}
+	}
+
+	/**
+	 * Reads the suppressed warnings of {@link project}.
+	 *
+	 * @return the suppressed warnings, which are empty if the project does not have a SuppressWarnings.xml file
+	 */
+	static SuppressedWarnings load(final IProject project) {
+		final File warningsFile = new File(project.getLocation().toOSString() + Constants.outerFileSeparator + Constants.SUPPRESSWARNING_FILE);
+		if (!warningsFile.exists()) {
+			return new SuppressedWarnings(project, null);
+		}
+		final XMLParser xmlParser = new XMLParser(warningsFile);
+		xmlParser.useDocFromFile();
+		return new SuppressedWarnings(project, xmlParser.getDoc() != null ? xmlParser : null);
+	}
+
+	/**
+	 * Checks whether the warning with id {@link id} is suppressed and, if so, records that it has been detected at line {@link lineNumber}.
+	 *
+	 * @return <code>true</code> if the warning is suppressed
+	 */
+	synchronized boolean detect(final int id, final int lineNumber) {
+		final String idAsString = String.valueOf(id);
+		final Element entry = this.entries.get(idAsString);
+		if (entry == null) {
+			return false;
+		}
+		this.detectedIds.add(idAsString);
+		final Node lineNumberNode = this.xmlParser.getChildNodeByTagName(entry, Constants.LINENUMBER_ELEMENT);
+		final String newLineNumber = String.valueOf(lineNumber);
+		if (lineNumberNode != null && !newLineNumber.equals(lineNumberNode.getTextContent())) {
+			lineNumberNode.setTextContent(newLineNumber);
+			this.modified = true;
+		}
+		return true;
+	}
+
+	/**
+	 * Removes all entries whose warnings have not been detected in this run. This must only be called after an analysis of the whole project.
+	 */
+	synchronized void removeUndetected() {
+		// nothing detected at all is more likely a broken analysis than a project without any of the suppressed warnings
+		if (this.detectedIds.isEmpty()) {
+			return;
+		}
+		final Iterator<Entry<String, Element>> it = this.entries.entrySet().iterator();
+		while (it.hasNext()) {
+			final Entry<String, Element> entry = it.next();
+			if (!this.detectedIds.contains(entry.getKey())) {
+				entry.getValue().getParentNode().removeChild(entry.getValue());
+				it.remove();
+				this.modified = true;
+			}
+		}
+	}
+
+	/**
+	 * Writes all changes of this run to the SuppressWarnings.xml file.
+	 */
+	synchronized void flush() {
+		if (!this.modified) {
+			return;
+		}
+		this.xmlParser.writeXML();
+		this.modified = false;
+		try {
+			this.project.getFile(Constants.SUPPRESSWARNING_FILE).refreshLocal(IResource.DEPTH_ZERO, null);
+		}
+		catch (final CoreException e) {
+			Activator.getDefault().logError(e);
+		}
+	}
+}
@@ -0,0 +1,63 @@
+/********************************************************************************
+ * Copyright (c) 2015-2019 TU Darmstadt, Paderborn University http://www.eclipse.org/legal/epl-2.0. SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package de.cognicrypt.staticanalyzer.results;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+import de.cognicrypt.staticanalyzer.Activator;
+import de.cognicrypt.staticanalyzer.sootbridge.ClassDependencies;
+
+/**
+ * This class maps the fully qualified names of the top-level types declared in the sources of a project to the files declaring them. It is built once per analysis run, so
+ * that placing the markers of a run does not require walking the project for each of them.
+ */
+class TypeResourceIndex {
+
+	private final Map<String, IResource> resources = new HashMap<>();
+
+	private TypeResourceIndex() {}
+
+	/**
+	 * Indexes all compilation units in the source folders of {@link project}.
+	 */
+	static TypeResourceIndex build(final IProject project) {
+		final TypeResourceIndex index = new TypeResourceIndex();
+		try {
+			for (final IPackageFragmentRoot root : JavaCore.create(project).getPackageFragmentRoots()) {
+				if (root.getKind() != IPackageFragmentRoot.K_SOURCE) {
+					continue;
+				}
+				for (final Object child : root.getChildren()) {
+					for (final ICompilationUnit unit : ((IPackageFragment) child).getCompilationUnits()) {
+						final IResource resource = unit.getResource();
+						for (final IType type : unit.getTypes()) {
+							index.resources.putIfAbsent(type.getFullyQualifiedName(), resource);
+						}
+					}
+				}
+			}
+		}
+		catch (final JavaModelException e) {
+			Activator.getDefault().logError(e);
+		}
+		return index;
+	}
+
+	/**
+	 * @param className fully qualified binary name of a class, which may be nested
+	 * @return the file declaring the class or <code>null</code> if it is not declared in the sources of the project
+	 */
+	IResource find(final String className) {
+		return this.resources.get(ClassDependencies.getTopLevelName(className));
+	}
+}
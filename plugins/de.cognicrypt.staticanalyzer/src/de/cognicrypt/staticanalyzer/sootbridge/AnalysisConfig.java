@@ -0,0 +1,170 @@
+/********************************************************************************
+ * Copyright (c) 2015-2019 TU Darmstadt, Paderborn University http://www.eclipse.org/legal/epl-2.0. SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package de.cognicrypt.staticanalyzer.sootbridge;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import crypto.rules.CrySLRule;
+
+/**
+ * This class contains everything {@link SootAnalysis} needs to analyse a set of classes. It does not refer to the workspace or the preference store, so that it can be
+ * sent to a separate analysis process.
+ */
+public class AnalysisConfig implements Serializable {
+
+	private static final long serialVersionUID = -4522391046728807553L;
+
+	/**
+	 * index of {@link de.cognicrypt.core.Constants.CG#ON_DEMAND}, which the analysis process cannot refer to as it runs without the core plug-in
+	 */
+	public static final int ON_DEMAND_CALL_GRAPH = 3;
+
+	private String sootClassPath;
+	private ArrayList<String> processDirs = new ArrayList<>();
+	private ArrayList<CrySLRule> rules = new ArrayList<>();
+	private int callGraph;
+	private HashSet<String> affectedClasses;
+	private boolean providerDetection;
+	private String rulesDirectory;
+	private HashMap<String, String> providerRuleDirectories = new HashMap<>();
+	private boolean reportSecureObjects;
+	private int seedTimeout;
+	private long deadline;
+	private boolean bytecodePrefilter;
+	private String callGraphCacheFile;
+
+	public String getSootClassPath() {
+		return this.sootClassPath;
+	}
+
+	public void setSootClassPath(final String sootClassPath) {
+		this.sootClassPath = sootClassPath;
+	}
+
+	/**
+	 * @return directories and archives whose classes are analysed
+	 */
+	public List<String> getProcessDirs() {
+		return this.processDirs;
+	}
+
+	public void setProcessDirs(final List<String> processDirs) {
+		this.processDirs = new ArrayList<>(processDirs);
+	}
+
+	public List<CrySLRule> getRules() {
+		return this.rules;
+	}
+
+	public void setRules(final List<CrySLRule> rules) {
+		this.rules = new ArrayList<>(rules);
+	}
+
+	/**
+	 * @return index of the selected {@link de.cognicrypt.core.Constants.CG} algorithm
+	 */
+	public int getCallGraph() {
+		return this.callGraph;
+	}
+
+	public void setCallGraph(final int callGraph) {
+		this.callGraph = callGraph;
+	}
+
+	/**
+	 * @return top-level classes to analyse again after a change or <code>null</code> to analyse all classes
+	 */
+	public Set<String> getAffectedClasses() {
+		return this.affectedClasses;
+	}
+
+	public void setAffectedClasses(final Set<String> affectedClasses) {
+		this.affectedClasses = affectedClasses == null ? null : new HashSet<>(affectedClasses);
+	}
+
+	public boolean isProviderDetection() {
+		return this.providerDetection;
+	}
+
+	public void setProviderDetection(final boolean providerDetection) {
+		this.providerDetection = providerDetection;
+	}
+
+	public String getRulesDirectory() {
+		return this.rulesDirectory;
+	}
+
+	public void setRulesDirectory(final String rulesDirectory) {
+		this.rulesDirectory = rulesDirectory;
+	}
+
+	/**
+	 * @return maps the name of a provider that may be detected to the directory that contains its latest rules
+	 */
+	public Map<String, String> getProviderRuleDirectories() {
+		return this.providerRuleDirectories;
+	}
+
+	public void setProviderRuleDirectories(final Map<String, String> providerRuleDirectories) {
+		this.providerRuleDirectories = new HashMap<>(providerRuleDirectories);
+	}
+
+	public boolean isReportSecureObjects() {
+		return this.reportSecureObjects;
+	}
+
+	public void setReportSecureObjects(final boolean reportSecureObjects) {
+		this.reportSecureObjects = reportSecureObjects;
+	}
+
+	/**
+	 * @return time budget of a single seed in milliseconds or 0 to use the default of CryptoAnalysis
+	 */
+	public int getSeedTimeout() {
+		return this.seedTimeout;
+	}
+
+	public void setSeedTimeout(final int seedTimeout) {
+		this.seedTimeout = seedTimeout;
+	}
+
+	/**
+	 * @return time in milliseconds after which the analysis stops starting new seeds or 0 if the analysis runs until all seeds have been analysed
+	 */
+	public long getDeadline() {
+		return this.deadline;
+	}
+
+	public void setDeadline(final long deadline) {
+		this.deadline = deadline;
+	}
+
+	/**
+	 * @return <code>true</code> if only the classes that refer to a type specified by a rule and the classes that refer to those are analysed
+	 */
+	public boolean isBytecodePrefilter() {
+		return this.bytecodePrefilter;
+	}
+
+	public void setBytecodePrefilter(final boolean bytecodePrefilter) {
+		this.bytecodePrefilter = bytecodePrefilter;
+	}
+
+	/**
+	 * @return path of the file the call graph is cached in between runs or <code>null</code> if the call graph is constructed from scratch
+	 */
+	public String getCallGraphCacheFile() {
+		return this.callGraphCacheFile;
+	}
+
+	public void setCallGraphCacheFile(final String callGraphCacheFile) {
+		this.callGraphCacheFile = callGraphCacheFile;
+	}
+}
@@ -0,0 +1,86 @@
+/********************************************************************************
+ * Copyright (c) 2015-2019 TU Darmstadt, Paderborn University http://www.eclipse.org/legal/epl-2.0. SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package de.cognicrypt.staticanalyzer.sootbridge;
+
+import java.util.Collection;
+import java.util.Set;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Table;
+import boomerang.BackwardQuery;
+import boomerang.Query;
+import boomerang.jimple.Statement;
+import boomerang.jimple.Val;
+import boomerang.results.ForwardBoomerangResults;
+import crypto.analysis.AnalysisSeedWithSpecification;
+import crypto.analysis.CrySLAnalysisListener;
+import crypto.analysis.EnsuredCrySLPredicate;
+import crypto.analysis.IAnalysisSeed;
+import crypto.analysis.errors.AbstractError;
+import crypto.extractparameter.CallSiteWithParamIndex;
+import crypto.extractparameter.ExtractedValue;
+import crypto.interfaces.ISLConstraint;
+import crypto.rules.CrySLPredicate;
+import typestate.TransitionFunction;
+
+/**
+ * This listener ignores all events of an analysis. Listeners that are only interested in some events extend it.
+ */
+abstract class AnalysisListenerAdapter extends CrySLAnalysisListener {
+
+	@Override
+	public void beforeAnalysis() {}
+
+	@Override
+	public void afterAnalysis() {}
+
+	@Override
+	public void reportError(final AbstractError error) {}
+
+	@Override
+	public void discoveredSeed(final IAnalysisSeed seed) {}
+
+	@Override
+	public void onSecureObjectFound(final IAnalysisSeed secureObject) {}
+
+	@Override
+	public void addProgress(final int processedSeeds, final int workListSize) {}
+
+	@Override
+	public void checkedConstraints(final AnalysisSeedWithSpecification analysisSeedWithSpecification, final Collection<ISLConstraint> relevantConstraints) {}
+
+	@Override
+	public void onSeedTimeout(final sync.pds.solver.nodes.Node<Statement, Val> seed) {}
+
+	@Override
+	public void collectedValues(final AnalysisSeedWithSpecification seed, final Multimap<CallSiteWithParamIndex, ExtractedValue> collectedValues) {}
+
+	@Override
+	public void onSeedFinished(final IAnalysisSeed seed, final ForwardBoomerangResults<TransitionFunction> results) {}
+
+	@Override
+	public void beforeConstraintCheck(final AnalysisSeedWithSpecification analysisSeedWithSpecification) {}
+
+	@Override
+	public void afterConstraintCheck(final AnalysisSeedWithSpecification analysisSeedWithSpecification) {}
+
+	@Override
+	public void beforePredicateCheck(final AnalysisSeedWithSpecification analysisSeedWithSpecification) {}
+
+	@Override
+	public void afterPredicateCheck(final AnalysisSeedWithSpecification analysisSeedWithSpecification) {}
+
+	@Override
+	public void seedStarted(final IAnalysisSeed seed) {}
+
+	@Override
+	public void boomerangQueryStarted(final Query seed, final BackwardQuery q) {}
+
+	@Override
+	public void boomerangQueryFinished(final Query seed, final BackwardQuery q) {}
+
+	@Override
+	public void ensuredPredicates(final Table<Statement, Val, Set<EnsuredCrySLPredicate>> existingPredicates,
+			final Table<Statement, IAnalysisSeed, Set<CrySLPredicate>> expectedPredicates, final Table<Statement, IAnalysisSeed, Set<CrySLPredicate>> missingPredicates) {}
+}
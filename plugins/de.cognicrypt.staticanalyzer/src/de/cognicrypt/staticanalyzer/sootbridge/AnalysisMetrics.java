@@ -0,0 +1,325 @@
+/********************************************************************************
+ * Copyright (c) 2015-2019 TU Darmstadt, Paderborn University http://www.eclipse.org/legal/epl-2.0. SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package de.cognicrypt.staticanalyzer.sootbridge;
+
+import java.io.Serializable;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+/**
+ * This class records the cost of the phases of an analysis run: wall-clock time, CPU time and the bytes allocated by the thread running the phase. In addition, it counts
+ * the analysed seeds and Boomerang queries and profiles the seeds in a {@link SeedProfile}. Metrics are serializable, so that the analysis process can send them to the IDE.
+ */
+public class AnalysisMetrics implements Serializable {
+
+	private static final long serialVersionUID = 4102258374913760211L;
+
+	public static final String PREFILTER_PHASE = "Bytecode pre-filter";
+	public static final String CLASS_LOADING_PHASE = "Class loading";
+	public static final String CALL_GRAPH_PHASE = "Call graph construction";
+	public static final String PRETRANSFORMER_PHASE = "Boomerang pretransformer";
+	public static final String PROVIDER_DETECTION_PHASE = "Provider detection";
+	public static final String RULE_PRUNING_PHASE = "Rule pruning";
+	public static final String DATA_FLOW_PHASE = "Data-flow analysis";
+
+	private static final long UNKNOWN = -1;
+
+	/**
+	 * The cost of one phase. CPU time and allocated bytes are {@value AnalysisMetrics#UNKNOWN} if the JVM does not measure them.
+	 */
+	public static class Phase implements Serializable {
+
+		private static final long serialVersionUID = -6473092650158417931L;
+
+		private final String name;
+		private long wallTimeMs;
+		private long cpuTimeMs;
+		private long allocatedBytes;
+
+		private Phase(final String name, final long wallTimeMs, final long cpuTimeMs, final long allocatedBytes) {
+			this.name = name;
+			this.wallTimeMs = wallTimeMs;
+			this.cpuTimeMs = cpuTimeMs;
+			this.allocatedBytes = allocatedBytes;
+		}
+
+		private void add(final Phase other) {
+			this.wallTimeMs += other.wallTimeMs;
+			this.cpuTimeMs = sum(this.cpuTimeMs, other.cpuTimeMs);
+			this.allocatedBytes = sum(this.allocatedBytes, other.allocatedBytes);
+		}
+
+		public String getName() {
+			return this.name;
+		}
+
+		public long getWallTimeMs() {
+			return this.wallTimeMs;
+		}
+
+		public long getCpuTimeMs() {
+			return this.cpuTimeMs;
+		}
+
+		public long getAllocatedBytes() {
+			return this.allocatedBytes;
+		}
+	}
+
+	private final LinkedHashMap<String, Phase> phases = new LinkedHashMap<>();
+	private int seeds;
+	private int queriesStarted;
+	private int queriesFinished;
+	private boolean deadlineExceeded;
+	private int prefilteredClasses;
+	private int relevantClasses;
+	private int rules;
+	private int applicableRules;
+	private int callGraphEdges;
+	private int reusedCallGraphEdges;
+	private final SeedProfile profile = new SeedProfile();
+
+	/**
+	 * Runs {@link action} on the current thread and records its cost as phase {@link phase}. A phase that is measured several times is recorded as the sum of all runs.
+	 */
+	public void measure(final String phase, final Runnable action) {
+		final long startWall = System.nanoTime();
+		final long startCpu = currentThreadCpuTime();
+		final long startAllocated = ThreadAllocation.currentThreadAllocatedBytes();
+		try {
+			action.run();
+		}
+		finally {
+			final long cpu = difference(startCpu, currentThreadCpuTime());
+			final long allocated = difference(startAllocated, ThreadAllocation.currentThreadAllocatedBytes());
+			record(new Phase(phase, (System.nanoTime() - startWall) / 1000000, cpu == UNKNOWN ? UNKNOWN : cpu / 1000000, allocated));
+		}
+	}
+
+	/**
+	 * Adds the phases and counters of {@link other}, e.g., the metrics sent by the analysis process, to these metrics.
+	 */
+	public void merge(final AnalysisMetrics other) {
+		final List<Phase> otherPhases;
+		synchronized (other) {
+			otherPhases = new ArrayList<>(other.phases.values());
+		}
+		synchronized (this) {
+			for (final Phase phase : otherPhases) {
+				record(new Phase(phase.name, phase.wallTimeMs, phase.cpuTimeMs, phase.allocatedBytes));
+			}
+			this.seeds += other.getSeeds();
+			this.queriesStarted += other.getQueriesStarted();
+			this.queriesFinished += other.getQueriesFinished();
+			this.deadlineExceeded |= other.isDeadlineExceeded();
+			this.prefilteredClasses += other.getPrefilteredClasses();
+			this.relevantClasses += other.getRelevantClasses();
+			this.rules += other.getRules();
+			this.applicableRules += other.getApplicableRules();
+			this.callGraphEdges += other.getCallGraphEdges();
+			this.reusedCallGraphEdges += other.getReusedCallGraphEdges();
+		}
+		this.profile.merge(other.profile);
+	}
+
+	private synchronized void record(final Phase phase) {
+		final Phase recorded = this.phases.get(phase.name);
+		if (recorded == null) {
+			this.phases.put(phase.name, phase);
+		} else {
+			recorded.add(phase);
+		}
+	}
+
+	synchronized void seedStarted() {
+		this.seeds++;
+	}
+
+	synchronized void queryStarted() {
+		this.queriesStarted++;
+	}
+
+	synchronized void queryFinished() {
+		this.queriesFinished++;
+	}
+
+	synchronized void setDeadlineExceeded(final boolean deadlineExceeded) {
+		this.deadlineExceeded = deadlineExceeded;
+	}
+
+	/**
+	 * @return <code>true</code> if the data-flow analysis has been stopped at its deadline, i.e., if not all seeds have been analysed
+	 */
+	public synchronized boolean isDeadlineExceeded() {
+		return this.deadlineExceeded;
+	}
+
+	synchronized void recordPrefilter(final int prefilteredClasses, final int relevantClasses) {
+		this.prefilteredClasses += prefilteredClasses;
+		this.relevantClasses += relevantClasses;
+	}
+
+	/**
+	 * @return the number of top-level classes the bytecode pre-filter has read or 0 if it has not run
+	 */
+	public synchronized int getPrefilteredClasses() {
+		return this.prefilteredClasses;
+	}
+
+	/**
+	 * @return the number of top-level classes the bytecode pre-filter has kept for the analysis
+	 */
+	public synchronized int getRelevantClasses() {
+		return this.relevantClasses;
+	}
+
+	/**
+	 * @return the share of classes the bytecode pre-filter has removed from the analysis, between 0 and 1
+	 */
+	public synchronized double getPrefilterReduction() {
+		return this.prefilteredClasses == 0 ? 0 : 1 - (double) this.relevantClasses / this.prefilteredClasses;
+	}
+
+	synchronized void recordRulePruning(final int rules, final int applicableRules) {
+		this.rules += rules;
+		this.applicableRules += applicableRules;
+	}
+
+	/**
+	 * @return the number of rules the data-flow analysis has been started with, before rules that cannot apply have been removed
+	 */
+	public synchronized int getRules() {
+		return this.rules;
+	}
+
+	/**
+	 * @return the number of rules the data-flow analysis has actually used
+	 */
+	public synchronized int getApplicableRules() {
+		return this.applicableRules;
+	}
+
+	synchronized void recordCallGraphReuse(final int reusedCallGraphEdges, final int callGraphEdges) {
+		this.reusedCallGraphEdges += reusedCallGraphEdges;
+		this.callGraphEdges += callGraphEdges;
+	}
+
+	/**
+	 * @return the number of edges of the call graph or 0 if the call graph cache is not used
+	 */
+	public synchronized int getCallGraphEdges() {
+		return this.callGraphEdges;
+	}
+
+	/**
+	 * @return the number of call graph edges taken from the call graph of the previous run
+	 */
+	public synchronized int getReusedCallGraphEdges() {
+		return this.reusedCallGraphEdges;
+	}
+
+	public SeedProfile getProfile() {
+		return this.profile;
+	}
+
+	public synchronized List<Phase> getPhases() {
+		return new ArrayList<>(this.phases.values());
+	}
+
+	public synchronized int getSeeds() {
+		return this.seeds;
+	}
+
+	public synchronized int getQueriesStarted() {
+		return this.queriesStarted;
+	}
+
+	public synchronized int getQueriesFinished() {
+		return this.queriesFinished;
+	}
+
+	/**
+	 * @return the number of seeds analysed per second of the {@link #DATA_FLOW_PHASE} or 0 if the phase has not been recorded
+	 */
+	public synchronized double getSeedsPerSecond() {
+		final Phase dataFlow = this.phases.get(DATA_FLOW_PHASE);
+		return dataFlow == null || dataFlow.wallTimeMs == 0 ? 0 : this.seeds * 1000.0 / dataFlow.wallTimeMs;
+	}
+
+	public synchronized JsonObject toJson() {
+		final JsonArray phaseArray = new JsonArray();
+		for (final Phase phase : this.phases.values()) {
+			final JsonObject phaseObject = new JsonObject();
+			phaseObject.addProperty("name", phase.name);
+			phaseObject.addProperty("wallTimeMs", phase.wallTimeMs);
+			phaseObject.addProperty("cpuTimeMs", phase.cpuTimeMs);
+			phaseObject.addProperty("allocatedBytes", phase.allocatedBytes);
+			phaseArray.add(phaseObject);
+		}
+		final JsonObject json = new JsonObject();
+		json.add("phases", phaseArray);
+		json.addProperty("seeds", this.seeds);
+		json.addProperty("seedsPerSecond", getSeedsPerSecond());
+		json.addProperty("boomerangQueriesStarted", this.queriesStarted);
+		json.addProperty("boomerangQueriesFinished", this.queriesFinished);
+		json.addProperty("deadlineExceeded", this.deadlineExceeded);
+		final JsonObject prefilter = new JsonObject();
+		prefilter.addProperty("classes", this.prefilteredClasses);
+		prefilter.addProperty("relevantClasses", this.relevantClasses);
+		prefilter.addProperty("reduction", getPrefilterReduction());
+		json.add("prefilter", prefilter);
+		json.addProperty("rules", this.rules);
+		json.addProperty("applicableRules", this.applicableRules);
+		json.addProperty("callGraphEdges", this.callGraphEdges);
+		json.addProperty("reusedCallGraphEdges", this.reusedCallGraphEdges);
+		json.add("profile", this.profile.toJson());
+		return json;
+	}
+
+	private static long currentThreadCpuTime() {
+		final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		return threads.isCurrentThreadCpuTimeSupported() ? threads.getCurrentThreadCpuTime() : UNKNOWN;
+	}
+
+	private static long difference(final long start, final long end) {
+		return start == UNKNOWN || end == UNKNOWN ? UNKNOWN : end - start;
+	}
+
+	private static long sum(final long first, final long second) {
+		return first == UNKNOWN || second == UNKNOWN ? UNKNOWN : first + second;
+	}
+
+	/**
+	 * Allocated bytes are only measured by the HotSpot extension of the thread bean, which may not be visible to the plug-in's class loader. This class isolates the
+	 * access, so that a missing extension only disables the measurement.
+	 */
+	private static class ThreadAllocation {
+
+		private static final boolean SUPPORTED = isSupported();
+
+		private static boolean isSupported() {
+			try {
+				final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+				return threads instanceof com.sun.management.ThreadMXBean && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported()
+						&& ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemoryEnabled();
+			}
+			catch (final LinkageError e) {
+				return false;
+			}
+		}
+
+		private static long currentThreadAllocatedBytes() {
+			if (!SUPPORTED) {
+				return UNKNOWN;
+			}
+			return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+	}
+}
@@ -0,0 +1,170 @@
+/********************************************************************************
+ * Copyright (c) 2015-2019 TU Darmstadt, Paderborn University http://www.eclipse.org/legal/epl-2.0. SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package de.cognicrypt.staticanalyzer.sootbridge;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.eclipse.jdt.core.IJavaProject;
+import com.google.gson.JsonObject;
+import crypto.rules.CrySLRule;
+import de.cognicrypt.staticanalyzer.Activator;
+import de.cognicrypt.staticanalyzer.view.Stats;
+
+/**
+ * This class holds the state of a single analysis run. The CrySL rules are loaded at most once per session and shared by all phases of the analysis. The results of the
+ * run are collected in the session's {@link Stats}, the cost of its phases in its {@link AnalysisMetrics}.
+ */
+public class AnalysisSession {
+
+	public static final String RULE_LOADING_PHASE = "Rule loading";
+
+	private static final String METRICS_FOLDER = "metrics";
+	private static final String METRICS_FILE_ENDING = ".jsonl";
+
+	private final IJavaProject project;
+	private final Boolean dependencyAnalyser;
+	private List<CrySLRule> rules;
+	private Set<String> affectedClasses;
+	private List<String> libraries;
+	private final AnalysisMetrics metrics = new AnalysisMetrics();
+	private final Stats stats = new Stats();
+	private volatile CallGraphSummary callGraph;
+
+	public AnalysisSession(final IJavaProject project, final Boolean dependencyAnalyser) {
+		this.project = project;
+		this.dependencyAnalyser = dependencyAnalyser;
+	}
+
+	public IJavaProject getProject() {
+		return this.project;
+	}
+
+	public Boolean isDependencyAnalyser() {
+		return this.dependencyAnalyser;
+	}
+
+	/**
+	 * @return the top-level classes to analyse in an incremental run or <code>null</code> if the whole project is analysed
+	 */
+	public Set<String> getAffectedClasses() {
+		return this.affectedClasses;
+	}
+
+	public void setAffectedClasses(final Set<String> affectedClasses) {
+		this.affectedClasses = affectedClasses;
+	}
+
+	/**
+	 * @return the libraries to analyse in a dependency run or <code>null</code> if all libraries on the class path are analysed
+	 */
+	public List<String> getLibraries() {
+		return this.libraries;
+	}
+
+	public void setLibraries(final List<String> libraries) {
+		this.libraries = libraries;
+	}
+
+	public Stats getStats() {
+		return this.stats;
+	}
+
+	/**
+	 * @return the summary of the call graph of this session or <code>null</code> if it has not been constructed yet, which a call graph computed on demand is only once all seeds have been analysed
+	 */
+	public CallGraphSummary getCallGraph() {
+		return this.callGraph;
+	}
+
+	public void setCallGraph(final CallGraphSummary callGraph) {
+		this.callGraph = callGraph;
+	}
+
+	public boolean isIncremental() {
+		return this.affectedClasses != null;
+	}
+
+	/**
+	 * Returns the rules of this session. They are loaded on first access; the time this takes is recorded as the {@link #RULE_LOADING_PHASE}.
+	 *
+	 * @return unmodifiable list of rules
+	 */
+	public synchronized List<CrySLRule> getRules() {
+		if (this.rules == null) {
+			this.metrics.measure(RULE_LOADING_PHASE, () -> this.rules = Collections.unmodifiableList(SootRunner.loadRules(this.project.getProject())));
+		}
+		return this.rules;
+	}
+
+	/**
+	 * @return the metrics of this session, which include the phases run within the analysis process
+	 */
+	public AnalysisMetrics getMetrics() {
+		return this.metrics;
+	}
+
+	/**
+	 * @return the wall-clock time in milliseconds each phase of this session took
+	 */
+	public Map<String, Long> getPhaseTimes() {
+		final Map<String, Long> phaseTimes = new LinkedHashMap<>();
+		for (final AnalysisMetrics.Phase phase : this.metrics.getPhases()) {
+			phaseTimes.put(phase.getName(), phase.getWallTimeMs());
+		}
+		return phaseTimes;
+	}
+
+	/**
+	 * Logs the metrics of this session and appends them as one line of JSON to the metrics file of the project in the plug-in's state location.
+	 */
+	public void logMetrics() {
+		final String projectName = this.project.getElementName();
+		for (final AnalysisMetrics.Phase phase : this.metrics.getPhases()) {
+			Activator.getDefault().logInfo(phase.getName() + " for " + projectName + " took " + phase.getWallTimeMs() + " ms (" + phase.getCpuTimeMs() + " ms CPU, "
+					+ phase.getAllocatedBytes() + " bytes allocated).");
+		}
+		Activator.getDefault().logInfo("Analysed " + this.metrics.getSeeds() + " seeds of " + projectName + " (" + String.format("%.1f", this.metrics.getSeedsPerSecond())
+				+ " per second) with " + this.metrics.getQueriesStarted() + " Boomerang queries.");
+		if (this.metrics.getRules() > 0) {
+			Activator.getDefault().logInfo(
+					"Analysed " + projectName + " with " + this.metrics.getApplicableRules() + " of " + this.metrics.getRules() + " rules, the others cannot apply.");
+		}
+		if (this.metrics.getCallGraphEdges() > 0) {
+			Activator.getDefault().logInfo("Reused " + this.metrics.getReusedCallGraphEdges() + " of " + this.metrics.getCallGraphEdges() + " call graph edges of " + projectName
+					+ " from the previous run.");
+		}
+		if (this.metrics.getPrefilteredClasses() > 0) {
+			Activator.getDefault().logInfo("The bytecode pre-filter kept " + this.metrics.getRelevantClasses() + " of " + this.metrics.getPrefilteredClasses() + " classes of "
+					+ projectName + " (" + String.format("%.0f", this.metrics.getPrefilterReduction() * 100) + "% fewer classes to analyse).");
+		}
+
+		final JsonObject json = this.metrics.toJson();
+		json.addProperty("project", projectName);
+		json.addProperty("time", Instant.now().toString());
+		json.addProperty("version", Activator.getDefault().getBundle().getVersion().toString());
+		json.addProperty("incremental", isIncremental());
+		json.addProperty("dependencies", this.dependencyAnalyser);
+		final File metricsFolder = Activator.getDefault().getStateLocation().append(METRICS_FOLDER).toFile();
+		metricsFolder.mkdirs();
+		try (Writer writer = Files.newBufferedWriter(new File(metricsFolder, projectName + METRICS_FILE_ENDING).toPath(), StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+				StandardOpenOption.APPEND)) {
+			writer.write(json.toString());
+			writer.write(System.lineSeparator());
+		}
+		catch (final IOException e) {
+			Activator.getDefault().logError(e, "Could not write the metrics of " + projectName + ".");
+		}
+	}
+}
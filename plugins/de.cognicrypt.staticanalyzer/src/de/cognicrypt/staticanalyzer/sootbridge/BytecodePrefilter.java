@@ -0,0 +1,310 @@
+/********************************************************************************
+ * Copyright (c) 2015-2019 TU Darmstadt, Paderborn University http://www.eclipse.org/legal/epl-2.0. SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package de.cognicrypt.staticanalyzer.sootbridge;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Queue;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import com.google.common.io.ByteStreams;
+
+/**
+ * This class reads the constant pools of the classes to analyse before Soot loads them. It finds the classes that refer to a type a CrySL rule is specified for and all
+ * classes that (transitively) refer to those. Only these classes can contain seeds or pass values to them, so all other classes need not be analysed. Like
+ * {@link ClassDependencies}, it tracks classes by the name of their top-level class.
+ */
+class BytecodePrefilter {
+
+	private static final String CLASS_FILE_ENDING = ".class";
+
+	private static final int CONSTANT_UTF8 = 1;
+	private static final int CONSTANT_INTEGER = 3;
+	private static final int CONSTANT_FLOAT = 4;
+	private static final int CONSTANT_LONG = 5;
+	private static final int CONSTANT_DOUBLE = 6;
+	private static final int CONSTANT_CLASS = 7;
+	private static final int CONSTANT_STRING = 8;
+	private static final int CONSTANT_FIELDREF = 9;
+	private static final int CONSTANT_METHODREF = 10;
+	private static final int CONSTANT_INTERFACE_METHODREF = 11;
+	private static final int CONSTANT_NAME_AND_TYPE = 12;
+	private static final int CONSTANT_METHOD_HANDLE = 15;
+	private static final int CONSTANT_METHOD_TYPE = 16;
+	private static final int CONSTANT_DYNAMIC = 17;
+	private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+	private static final int CONSTANT_MODULE = 19;
+	private static final int CONSTANT_PACKAGE = 20;
+
+	/**
+	 * characters that end a class or type variable name in a signature
+	 */
+	private static final String NAME_DELIMITERS = ".;[/<>:";
+
+	/**
+	 * maps a top-level class to the names of all types its classes refer to
+	 */
+	private final Map<String, Set<String>> references = new HashMap<>();
+
+	/**
+	 * maps a top-level class to the top-level classes that refer to it
+	 */
+	private final Map<String, Set<String>> referrers = new HashMap<>();
+
+	/**
+	 * top-level classes whose class files could not be read and which are therefore always kept
+	 */
+	private final Set<String> unreadable = new HashSet<>();
+
+	/**
+	 * Reads the constant pools of all classes in {@link processDirs}.
+	 *
+	 * @param processDirs class folders and archives
+	 * @throws IOException if a folder or archive cannot be read
+	 */
+	BytecodePrefilter(final Collection<String> processDirs) throws IOException {
+		for (final String processDir : processDirs) {
+			final File file = new File(processDir);
+			if (file.isDirectory()) {
+				scanDirectory(file.toPath());
+			} else if (file.isFile()) {
+				scanArchive(file);
+			}
+		}
+		for (final Entry<String, Set<String>> classReferences : this.references.entrySet()) {
+			for (final String reference : classReferences.getValue()) {
+				final String referencedClass = ClassDependencies.getTopLevelName(reference);
+				if (!referencedClass.equals(classReferences.getKey()) && this.references.containsKey(referencedClass)) {
+					this.referrers.computeIfAbsent(referencedClass, c -> new HashSet<>()).add(classReferences.getKey());
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return the number of top-level classes read
+	 */
+	int getClassCount() {
+		return this.references.size();
+	}
+
+	/**
+	 * Computes the top-level classes that refer to any of the types {@link ruleTypes} and all top-level classes that (transitively) refer to them.
+	 *
+	 * @param ruleTypes names of the types the CrySL rules are specified for
+	 */
+	Set<String> getRelevantClasses(final Collection<String> ruleTypes) {
+		final Set<String> relevant = new HashSet<>(this.unreadable);
+		for (final Entry<String, Set<String>> classReferences : this.references.entrySet()) {
+			for (final String ruleType : ruleTypes) {
+				if (classReferences.getValue().contains(ruleType)) {
+					relevant.add(classReferences.getKey());
+					break;
+				}
+			}
+		}
+		final Queue<String> worklist = new LinkedList<>(relevant);
+		while (!worklist.isEmpty()) {
+			final Set<String> classReferrers = this.referrers.get(worklist.poll());
+			if (classReferrers != null) {
+				for (final String referrer : classReferrers) {
+					if (relevant.add(referrer)) {
+						worklist.add(referrer);
+					}
+				}
+			}
+		}
+		return relevant;
+	}
+
+	private void scanDirectory(final Path directory) throws IOException {
+		final List<Path> classFiles;
+		try (Stream<Path> walk = Files.walk(directory)) {
+			classFiles = walk.filter(path -> path.toString().endsWith(CLASS_FILE_ENDING)).collect(Collectors.toList());
+		}
+		for (final Path classFile : classFiles) {
+			scanClass(toClassName(directory.relativize(classFile).toString().replace(File.separatorChar, '/')), Files.readAllBytes(classFile));
+		}
+	}
+
+	private void scanArchive(final File archive) throws IOException {
+		try (ZipFile zipFile = new ZipFile(archive)) {
+			for (final Enumeration<? extends ZipEntry> entries = zipFile.entries(); entries.hasMoreElements();) {
+				final ZipEntry entry = entries.nextElement();
+				if (!entry.isDirectory() && entry.getName().endsWith(CLASS_FILE_ENDING)) {
+					try (InputStream in = zipFile.getInputStream(entry)) {
+						scanClass(toClassName(entry.getName()), ByteStreams.toByteArray(in));
+					}
+				}
+			}
+		}
+	}
+
+	private static String toClassName(final String classFilePath) {
+		return classFilePath.substring(0, classFilePath.length() - CLASS_FILE_ENDING.length()).replace('/', '.');
+	}
+
+	private void scanClass(final String className, final byte[] classFile) {
+		final String topLevelName = ClassDependencies.getTopLevelName(className);
+		final Set<String> classReferences = this.references.computeIfAbsent(topLevelName, c -> new HashSet<>());
+		try {
+			readConstantPool(classFile, classReferences);
+		}
+		catch (final IOException | RuntimeException e) {
+			// the class may be compiled for a newer Java version than this reader knows, so it is analysed in any case
+			this.unreadable.add(topLevelName);
+		}
+	}
+
+	/**
+	 * Adds the names of all types the constant pool of {@link classFile} refers to, either as class constant or within a descriptor or signature, to {@link types}.
+	 */
+	static void readConstantPool(final byte[] classFile, final Set<String> types) throws IOException {
+		final DataInputStream in = new DataInputStream(new ByteArrayInputStream(classFile));
+		if (in.readInt() != 0xCAFEBABE) {
+			throw new IOException("Not a class file.");
+		}
+		in.readUnsignedShort();
+		in.readUnsignedShort();
+		final int constantCount = in.readUnsignedShort();
+		final String[] utf8Constants = new String[constantCount];
+		final int[] classConstants = new int[constantCount];
+		for (int index = 1; index < constantCount; index++) {
+			final int tag = in.readUnsignedByte();
+			switch (tag) {
+				case CONSTANT_UTF8:
+					utf8Constants[index] = in.readUTF();
+					break;
+				case CONSTANT_CLASS:
+					classConstants[index] = in.readUnsignedShort();
+					break;
+				case CONSTANT_STRING:
+				case CONSTANT_METHOD_TYPE:
+				case CONSTANT_MODULE:
+				case CONSTANT_PACKAGE:
+					in.readUnsignedShort();
+					break;
+				case CONSTANT_METHOD_HANDLE:
+					in.readUnsignedByte();
+					in.readUnsignedShort();
+					break;
+				case CONSTANT_INTEGER:
+				case CONSTANT_FLOAT:
+				case CONSTANT_FIELDREF:
+				case CONSTANT_METHODREF:
+				case CONSTANT_INTERFACE_METHODREF:
+				case CONSTANT_NAME_AND_TYPE:
+				case CONSTANT_DYNAMIC:
+				case CONSTANT_INVOKE_DYNAMIC:
+					in.readInt();
+					break;
+				case CONSTANT_LONG:
+				case CONSTANT_DOUBLE:
+					in.readLong();
+					// eight-byte constants take up two entries of the pool
+					index++;
+					break;
+				default:
+					throw new IOException("Unknown constant pool tag " + tag + ".");
+			}
+		}
+
+		for (int index = 1; index < constantCount; index++) {
+			if (classConstants[index] != 0) {
+				final String name = utf8Constants[classConstants[index]];
+				if (name.startsWith("[")) {
+					addDescriptorTypes(name, types);
+				} else {
+					types.add(name.replace('/', '.'));
+				}
+			} else if (utf8Constants[index] != null) {
+				addDescriptorTypes(utf8Constants[index], types);
+			}
+		}
+	}
+
+	/**
+	 * Adds the names of all class types {@code Lname;} in a descriptor or signature to {@link types}, including the classes of type arguments, type parameter bounds and
+	 * inner classes of generic classes ({@code LOuter<...>.Inner;}). Type variables and the names of type parameters are skipped. Other strings may yield names that are not
+	 * types, which does no harm, as they are only compared to the names of actual types.
+	 */
+	static void addDescriptorTypes(final String descriptor, final Set<String> types) {
+		// generic class types whose type arguments are being read
+		final Deque<String> genericTypes = new ArrayDeque<>();
+		int index = 0;
+		while (index < descriptor.length()) {
+			final char c = descriptor.charAt(index);
+			if (c == 'L') {
+				index = readClassType(descriptor, index + 1, "", types, genericTypes);
+			} else if (c == 'T') {
+				// a type variable TName; or the name of a type parameter Name:bound
+				index = skipName(descriptor, index + 1);
+			} else if (c == '>' && !genericTypes.isEmpty()) {
+				final String genericType = genericTypes.pop();
+				if (index + 1 < descriptor.length() && descriptor.charAt(index + 1) == '.') {
+					index = readClassType(descriptor, index + 2, genericType + '$', types, genericTypes);
+				} else {
+					index++;
+				}
+			} else {
+				index++;
+			}
+		}
+	}
+
+	/**
+	 * Reads the class type whose name (without the leading {@code L}) starts at {@link start} and adds its name, prefixed by {@link outerType}, to {@link types}.
+	 *
+	 * @return the index to continue reading at
+	 */
+	private static int readClassType(final String descriptor, final int start, final String outerType, final Set<String> types, final Deque<String> genericTypes) {
+		int end = start;
+		while (end < descriptor.length() && (NAME_DELIMITERS.indexOf(descriptor.charAt(end)) < 0 || descriptor.charAt(end) == '/')) {
+			end++;
+		}
+		if (end == start || end == descriptor.length()) {
+			return end;
+		}
+		final char delimiter = descriptor.charAt(end);
+		if (delimiter != ';' && delimiter != '<' && delimiter != '.') {
+			// the name of a type parameter that starts with L, e.g., <LT:Ljava/lang/Object;>
+			return end;
+		}
+		final String name = outerType + descriptor.substring(start, end).replace('/', '.');
+		types.add(name);
+		if (delimiter == '<') {
+			genericTypes.push(name);
+		} else if (delimiter == '.') {
+			return readClassType(descriptor, end + 1, name + '$', types, genericTypes);
+		}
+		return end + 1;
+	}
+
+	private static int skipName(final String descriptor, final int start) {
+		int end = start;
+		while (end < descriptor.length() && NAME_DELIMITERS.indexOf(descriptor.charAt(end)) < 0) {
+			end++;
+		}
+		return end;
+	}
+}
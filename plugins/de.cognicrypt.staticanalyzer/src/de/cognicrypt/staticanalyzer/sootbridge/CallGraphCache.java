@@ -0,0 +1,391 @@
+/********************************************************************************
+ * Copyright (c) 2015-2019 TU Darmstadt, Paderborn University http://www.eclipse.org/legal/epl-2.0. SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package de.cognicrypt.staticanalyzer.sootbridge;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+import crypto.rules.CrySLRule;
+import soot.Body;
+import soot.EntryPoints;
+import soot.MethodOrMethodContext;
+import soot.PackManager;
+import soot.Scene;
+import soot.SootClass;
+import soot.SootMethod;
+import soot.Unit;
+import soot.jimple.Stmt;
+import soot.jimple.toolkits.callgraph.CallGraph;
+import soot.jimple.toolkits.callgraph.Edge;
+import soot.jimple.toolkits.callgraph.Kind;
+
+/**
+ * This class stores the call graph of an analysis run on disk and reuses it in the next run of the same project. Each class to analyse is identified by the hash of its
+ * class file. If no class changed, the cached call graph is reused as a whole. Otherwise, Soot constructs the call graph from scratch.
+ */
+class CallGraphCache implements Serializable {
+
+	private static final long serialVersionUID = 4215876009412331598L;
+
+	private static final String CLASS_FILE_ENDING = ".class";
+
+	/**
+	 * The kinds of call graph edges by name. Soot only exposes them as constants.
+	 */
+	private static final Map<String, Kind> KINDS = findKinds();
+
+	/**
+	 * hash of everything the call graph depends on apart from the classes to analyse, i.e., Soot options, libraries and the JDK
+	 */
+	private final String settings;
+
+	/**
+	 * names of the application classes, which are the entry points of the call graph
+	 */
+	private final TreeSet<String> applicationClasses;
+
+	/**
+	 * maps each class to analyse to the hash of its class file
+	 */
+	private final HashMap<String, String> classHashes;
+
+	/**
+	 * signatures of all reachable methods; edges refer to methods by their index in this list
+	 */
+	private final ArrayList<String> methods = new ArrayList<>();
+
+	/**
+	 * edges as quadruples of source method, index of the calling statement in the source method's body or -1, target method and kind
+	 */
+	private int[] edges = new int[0];
+
+	private final ArrayList<String> kinds = new ArrayList<>();
+
+	private CallGraphCache(final String settings, final Set<String> applicationClasses, final Map<String, String> classHashes) {
+		this.settings = settings;
+		this.applicationClasses = new TreeSet<>(applicationClasses);
+		this.classHashes = new HashMap<>(classHashes);
+	}
+
+	/**
+	 * Constructs the call graph of the current Soot scene, reusing the call graph cached in the file {@link AnalysisConfig#getCallGraphCacheFile()} if no class has changed,
+	 * and replaces the cached call graph afterwards. Without a cache file, Soot constructs the call graph as usual.
+	 */
+	static void constructCallGraph(final AnalysisConfig config, final AnalysisMetrics metrics) {
+		if (config.getCallGraphCacheFile() == null) {
+			PackManager.v().getPack("cg").apply();
+			return;
+		}
+		final File cacheFile = new File(config.getCallGraphCacheFile());
+		final CallGraphCache current;
+		try {
+			current = capture(config);
+		}
+		catch (final IOException e) {
+			// the classes will fail to load as well, which is reported by Soot
+			PackManager.v().getPack("cg").apply();
+			return;
+		}
+
+		final CallGraphCache previous = read(cacheFile);
+		int reusedEdges = -1;
+		if (previous != null) {
+			try {
+				reusedEdges = current.restore(previous);
+			}
+			catch (final RuntimeException e) {
+				// the cached call graph does not fit the classes, e.g., because Soot has been updated, and is replaced after this run
+			}
+		}
+		if (reusedEdges < 0) {
+			PackManager.v().getPack("cg").apply();
+			metrics.recordCallGraphReuse(0, Scene.v().getCallGraph().size());
+			current.store(Scene.v().getCallGraph());
+			write(cacheFile, current);
+		} else {
+			// the cached call graph is still up to date
+			metrics.recordCallGraphReuse(reusedEdges, Scene.v().getCallGraph().size());
+		}
+	}
+
+	/**
+	 * Describes the current Soot scene, whose classes have been loaded, without its call graph.
+	 */
+	private static CallGraphCache capture(final AnalysisConfig config) throws IOException {
+		final Hasher settings = Hashing.sha256().newHasher();
+		putString(settings, System.getProperty("java.home"));
+		settings.putInt(config.getCallGraph());
+		for (final CrySLRule rule : config.getRules()) {
+			// the classes of the rules are excluded from loading their bodies
+			putString(settings, rule.getClassName());
+		}
+		final Set<String> processDirs = new HashSet<>(config.getProcessDirs());
+		final String[] classPath = config.getSootClassPath().split(File.pathSeparator);
+		Arrays.sort(classPath);
+		for (final String entry : classPath) {
+			if (processDirs.contains(entry)) {
+				continue;
+			}
+			putString(settings, entry);
+			final File file = new File(entry);
+			if (file.isDirectory()) {
+				// class folders of other projects are rebuilt all the time, so they are hashed by content
+				final Map<String, String> hashes = new HashMap<>();
+				hashDirectory(file.toPath(), hashes);
+				for (final String className : new TreeSet<>(hashes.keySet())) {
+					putString(settings, className);
+					putString(settings, hashes.get(className));
+				}
+			} else {
+				settings.putLong(file.length()).putLong(file.lastModified());
+			}
+		}
+
+		final Map<String, String> classHashes = new HashMap<>();
+		for (final String processDir : config.getProcessDirs()) {
+			final File file = new File(processDir);
+			if (file.isDirectory()) {
+				hashDirectory(file.toPath(), classHashes);
+			} else if (file.isFile()) {
+				hashArchive(file, classHashes);
+			}
+		}
+		final Set<String> applicationClasses = Scene.v().getApplicationClasses().stream().map(SootClass::getName).collect(Collectors.toSet());
+		return new CallGraphCache(settings.hash().toString(), applicationClasses, classHashes);
+	}
+
+	/**
+	 * Sets up the call graph of the current Soot scene from {@link previous}.
+	 *
+	 * @return the number of edges reused or -1 if {@link previous} cannot be reused
+	 */
+	private int restore(final CallGraphCache previous) {
+		if (!this.settings.equals(previous.settings) || !this.applicationClasses.equals(previous.applicationClasses) || !this.classHashes.equals(previous.classHashes)) {
+			return -1;
+		}
+
+		final CallGraph callGraph = new CallGraph();
+		final Map<SootMethod, List<Unit>> bodies = new HashMap<>();
+		final SootMethod[] methods = new SootMethod[previous.methods.size()];
+		for (int i = 0; i < methods.length; i++) {
+			methods[i] = Scene.v().grabMethod(previous.methods.get(i));
+			if (methods[i] == null) {
+				return -1;
+			}
+		}
+		int reusedEdges = 0;
+		for (int i = 0; i < previous.edges.length; i += 4) {
+			final SootMethod source = methods[previous.edges[i]];
+			final Kind kind = KINDS.get(previous.kinds.get(previous.edges[i + 3]));
+			Stmt stmt = null;
+			if (previous.edges[i + 1] >= 0) {
+				final List<Unit> units = bodies.computeIfAbsent(source, CallGraphCache::unitsOf);
+				if (previous.edges[i + 1] >= units.size()) {
+					return -1;
+				}
+				stmt = (Stmt) units.get(previous.edges[i + 1]);
+			}
+			if (kind == null || (kind.isExplicit() && (stmt == null || !stmt.containsInvokeExpr()))) {
+				return -1;
+			}
+			callGraph.addEdge(new Edge(source, stmt, methods[previous.edges[i + 2]], kind));
+			reusedEdges++;
+		}
+
+		final List<SootMethod> entryPoints = new ArrayList<>(EntryPoints.v().all());
+		entryPoints.addAll(EntryPoints.v().methodsOfApplicationClasses());
+		Scene.v().setEntryPoints(entryPoints);
+		Scene.v().setCallGraph(callGraph);
+		// constructing the call graph retrieves the bodies of all reachable methods, which the later phases rely on
+		for (final Iterator<MethodOrMethodContext> reachable = Scene.v().getReachableMethods().listener(); reachable.hasNext();) {
+			retrieveBody(reachable.next().method());
+		}
+		return reusedEdges;
+	}
+
+	/**
+	 * Replaces the call graph of this cache by {@link callGraph}.
+	 */
+	private void store(final CallGraph callGraph) {
+		final Map<SootMethod, Integer> methodIndices = new HashMap<>();
+		final Map<String, Integer> kindIndices = new HashMap<>();
+		final Map<SootMethod, Map<Unit, Integer>> unitIndices = new HashMap<>();
+		for (final Iterator<MethodOrMethodContext> reachable = Scene.v().getReachableMethods().listener(); reachable.hasNext();) {
+			indexOf(reachable.next().method(), methodIndices);
+		}
+		final List<Integer> edgeList = new ArrayList<>();
+		for (final Edge edge : callGraph) {
+			if (edge.src() == null || edge.tgt() == null) {
+				continue;
+			}
+			int unitIndex = -1;
+			if (edge.srcUnit() != null) {
+				final Integer index = unitIndices.computeIfAbsent(edge.src(), CallGraphCache::unitIndicesOf).get(edge.srcUnit());
+				if (index == null) {
+					continue;
+				}
+				unitIndex = index;
+			}
+			edgeList.add(indexOf(edge.src(), methodIndices));
+			edgeList.add(unitIndex);
+			edgeList.add(indexOf(edge.tgt(), methodIndices));
+			edgeList.add(kindIndices.computeIfAbsent(edge.kind().toString(), kind -> {
+				this.kinds.add(kind);
+				return this.kinds.size() - 1;
+			}));
+		}
+		this.edges = edgeList.stream().mapToInt(Integer::intValue).toArray();
+	}
+
+	private int indexOf(final SootMethod method, final Map<SootMethod, Integer> methodIndices) {
+		return methodIndices.computeIfAbsent(method, m -> {
+			this.methods.add(m.getSignature());
+			return this.methods.size() - 1;
+		});
+	}
+
+	private static Body retrieveBody(final SootMethod method) {
+		if (method.hasActiveBody()) {
+			return method.getActiveBody();
+		}
+		if (!method.isConcrete() || method.getDeclaringClass().isPhantom()) {
+			return null;
+		}
+		try {
+			return method.retrieveActiveBody();
+		}
+		catch (final RuntimeException e) {
+			// classes excluded from the analysis have no bodies
+			return null;
+		}
+	}
+
+	private static List<Unit> unitsOf(final SootMethod method) {
+		final Body body = retrieveBody(method);
+		return body == null ? Collections.emptyList() : new ArrayList<>(body.getUnits());
+	}
+
+	private static Map<Unit, Integer> unitIndicesOf(final SootMethod method) {
+		final Map<Unit, Integer> indices = new HashMap<>();
+		final List<Unit> units = unitsOf(method);
+		for (int i = 0; i < units.size(); i++) {
+			indices.put(units.get(i), i);
+		}
+		return indices;
+	}
+
+	private static void hashDirectory(final Path directory, final Map<String, String> classHashes) throws IOException {
+		final List<Path> classFiles;
+		try (Stream<Path> walk = Files.walk(directory)) {
+			classFiles = walk.filter(path -> path.toString().endsWith(CLASS_FILE_ENDING)).collect(Collectors.toList());
+		}
+		for (final Path classFile : classFiles) {
+			classHashes.put(toClassName(directory.relativize(classFile).toString().replace(File.separatorChar, '/')),
+					Hashing.sha256().hashBytes(Files.readAllBytes(classFile)).toString());
+		}
+	}
+
+	private static void hashArchive(final File archive, final Map<String, String> classHashes) throws IOException {
+		try (ZipFile zipFile = new ZipFile(archive)) {
+			for (final Enumeration<? extends ZipEntry> entries = zipFile.entries(); entries.hasMoreElements();) {
+				final ZipEntry entry = entries.nextElement();
+				if (!entry.isDirectory() && entry.getName().endsWith(CLASS_FILE_ENDING)) {
+					try (InputStream in = zipFile.getInputStream(entry)) {
+						classHashes.put(toClassName(entry.getName()), Hashing.sha256().hashBytes(ByteStreams.toByteArray(in)).toString());
+					}
+				}
+			}
+		}
+	}
+
+	private static String toClassName(final String classFilePath) {
+		return classFilePath.substring(0, classFilePath.length() - CLASS_FILE_ENDING.length()).replace('/', '.');
+	}
+
+	private static void putString(final Hasher hasher, final String value) {
+		hasher.putString(value, StandardCharsets.UTF_8).putByte((byte) 0);
+	}
+
+	private static Map<String, Kind> findKinds() {
+		final Map<String, Kind> kinds = new HashMap<>();
+		for (final Field field : Kind.class.getFields()) {
+			if (Modifier.isStatic(field.getModifiers()) && field.getType() == Kind.class) {
+				try {
+					final Kind kind = (Kind) field.get(null);
+					kinds.put(kind.toString(), kind);
+				}
+				catch (final IllegalAccessException e) {
+					// public constants are always accessible
+				}
+			}
+		}
+		return kinds;
+	}
+
+	private static CallGraphCache read(final File cacheFile) {
+		if (!cacheFile.exists()) {
+			return null;
+		}
+		try (ObjectInputStream in = new ObjectInputStream(new GZIPInputStream(new BufferedInputStream(new FileInputStream(cacheFile))))) {
+			return (CallGraphCache) in.readObject();
+		}
+		catch (IOException | ClassNotFoundException | ClassCastException e) {
+			// the file was written by an incompatible version of the plug-in or is corrupt and is replaced after this run
+			cacheFile.delete();
+			return null;
+		}
+	}
+
+	/**
+	 * Replaces {@link cacheFile}. The file is written next to the current one first, so that a crash does not leave a partially written cache behind.
+	 */
+	private static void write(final File cacheFile, final CallGraphCache cache) {
+		cacheFile.getParentFile().mkdirs();
+		final File tempFile = new File(cacheFile.getParentFile(), cacheFile.getName() + ".tmp");
+		try {
+			try (ObjectOutputStream out = new ObjectOutputStream(new GZIPOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile))))) {
+				out.writeObject(cache);
+			}
+			Files.move(tempFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+		catch (final IOException e) {
+			// the call graph is constructed from scratch in the next run
+			tempFile.delete();
+		}
+	}
+}
@@ -0,0 +1,76 @@
+/********************************************************************************
+ * Copyright (c) 2015-2019 TU Darmstadt, Paderborn University http://www.eclipse.org/legal/epl-2.0. SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package de.cognicrypt.staticanalyzer.sootbridge;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import soot.jimple.toolkits.callgraph.CallGraph;
+import soot.jimple.toolkits.callgraph.Edge;
+
+/**
+ * This class reduces a call graph to the calls between the top-level classes of a project. It is all {@link ClassDependencies} needs from a call graph.
+ */
+public class CallGraphSummary implements Serializable {
+
+	private static final long serialVersionUID = 6172907958871524004L;
+
+	private final ArrayList<String> projectClasses;
+	private final HashSet<String> topLevelClasses = new HashSet<>();
+	private final HashMap<String, Set<String>> callers = new HashMap<>();
+
+	/**
+	 * @param callGraph call graph of an analysis run
+	 * @param projectClasses names of all application classes of the project
+	 */
+	public CallGraphSummary(final CallGraph callGraph, final Collection<String> projectClasses) {
+		this(projectClasses);
+		for (final Edge edge : callGraph) {
+			if (edge.src() != null && edge.tgt() != null) {
+				addCall(edge.src().getDeclaringClass().getName(), edge.tgt().getDeclaringClass().getName());
+			}
+		}
+	}
+
+	/**
+	 * Creates a summary without calls, which are added by {@link #addCall(String, String)}.
+	 *
+	 * @param projectClasses names of all application classes of the project
+	 */
+	public CallGraphSummary(final Collection<String> projectClasses) {
+		this.projectClasses = new ArrayList<>(projectClasses);
+		for (final String projectClass : projectClasses) {
+			this.topLevelClasses.add(ClassDependencies.getTopLevelName(projectClass));
+		}
+	}
+
+	/**
+	 * Records a call from a method of {@link callerClass} to a method of {@link calleeClass}. Calls within a top-level class and calls from or into classes outside the
+	 * project are ignored.
+	 */
+	public void addCall(final String callerClass, final String calleeClass) {
+		final String caller = ClassDependencies.getTopLevelName(callerClass);
+		final String callee = ClassDependencies.getTopLevelName(calleeClass);
+		if (!caller.equals(callee) && this.topLevelClasses.contains(caller) && this.topLevelClasses.contains(callee)) {
+			this.callers.computeIfAbsent(callee, c -> new HashSet<>()).add(caller);
+		}
+	}
+
+	public List<String> getProjectClasses() {
+		return this.projectClasses;
+	}
+
+	/**
+	 * @return maps a top-level class to all top-level classes that call into it
+	 */
+	public Map<String, Set<String>> getCallers() {
+		return this.callers;
+	}
+}
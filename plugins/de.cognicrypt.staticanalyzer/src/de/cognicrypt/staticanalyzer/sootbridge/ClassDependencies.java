@@ -0,0 +1,144 @@
+/********************************************************************************
+ * Copyright (c) 2015-2019 TU Darmstadt, Paderborn University http://www.eclipse.org/legal/epl-2.0. SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package de.cognicrypt.staticanalyzer.sootbridge;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.eclipse.core.resources.IProject;
+
+/**
+ * This class keeps the class-level call dependencies of a project between two analysis runs. All classes are tracked by the name of their top-level class, i.e., at
+ * compilation unit granularity. The dependencies are used to determine which classes have to be analysed again after a set of compilation units has changed.
+ * <p>
+ * Restricting a run to these classes only saves the call graph construction and the data-flow analysis of the remaining classes. Each run still resets Soot and loads all
+ * classes of the project, so the cost of an incremental run is not proportional to the size of the change.
+ */
+public class ClassDependencies {
+
+	private static final Map<IProject, ClassDependencies> projectDependencies = new ConcurrentHashMap<>();
+
+	/**
+	 * maps a class to all classes that call into it
+	 */
+	private final Map<String, Set<String>> callers = new HashMap<>();
+	private boolean initialized = false;
+
+	public static ClassDependencies forProject(final IProject project) {
+		return projectDependencies.computeIfAbsent(project, p -> new ClassDependencies());
+	}
+
+	public static void invalidate(final IProject project) {
+		projectDependencies.remove(project);
+	}
+
+	/**
+	 * Returns the name of the top-level class that declares the class {@link className}.
+	 */
+	public static String getTopLevelName(final String className) {
+		final int nestedIndex = className.indexOf('$');
+		return nestedIndex < 0 ? className : className.substring(0, nestedIndex);
+	}
+
+	/**
+	 * @return <code>true</code> if a full analysis of the project has been recorded
+	 */
+	public synchronized boolean isInitialized() {
+		return this.initialized;
+	}
+
+	/**
+	 * Computes the classes that have to be analysed again if the classes {@link changedClasses} have changed. These are the changed classes themselves, all classes that
+	 * (transitively) call into them and the classes the changed classes call into, directly or via at most {@link calleeDepth} - 1 other classes. The callees are needed,
+	 * since a seed created in a changed class may now report an error within a callee, or no longer report the error found there in the previous run. Following the callees
+	 * of the callers as well would include nearly the whole project, so errors that a changed class causes further down the call chain only show up in the next full run.
+	 *
+	 * @param changedClasses names of the top-level classes declared in the changed compilation units
+	 * @param calleeDepth maximum length of the call chains from the changed classes to follow
+	 * @return names of the affected top-level classes
+	 */
+	public synchronized Set<String> getAffectedClasses(final Collection<String> changedClasses, final int calleeDepth) {
+		final Set<String> affected = new HashSet<>();
+		final Queue<String> worklist = new LinkedList<>();
+		for (final String changedClass : changedClasses) {
+			final String topLevelName = getTopLevelName(changedClass);
+			if (affected.add(topLevelName)) {
+				worklist.add(topLevelName);
+			}
+		}
+		while (!worklist.isEmpty()) {
+			final Set<String> classCallers = this.callers.get(worklist.poll());
+			if (classCallers != null) {
+				for (final String caller : classCallers) {
+					if (affected.add(caller)) {
+						worklist.add(caller);
+					}
+				}
+			}
+		}
+		affected.addAll(getCallees(changedClasses, calleeDepth));
+		return affected;
+	}
+
+	/**
+	 * Computes the classes {@link classes} call into, directly or via at most {@link depth} - 1 other classes.
+	 *
+	 * @param classes names of the classes to start from
+	 * @param depth maximum length of the call chains to follow, 0 to return only {@link classes} themselves
+	 * @return names of the top-level classes {@link classes} and their callees
+	 */
+	public synchronized Set<String> getCallees(final Collection<String> classes, final int depth) {
+		final Set<String> callees = new HashSet<>();
+		Set<String> frontier = new HashSet<>();
+		for (final String startClass : classes) {
+			final String topLevelName = getTopLevelName(startClass);
+			if (callees.add(topLevelName)) {
+				frontier.add(topLevelName);
+			}
+		}
+		for (int level = 0; level < depth && !frontier.isEmpty(); level++) {
+			final Set<String> nextFrontier = new HashSet<>();
+			for (final Entry<String, Set<String>> classCallers : this.callers.entrySet()) {
+				if (!callees.contains(classCallers.getKey()) && !Collections.disjoint(classCallers.getValue(), frontier)) {
+					nextFrontier.add(classCallers.getKey());
+				}
+			}
+			callees.addAll(nextFrontier);
+			frontier = nextFrontier;
+		}
+		return callees;
+	}
+
+	/**
+	 * Records the dependencies found in the call graph of an analysis run.
+	 *
+	 * @param callGraph summary of the call graph of the run
+	 * @param reanalysedClasses top-level classes that were analysed in an incremental run or <code>null</code> if the whole project was analysed
+	 */
+	public synchronized void update(final CallGraphSummary callGraph, final Set<String> reanalysedClasses) {
+		if (reanalysedClasses == null) {
+			this.callers.clear();
+		} else {
+			for (final Set<String> classCallers : this.callers.values()) {
+				classCallers.removeAll(reanalysedClasses);
+			}
+		}
+		for (final Entry<String, Set<String>> calls : callGraph.getCallers().entrySet()) {
+			for (final String caller : calls.getValue()) {
+				if (reanalysedClasses == null || reanalysedClasses.contains(caller)) {
+					this.callers.computeIfAbsent(calls.getKey(), c -> new HashSet<>()).add(caller);
+				}
+			}
+		}
+		this.initialized = true;
+	}
+}
@@ -0,0 +1,212 @@
+/********************************************************************************
+ * Copyright (c) 2015-2019 TU Darmstadt, Paderborn University http://www.eclipse.org/legal/epl-2.0. SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package de.cognicrypt.staticanalyzer.sootbridge;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.IClasspathContainer;
+import org.eclipse.jdt.core.IClasspathEntry;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+import de.cognicrypt.staticanalyzer.Activator;
+
+/**
+ * This class resolves the libraries on the class path of a project, including those of the projects it requires. Each project is walked once per resolution, classpath
+ * containers are resolved concurrently, and entries that denote the same file are reported once. The result is kept until the class path of any project in the workspace
+ * changes.
+ */
+public class ClassPathResolver implements IElementChangedListener {
+
+	private static final int CLASSPATH_CHANGES = IJavaElementDelta.F_CLASSPATH_CHANGED | IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED | IJavaElementDelta.F_OPENED
+			| IJavaElementDelta.F_CLOSED;
+
+	private static ClassPathResolver instance;
+
+	private final Map<IJavaProject, List<String>> resolvedClassPaths = new ConcurrentHashMap<>();
+
+	private ClassPathResolver() {}
+
+	public static synchronized ClassPathResolver getInstance() {
+		if (instance == null) {
+			instance = new ClassPathResolver();
+			JavaCore.addElementChangedListener(instance, ElementChangedEvent.POST_CHANGE);
+		}
+		return instance;
+	}
+
+	/**
+	 * Stops listening to class path changes and forgets all resolved class paths.
+	 */
+	public static synchronized void shutdown() {
+		if (instance != null) {
+			JavaCore.removeElementChangedListener(instance);
+			instance = null;
+		}
+	}
+
+	/**
+	 * Returns the absolute paths of the libraries and class folders on the class path of {@link project}, in class path order. The output folders of the project and of the
+	 * projects it requires are included.
+	 *
+	 * @return unmodifiable list of paths
+	 */
+	public List<String> resolve(final IJavaProject project) {
+		return this.resolvedClassPaths.computeIfAbsent(project, this::resolveUncached);
+	}
+
+	@Override
+	public void elementChanged(final ElementChangedEvent event) {
+		// a project's class path includes the class paths of the projects it requires, so any change may affect all resolved class paths
+		if (affectsClassPath(event.getDelta())) {
+			this.resolvedClassPaths.clear();
+		}
+	}
+
+	static boolean affectsClassPath(final IJavaElementDelta delta) {
+		if (delta.getElement().getElementType() == IJavaElement.JAVA_PROJECT) {
+			return delta.getKind() != IJavaElementDelta.CHANGED || (delta.getFlags() & CLASSPATH_CHANGES) != 0;
+		}
+		for (final IJavaElementDelta child : delta.getAffectedChildren()) {
+			if (affectsClassPath(child)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private List<String> resolveUncached(final IJavaProject project) {
+		final List<String> parts = new ArrayList<>();
+		walkProject(project, new HashSet<>(), parts);
+
+		// entries are deduplicated by their canonical path, but reported by the path found first
+		final Map<String, String> classPath = new LinkedHashMap<>();
+		for (final String path : parts) {
+			classPath.putIfAbsent(canonicalPath(path), path);
+		}
+		return Collections.unmodifiableList(new ArrayList<>(classPath.values()));
+	}
+
+	/**
+	 * Collects the entries on the raw class path of {@link project} into {@link parts}. The containers are resolved concurrently before their entries are collected in turn.
+	 */
+	private void walkProject(final IJavaProject project, final Set<IJavaProject> visited, final List<String> parts) {
+		if (!visited.add(project)) {
+			return;
+		}
+		final IClasspathEntry[] rawEntries;
+		try {
+			rawEntries = project.getRawClasspath();
+		}
+		catch (final JavaModelException e) {
+			Activator.getDefault().logError(e, "Could not read the class path of " + project.getElementName() + ".");
+			return;
+		}
+
+		final List<CompletableFuture<IClasspathEntry[]>> containers = new ArrayList<>();
+		for (final IClasspathEntry entry : rawEntries) {
+			if (entry.getEntryKind() == IClasspathEntry.CPE_CONTAINER) {
+				containers.add(CompletableFuture.supplyAsync(() -> resolveContainer(entry, project)));
+			}
+		}
+
+		int containerIndex = 0;
+		for (final IClasspathEntry entry : rawEntries) {
+			if (entry.getEntryKind() == IClasspathEntry.CPE_CONTAINER) {
+				try {
+					for (final IClasspathEntry subEntry : containers.get(containerIndex++).join()) {
+						walkEntry(subEntry, project, visited, parts);
+					}
+				}
+				catch (final CompletionException e) {
+					Activator.getDefault().logError(e.getCause(), "Could not resolve " + entry.getPath() + " of " + project.getElementName() + ".");
+				}
+			} else {
+				walkEntry(entry, project, visited, parts);
+			}
+		}
+	}
+
+	private static IClasspathEntry[] resolveContainer(final IClasspathEntry entry, final IJavaProject project) {
+		try {
+			final IClasspathContainer container = JavaCore.getClasspathContainer(entry.getPath(), project);
+			return container == null ? new IClasspathEntry[0] : container.getClasspathEntries();
+		}
+		catch (final JavaModelException e) {
+			throw new CompletionException(e);
+		}
+	}
+
+	private void walkEntry(final IClasspathEntry rawEntry, final IJavaProject project, final Set<IJavaProject> visited, final List<String> parts) {
+		final IClasspathEntry entry = rawEntry.getEntryKind() == IClasspathEntry.CPE_VARIABLE ? JavaCore.getResolvedClasspathEntry(rawEntry) : rawEntry;
+		if (entry == null) {
+			return;
+		}
+		switch (entry.getEntryKind()) {
+			case IClasspathEntry.CPE_SOURCE:
+				parts.addAll(SootRunner.applicationClassPath(project));
+				break;
+			case IClasspathEntry.CPE_PROJECT:
+				final IResource requiredProject = ResourcesPlugin.getWorkspace().getRoot().findMember(entry.getPath());
+				if (requiredProject != null && requiredProject.getType() == IResource.PROJECT) {
+					walkProject(JavaCore.create(requiredProject.getProject()), visited, parts);
+				}
+				break;
+			case IClasspathEntry.CPE_LIBRARY:
+				parts.add(libraryLocation(entry.getPath()));
+				break;
+			case IClasspathEntry.CPE_CONTAINER:
+				// containers nested in containers are rare and resolved on this thread
+				try {
+					for (final IClasspathEntry subEntry : resolveContainer(entry, project)) {
+						walkEntry(subEntry, project, visited, parts);
+					}
+				}
+				catch (final CompletionException e) {
+					Activator.getDefault().logError(e.getCause(), "Could not resolve " + entry.getPath() + " of " + project.getElementName() + ".");
+				}
+				break;
+			default:
+				break;
+		}
+	}
+
+	/**
+	 * Libraries inside the workspace are referred to by their workspace path, all others by their file system path.
+	 */
+	private static String libraryLocation(final IPath path) {
+		final IResource resource = ResourcesPlugin.getWorkspace().getRoot().findMember(path);
+		if (resource != null && resource.getLocation() != null) {
+			return resource.getLocation().toOSString();
+		}
+		return path.toOSString();
+	}
+
+	private static String canonicalPath(final String path) {
+		try {
+			return new File(path).getCanonicalPath();
+		}
+		catch (final IOException e) {
+			return new File(path).getAbsolutePath();
+		}
+	}
+}
@@ -0,0 +1,92 @@
+/********************************************************************************
+ * Copyright (c) 2015-2019 TU Darmstadt, Paderborn University http://www.eclipse.org/legal/epl-2.0. SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package de.cognicrypt.staticanalyzer.sootbridge;
+
+import java.util.HashSet;
+import java.util.Set;
+import boomerang.BackwardQuery;
+import boomerang.Query;
+import boomerang.results.ForwardBoomerangResults;
+import crypto.analysis.AnalysisSeedWithSpecification;
+import crypto.analysis.IAnalysisSeed;
+import typestate.TransitionFunction;
+
+/**
+ * This listener stops an analysis once its deadline has passed. It throws a {@link DeadlineExceededException} when the next seed or Boomerang query is started, so the
+ * findings of the seeds that have been analysed before are kept. It records the classes whose seeds have all been analysed until then.
+ */
+class DeadlineListener extends AnalysisListenerAdapter {
+
+	/**
+	 * Thrown from within the data-flow analysis once the deadline has passed.
+	 */
+	static class DeadlineExceededException extends RuntimeException {
+
+		private static final long serialVersionUID = 5306181722851466432L;
+	}
+
+	private final long deadline;
+	private final Set<IAnalysisSeed> runningSeeds = new HashSet<>();
+	private final Set<String> finishedClasses = new HashSet<>();
+
+	/**
+	 * @param timeout time in milliseconds from now after which the analysis is stopped
+	 */
+	DeadlineListener(final long timeout) {
+		this.deadline = System.nanoTime() + timeout * 1000000;
+	}
+
+	private void checkDeadline() {
+		if (System.nanoTime() - this.deadline > 0) {
+			throw new DeadlineExceededException();
+		}
+	}
+
+	/**
+	 * @return the top-level classes that contain seeds whose analysis has finished and no seeds whose analysis has been interrupted by the deadline
+	 */
+	synchronized Set<String> getAnalysedClasses() {
+		final Set<String> analysedClasses = new HashSet<>(this.finishedClasses);
+		for (final IAnalysisSeed seed : this.runningSeeds) {
+			analysedClasses.remove(getTopLevelClass(seed));
+		}
+		return analysedClasses;
+	}
+
+	private static String getTopLevelClass(final IAnalysisSeed seed) {
+		return ClassDependencies.getTopLevelName(seed.getMethod().getDeclaringClass().getName());
+	}
+
+	private synchronized void seedFinished(final IAnalysisSeed seed) {
+		this.runningSeeds.remove(seed);
+		this.finishedClasses.add(getTopLevelClass(seed));
+	}
+
+	@Override
+	public void seedStarted(final IAnalysisSeed seed) {
+		checkDeadline();
+		synchronized (this) {
+			this.runningSeeds.add(seed);
+		}
+	}
+
+	@Override
+	public void onSeedFinished(final IAnalysisSeed seed, final ForwardBoomerangResults<TransitionFunction> results) {
+		// the constraints of a seed with a rule are checked, and its misuses reported, after its data flow has been computed
+		if (!(seed instanceof AnalysisSeedWithSpecification)) {
+			seedFinished(seed);
+		}
+	}
+
+	@Override
+	public void afterConstraintCheck(final AnalysisSeedWithSpecification analysisSeedWithSpecification) {
+		seedFinished(analysisSeedWithSpecification);
+	}
+
+	@Override
+	public void boomerangQueryStarted(final Query seed, final BackwardQuery q) {
+		checkDeadline();
+	}
+}
@@ -0,0 +1,79 @@
+/********************************************************************************
+ * Copyright (c) 2015-2019 TU Darmstadt, Paderborn University http://www.eclipse.org/legal/epl-2.0. SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package de.cognicrypt.staticanalyzer.sootbridge;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaCore;
+
+/**
+ * This class remembers the crypto provider the provider detection has found in each project, so that the detection runs only once per project. A project can only use
+ * a provider whose library is on its class path, so the detected providers are forgotten whenever the class path of any project in the workspace changes.
+ */
+public class DetectedProviders implements IElementChangedListener {
+
+	/**
+	 * stands for a detection that has not found any provider, as the map cannot hold <code>null</code>
+	 */
+	private static final String NO_PROVIDER = "";
+
+	private static DetectedProviders instance;
+
+	private final Map<IJavaProject, String> providers = new ConcurrentHashMap<>();
+
+	private DetectedProviders() {}
+
+	public static synchronized DetectedProviders getInstance() {
+		if (instance == null) {
+			instance = new DetectedProviders();
+			JavaCore.addElementChangedListener(instance, ElementChangedEvent.POST_CHANGE);
+		}
+		return instance;
+	}
+
+	/**
+	 * Stops listening to class path changes and forgets all detected providers.
+	 */
+	public static synchronized void shutdown() {
+		if (instance != null) {
+			JavaCore.removeElementChangedListener(instance);
+			instance = null;
+		}
+	}
+
+	/**
+	 * @return <code>true</code> if the provider detection has run on {@link project} since its class path last changed
+	 */
+	public boolean isKnown(final IJavaProject project) {
+		return this.providers.containsKey(project);
+	}
+
+	/**
+	 * @return the name of the provider detected in {@link project} or <code>null</code> if none has been detected or the detection has not run yet
+	 */
+	public String get(final IJavaProject project) {
+		final String provider = this.providers.get(project);
+		return NO_PROVIDER.equals(provider) ? null : provider;
+	}
+
+	/**
+	 * Records the result of the provider detection on {@link project}.
+	 *
+	 * @param provider name of the detected provider or <code>null</code> if none has been detected
+	 */
+	void put(final IJavaProject project, final String provider) {
+		this.providers.put(project, provider == null ? NO_PROVIDER : provider);
+	}
+
+	@Override
+	public void elementChanged(final ElementChangedEvent event) {
+		if (ClassPathResolver.affectsClassPath(event.getDelta())) {
+			this.providers.clear();
+		}
+	}
+}
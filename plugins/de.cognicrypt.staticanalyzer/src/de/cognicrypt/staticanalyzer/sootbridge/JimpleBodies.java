@@ -0,0 +1,101 @@
+/********************************************************************************
+ * Copyright (c) 2015-2019 TU Darmstadt, Paderborn University http://www.eclipse.org/legal/epl-2.0. SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package de.cognicrypt.staticanalyzer.sootbridge;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.jdt.core.IJavaProject;
+import de.cognicrypt.staticanalyzer.Activator;
+import soot.G;
+import soot.Scene;
+import soot.SootClass;
+import soot.SootMethod;
+import soot.options.Options;
+
+/**
+ * This class renders the Jimple body of a method on demand. Markers only refer to the method containing a finding by its Soot signature, and its body is only rendered
+ * when it is actually needed, e.g., for an issue report. Rendered bodies are cached until the next analysis of the project.
+ */
+public class JimpleBodies {
+
+	private static final long LOCK_TIMEOUT = 5;
+
+	private static final Map<IProject, Map<String, String>> cache = new ConcurrentHashMap<>();
+
+	private JimpleBodies() {}
+
+	/**
+	 * Returns the Jimple body of the method with signature {@link methodSignature}.
+	 *
+	 * @param project project declaring the method
+	 * @param methodSignature Soot signature of the method, e.g., <code>&lt;a.B: void m(int)&gt;</code>
+	 * @return the body or <code>null</code> if it cannot be rendered
+	 */
+	public static String get(final IJavaProject project, final String methodSignature) {
+		if (methodSignature == null || methodSignature.isEmpty()) {
+			return null;
+		}
+		final Map<String, String> bodies = cache.computeIfAbsent(project.getProject(), p -> new ConcurrentHashMap<>());
+		String body = bodies.get(methodSignature);
+		if (body == null) {
+			body = render(project, methodSignature);
+			if (body != null) {
+				bodies.put(methodSignature, body);
+			}
+		}
+		return body;
+	}
+
+	/**
+	 * Discards the cached bodies of {@link project}, which may be outdated once the project is analysed again.
+	 */
+	static void invalidate(final IProject project) {
+		cache.remove(project);
+	}
+
+	private static String render(final IJavaProject project, final String methodSignature) {
+		final int separator = methodSignature.indexOf(": ");
+		if (!methodSignature.startsWith("<") || !methodSignature.endsWith(">") || separator < 0) {
+			return null;
+		}
+		final String className = methodSignature.substring(1, separator);
+		final String subSignature = methodSignature.substring(separator + 2, methodSignature.length() - 1);
+		try {
+			// an analysis may hold the Soot lock for minutes, in which case the body is not worth the wait
+			if (!SootRunner.SOOT_LOCK.tryLock(LOCK_TIMEOUT, TimeUnit.SECONDS)) {
+				Activator.getDefault().logInfo("Jimple body of " + methodSignature + " not available while an analysis is running.");
+				return null;
+			}
+		}
+		catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		}
+		try {
+			G.reset();
+			Options.v().set_soot_classpath(SootRunner.getSootClasspath(project, false));
+			Options.v().set_prepend_classpath(true);
+			Options.v().set_allow_phantom_refs(true);
+			Options.v().set_keep_line_number(true);
+			Options.v().setPhaseOption("jb", "use-original-names:true");
+			Options.v().set_output_format(Options.output_format_none);
+			final SootClass sootClass = Scene.v().loadClassAndSupport(className);
+			Scene.v().loadNecessaryClasses();
+			sootClass.setApplicationClass();
+			final SootMethod method = sootClass.getMethodUnsafe(subSignature);
+			return method == null || !method.isConcrete() ? null : method.retrieveActiveBody().toString();
+		}
+		catch (final RuntimeException e) {
+			Activator.getDefault().logError(e, "Could not render Jimple body of " + methodSignature + ".");
+			return null;
+		}
+		finally {
+			G.reset();
+			SootRunner.SOOT_LOCK.unlock();
+		}
+	}
+}
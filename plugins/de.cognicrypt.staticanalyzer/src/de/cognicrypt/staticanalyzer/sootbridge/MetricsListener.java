@@ -0,0 +1,94 @@
+/********************************************************************************
+ * Copyright (c) 2015-2019 TU Darmstadt, Paderborn University http://www.eclipse.org/legal/epl-2.0. SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package de.cognicrypt.staticanalyzer.sootbridge;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import boomerang.BackwardQuery;
+import boomerang.Query;
+import boomerang.jimple.Statement;
+import boomerang.jimple.Val;
+import boomerang.results.ForwardBoomerangResults;
+import crypto.analysis.AnalysisSeedWithSpecification;
+import crypto.analysis.IAnalysisSeed;
+import de.cognicrypt.staticanalyzer.results.SeedSummary;
+import typestate.TransitionFunction;
+
+/**
+ * This listener counts the seeds and Boomerang queries of an analysis run for its {@link AnalysisMetrics}. It also measures the time from the start of each seed to the
+ * last event reported for it and adds it to the {@link SeedProfile} once the analysis has finished.
+ */
+class MetricsListener extends AnalysisListenerAdapter {
+
+	private final AnalysisMetrics metrics;
+
+	/**
+	 * maps a seed to the times in nanoseconds it has been started and it has last been reported
+	 */
+	private final Map<IAnalysisSeed, long[]> seedTimes = new HashMap<>();
+
+	MetricsListener(final AnalysisMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	private synchronized void seedReported(final IAnalysisSeed seed) {
+		final long[] times = this.seedTimes.get(seed);
+		if (times != null) {
+			times[1] = System.nanoTime();
+		}
+	}
+
+	@Override
+	public synchronized void afterAnalysis() {
+		final SeedProfile profile = this.metrics.getProfile();
+		for (final Entry<IAnalysisSeed, long[]> seedTime : this.seedTimes.entrySet()) {
+			final IAnalysisSeed seed = seedTime.getKey();
+			final long millis = (seedTime.getValue()[1] - seedTime.getValue()[0]) / 1000000;
+			final String rule = seed instanceof AnalysisSeedWithSpecification ? ((AnalysisSeedWithSpecification) seed).getSpec().getRule().getClassName() : null;
+			profile.recordSeed(profile.isAmongSlowest(millis) ? describe(seed) : null, rule, millis);
+		}
+		this.seedTimes.clear();
+	}
+
+	private static String describe(final IAnalysisSeed seed) {
+		final SeedSummary summary = SeedSummary.of(seed);
+		return summary.getTypeName() + " " + summary.getVariable() + " in " + summary.getClassName() + "." + summary.getMethodName() + "() at line " + summary.getLineNumber();
+	}
+
+	@Override
+	public void onSeedTimeout(final sync.pds.solver.nodes.Node<Statement, Val> seed) {
+		this.metrics.getProfile().recordTimeout(seed.stmt().getMethod().getDeclaringClass().getName());
+	}
+
+	@Override
+	public void onSeedFinished(final IAnalysisSeed seed, final ForwardBoomerangResults<TransitionFunction> results) {
+		seedReported(seed);
+	}
+
+	@Override
+	public void afterConstraintCheck(final AnalysisSeedWithSpecification analysisSeedWithSpecification) {
+		seedReported(analysisSeedWithSpecification);
+	}
+
+	@Override
+	public void seedStarted(final IAnalysisSeed seed) {
+		this.metrics.seedStarted();
+		final long now = System.nanoTime();
+		synchronized (this) {
+			this.seedTimes.putIfAbsent(seed, new long[] {now, now});
+		}
+	}
+
+	@Override
+	public void boomerangQueryStarted(final Query seed, final BackwardQuery q) {
+		this.metrics.queryStarted();
+	}
+
+	@Override
+	public void boomerangQueryFinished(final Query seed, final BackwardQuery q) {
+		this.metrics.queryFinished();
+	}
+}
@@ -0,0 +1,194 @@
+/********************************************************************************
+ * Copyright (c) 2015-2019 TU Darmstadt, Paderborn University http://www.eclipse.org/legal/epl-2.0. SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package de.cognicrypt.staticanalyzer.sootbridge;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jface.preference.IPreferenceStore;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import de.cognicrypt.core.Constants;
+import de.cognicrypt.staticanalyzer.Activator;
+
+/**
+ * This class computes a fingerprint of everything the results of a full analysis of a project depend on: the compiled classes of the project, its libraries, the CrySL
+ * rules, the analysis preferences and the version of the analysis itself. If the fingerprint has not changed, the stored results of the previous analysis are still valid.
+ * Likewise, the fingerprint of a library identifies its {@link de.cognicrypt.staticanalyzer.results.LibrarySummary}.
+ */
+public class ResultFingerprint {
+
+	private final String value;
+	private final Set<String> ruleVersions;
+
+	private ResultFingerprint(final String value, final Set<String> ruleVersions) {
+		this.value = value;
+		this.ruleVersions = ruleVersions;
+	}
+
+	public String getValue() {
+		return this.value;
+	}
+
+	/**
+	 * @return the versions of the rule sets the fingerprint covers
+	 */
+	public Set<String> getRuleVersions() {
+		return this.ruleVersions;
+	}
+
+	/**
+	 * @throws IOException if a class or rule file cannot be read
+	 */
+	public static ResultFingerprint compute(final IJavaProject project) throws IOException {
+		final Hasher hasher = Hashing.sha256().newHasher();
+		putSettings(hasher);
+
+		// the compiled classes of the project are hashed by content, as a build may rewrite them unchanged, libraries only by size and modification time
+		final Set<String> applicationClassPath = new HashSet<>(SootRunner.applicationClassPath(project));
+		final String[] classPath = SootRunner.getSootClasspath(project, false).split(File.pathSeparator);
+		Arrays.sort(classPath);
+		for (final String entry : classPath) {
+			putString(hasher, entry);
+			final File file = new File(entry);
+			if (applicationClassPath.contains(entry)) {
+				putDirectory(hasher, file.toPath());
+			} else {
+				hasher.putLong(file.length()).putLong(file.lastModified());
+			}
+		}
+
+		final Set<String> ruleVersions = putRules(hasher, project);
+		return new ResultFingerprint(hasher.hash().toString(), ruleVersions);
+	}
+
+	/**
+	 * Computes the fingerprint of the rules and preferences the dependencies of {@link project} are analysed with, which all its libraries share.
+	 *
+	 * @throws IOException if a rule file cannot be read
+	 */
+	public static String computeLibrarySettings(final IJavaProject project) throws IOException {
+		final Hasher hasher = Hashing.sha256().newHasher();
+		putSettings(hasher);
+		putRules(hasher, project);
+		return hasher.hash().toString();
+	}
+
+	/**
+	 * Computes the fingerprints of the libraries on the class path of a dependency analysis. The libraries are analysed together, so the results of one library may depend on
+	 * the classes of the others, e.g., through the callees a call into another library resolves to. The fingerprint of a library therefore covers its own content and the
+	 * content of all other class path entries, but not their locations, so that the summary of a library can be shared by all projects with the same dependencies and rules.
+	 *
+	 * @param librarySettings fingerprint computed by {@link #computeLibrarySettings(IJavaProject)}
+	 * @param classPath class path of the dependency analysis
+	 * @return maps each library file on {@link classPath} to its fingerprint, class folders are not included
+	 * @throws IOException if a class path entry cannot be read
+	 */
+	public static Map<String, String> computeLibraries(final String librarySettings, final Collection<String> classPath) throws IOException {
+		final Map<String, String> contentHashes = new LinkedHashMap<>();
+		final Hasher classPathHasher = Hashing.sha256().newHasher();
+		for (final String entry : classPath) {
+			final File file = new File(entry);
+			if (file.isFile()) {
+				// libraries may be large, so they are hashed as a stream instead of being read at once
+				final String contentHash = com.google.common.io.Files.asByteSource(file).hash(Hashing.sha256()).toString();
+				contentHashes.put(entry, contentHash);
+				putString(classPathHasher, contentHash);
+			} else {
+				// class folders, e.g., the output folders of other projects, are only identified by the size and modification time of their files
+				putDirectoryMetadata(classPathHasher, file.toPath());
+			}
+		}
+		final String classPathHash = classPathHasher.hash().toString();
+
+		final Map<String, String> fingerprints = new HashMap<>();
+		for (final Entry<String, String> library : contentHashes.entrySet()) {
+			final Hasher hasher = Hashing.sha256().newHasher();
+			putString(hasher, librarySettings);
+			putString(hasher, classPathHash);
+			putString(hasher, library.getValue());
+			fingerprints.put(library.getKey(), hasher.hash().toString());
+		}
+		return fingerprints;
+	}
+
+	private static void putSettings(final Hasher hasher) {
+		putString(hasher, Activator.getDefault().getBundle().getVersion().toString());
+		putString(hasher, Platform.getBundle(de.cognicrypt.core.Activator.PLUGIN_ID).getVersion().toString());
+
+		final IPreferenceStore preferences = Activator.getDefault().getPreferenceStore();
+		hasher.putInt(preferences.getInt(Constants.CALL_GRAPH_SELECTION));
+		hasher.putBoolean(preferences.getBoolean(Constants.ANALYSE_DEPENDENCIES));
+		hasher.putBoolean(preferences.getBoolean(Constants.SHOW_SECURE_OBJECTS));
+		hasher.putBoolean(preferences.getBoolean(Constants.PROVIDER_DETECTION_ANALYSIS));
+		hasher.putInt(preferences.getInt(Constants.SEED_TIMEOUT));
+		hasher.putBoolean(preferences.getBoolean(Constants.BYTECODE_PREFILTER));
+	}
+
+	/**
+	 * @return the versions of the rule sets
+	 */
+	private static Set<String> putRules(final Hasher hasher, final IJavaProject project) throws IOException {
+		final Set<String> ruleVersions = new TreeSet<>();
+		final List<SootRunner.RuleSource> ruleSources = SootRunner.collectRuleSources(project.getProject());
+		ruleSources.sort(Comparator.comparing(source -> source.file.getPath()));
+		for (final SootRunner.RuleSource source : ruleSources) {
+			putString(hasher, source.version);
+			hasher.putBytes(Files.readAllBytes(source.file.toPath()));
+			ruleVersions.add(source.version);
+		}
+		return ruleVersions;
+	}
+
+	private static void putDirectory(final Hasher hasher, final Path directory) throws IOException {
+		if (!Files.isDirectory(directory)) {
+			return;
+		}
+		final List<Path> files;
+		try (Stream<Path> walk = Files.walk(directory)) {
+			files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+		}
+		for (final Path file : files) {
+			putString(hasher, directory.relativize(file).toString());
+			hasher.putBytes(Files.readAllBytes(file));
+		}
+	}
+
+	private static void putDirectoryMetadata(final Hasher hasher, final Path directory) throws IOException {
+		List<Path> files = new ArrayList<>();
+		if (Files.isDirectory(directory)) {
+			try (Stream<Path> walk = Files.walk(directory)) {
+				files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+			}
+		}
+		hasher.putInt(files.size());
+		for (final Path file : files) {
+			putString(hasher, directory.relativize(file).toString());
+			hasher.putLong(Files.size(file)).putLong(Files.getLastModifiedTime(file).toMillis());
+		}
+	}
+
+	private static void putString(final Hasher hasher, final String value) {
+		hasher.putString(value, StandardCharsets.UTF_8).putByte((byte) 0);
+	}
+}
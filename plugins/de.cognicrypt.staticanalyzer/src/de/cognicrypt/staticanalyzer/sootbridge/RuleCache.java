@@ -0,0 +1,190 @@
+/********************************************************************************
+ * Copyright (c) 2015-2019 TU Darmstadt, Paderborn University http://www.eclipse.org/legal/epl-2.0. SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package de.cognicrypt.staticanalyzer.sootbridge;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.jdt.core.IJavaProject;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import crypto.rules.CrySLRule;
+import de.cognicrypt.crysl.reader.CrySLParser;
+import de.cognicrypt.staticanalyzer.Activator;
+
+/**
+ * This class caches parsed CrySL rules across analysis runs. A rule is addressed by the SHA-256 hash of its source file together with the version of the rule set it
+ * belongs to and the class path it has been parsed against. The parser resolves the types a rule refers to on the class path of the project, so a rule parsed in a project
+ * that lacks a library contains unresolved types and must not be served to projects that have it. Cached rules are kept in memory and serialized into the plug-in's state
+ * location, so that a rule file is only parsed again if its content, its rule set version or the class path changed. Cached files that have not been used for
+ * {@link #MAX_UNUSED_DAYS} days are removed.
+ */
+public class RuleCache {
+
+	private static final String CACHE_FOLDER = "rulecache";
+	private static final String CACHE_FILE_ENDING = ".ser";
+	private static final int MAX_UNUSED_DAYS = 30;
+
+	private static RuleCache instance;
+
+	private final File cacheFolder;
+	private final Map<String, CrySLRule> rules = new ConcurrentHashMap<>();
+	private boolean pruned = false;
+
+	/**
+	 * Counts the cache hits and misses of one load of a rule set. Each load has its own instance, so that concurrent loads do not mix up their counts.
+	 */
+	public static class Statistics {
+
+		private int hits;
+		private int misses;
+
+		public int getHits() {
+			return this.hits;
+		}
+
+		public int getMisses() {
+			return this.misses;
+		}
+	}
+
+	private RuleCache(final File cacheFolder) {
+		this.cacheFolder = cacheFolder;
+		this.cacheFolder.mkdirs();
+	}
+
+	public static synchronized RuleCache getInstance() {
+		if (instance == null) {
+			instance = new RuleCache(Activator.getDefault().getStateLocation().append(CACHE_FOLDER).toFile());
+		}
+		return instance;
+	}
+
+	/**
+	 * Returns the rule stored in {@link ruleFile}. The rule is taken from the cache if possible and parsed otherwise.
+	 *
+	 * @param ruleFile CrySL source file
+	 * @param rulesetVersion version of the rule set the file belongs to
+	 * @param classPath fingerprint of the class path {@link parser} resolves types against, computed by {@link #fingerprintClassPath(IJavaProject)}
+	 * @param parser creates the parser on a cache miss; it is not invoked when the rule is found in the cache
+	 * @param statistics counts the hit or miss
+	 * @return the rule or <code>null</code> if it could not be parsed
+	 */
+	public CrySLRule getRule(final File ruleFile, final String rulesetVersion, final String classPath, final Callable<CrySLParser> parser, final Statistics statistics) {
+		final String key;
+		try {
+			key = computeKey(ruleFile, rulesetVersion, classPath);
+		}
+		catch (final IOException e) {
+			Activator.getDefault().logError(e, "Could not read CrySL rule " + ruleFile.getName() + ".");
+			return null;
+		}
+
+		CrySLRule rule = this.rules.get(key);
+		if (rule == null) {
+			rule = readFromDisk(key);
+		}
+		if (rule != null) {
+			statistics.hits++;
+			this.rules.put(key, rule);
+			return rule;
+		}
+
+		statistics.misses++;
+		try {
+			rule = parser.call().readRule(ruleFile);
+		}
+		catch (final Exception e) {
+			Activator.getDefault().logError(e, "Could not parse CrySL rule " + ruleFile.getName() + ".");
+			return null;
+		}
+		if (rule != null) {
+			this.rules.put(key, rule);
+			writeToDisk(key, rule);
+		}
+		return rule;
+	}
+
+	/**
+	 * Removes the cached files that have not been used for {@link #MAX_UNUSED_DAYS} days, e.g., because the rule set or the class path of the project they were parsed for
+	 * changed. The cache folder is only pruned once per session.
+	 */
+	public synchronized void prune() {
+		if (this.pruned) {
+			return;
+		}
+		this.pruned = true;
+		final long oldestUse = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(MAX_UNUSED_DAYS);
+		final File[] cachedFiles = this.cacheFolder.listFiles();
+		if (cachedFiles != null) {
+			for (final File cachedFile : cachedFiles) {
+				if (cachedFile.getName().endsWith(CACHE_FILE_ENDING) && cachedFile.lastModified() < oldestUse) {
+					this.rules.remove(cachedFile.getName().substring(0, cachedFile.getName().length() - CACHE_FILE_ENDING.length()));
+					cachedFile.delete();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Computes the fingerprint of the libraries on the resolved class path of {@link project}. Libraries are identified by their path, size and modification time. Class
+	 * folders, in particular the output folders of the project and the projects it requires, are left out, as they are rebuilt all the time and do not provide the types
+	 * rules are specified for.
+	 */
+	public static String fingerprintClassPath(final IJavaProject project) {
+		final Hasher hasher = Hashing.sha256().newHasher();
+		for (final String entry : ClassPathResolver.getInstance().resolve(project)) {
+			final File file = new File(entry);
+			if (file.isDirectory()) {
+				continue;
+			}
+			hasher.putString(entry, StandardCharsets.UTF_8).putByte((byte) 0).putLong(file.length()).putLong(file.lastModified());
+		}
+		return hasher.hash().toString();
+	}
+
+	private static String computeKey(final File ruleFile, final String rulesetVersion, final String classPath) throws IOException {
+		return Hashing.sha256().newHasher().putString(rulesetVersion, StandardCharsets.UTF_8).putByte((byte) 0).putString(classPath, StandardCharsets.UTF_8).putByte((byte) 0)
+				.putBytes(Files.readAllBytes(ruleFile.toPath())).hash().toString();
+	}
+
+	private CrySLRule readFromDisk(final String key) {
+		final File cachedFile = new File(this.cacheFolder, key + CACHE_FILE_ENDING);
+		if (!cachedFile.exists()) {
+			return null;
+		}
+		try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(cachedFile))) {
+			final CrySLRule rule = (CrySLRule) in.readObject();
+			// the modification time marks the last use of the file for pruning
+			cachedFile.setLastModified(System.currentTimeMillis());
+			return rule;
+		}
+		catch (IOException | ClassNotFoundException | ClassCastException e) {
+			// The file was written by an incompatible version of CryptoAnalysis or is corrupt. It is replaced once the rule has been parsed again.
+			cachedFile.delete();
+			return null;
+		}
+	}
+
+	private void writeToDisk(final String key, final CrySLRule rule) {
+		final File cachedFile = new File(this.cacheFolder, key + CACHE_FILE_ENDING);
+		try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(cachedFile))) {
+			out.writeObject(rule);
+		}
+		catch (final IOException e) {
+			cachedFile.delete();
+			Activator.getDefault().logError(e, "Could not cache CrySL rule " + rule.getClassName() + ".");
+		}
+	}
+}
@@ -0,0 +1,147 @@
+/********************************************************************************
+ * Copyright (c) 2015-2019 TU Darmstadt, Paderborn University http://www.eclipse.org/legal/epl-2.0. SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package de.cognicrypt.staticanalyzer.sootbridge;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import crypto.rules.CrySLPredicate;
+import crypto.rules.CrySLRule;
+import soot.FastHierarchy;
+import soot.Local;
+import soot.MethodOrMethodContext;
+import soot.RefType;
+import soot.Scene;
+import soot.SootMethod;
+import soot.Type;
+import soot.Unit;
+import soot.ValueBox;
+import soot.jimple.InvokeExpr;
+import soot.jimple.NewExpr;
+import soot.jimple.Stmt;
+import soot.jimple.toolkits.callgraph.ReachableMethods;
+
+/**
+ * This class removes the rules that cannot apply to an analysis run before the data-flow analysis starts. A rule applies if the methods reachable in the call graph use its
+ * type or a subtype of it, or if it ensures a predicate that a rule that applies requires. The rules of all other types can neither create seeds nor contribute predicates.
+ */
+class RulePruner {
+
+	private RulePruner() {}
+
+	/**
+	 * Selects the rules that apply to the current Soot scene. The call graph must have been constructed.
+	 *
+	 * @param rules all rules of the analysis
+	 * @return the rules that apply, in the order of {@link rules}
+	 */
+	static List<CrySLRule> findApplicableRules(final List<CrySLRule> rules) {
+		final Set<RefType> usedTypes = collectUsedTypes();
+		final FastHierarchy hierarchy = Scene.v().getOrMakeFastHierarchy();
+
+		final Set<CrySLRule> applicable = new HashSet<>();
+		for (final CrySLRule rule : rules) {
+			if (isUsed(rule.getClassName(), usedTypes, hierarchy)) {
+				applicable.add(rule);
+			}
+		}
+		addEnsuringRules(rules, applicable);
+
+		final List<CrySLRule> applicableRules = new ArrayList<>();
+		for (final CrySLRule rule : rules) {
+			if (applicable.contains(rule)) {
+				applicableRules.add(rule);
+			}
+		}
+		return applicableRules;
+	}
+
+	/**
+	 * Adds the rules that ensure a predicate required by an applicable rule to {@link applicable}, transitively.
+	 *
+	 * @param rules all rules of the analysis
+	 * @param applicable the rules whose types are used, which is extended by the rules they depend on
+	 */
+	static void addEnsuringRules(final List<CrySLRule> rules, final Set<CrySLRule> applicable) {
+		final Map<String, Set<CrySLRule>> ensuringRules = new HashMap<>();
+		for (final CrySLRule rule : rules) {
+			for (final CrySLPredicate ensured : rule.getPredicates()) {
+				ensuringRules.computeIfAbsent(ensured.getPredName(), p -> new HashSet<>()).add(rule);
+			}
+		}
+		final Queue<CrySLRule> worklist = new LinkedList<>(applicable);
+		while (!worklist.isEmpty()) {
+			for (final CrySLPredicate required : worklist.poll().getRequiredPredicates()) {
+				for (final CrySLRule ensuringRule : ensuringRules.getOrDefault(required.getPredName(), new HashSet<>())) {
+					if (applicable.add(ensuringRule)) {
+						worklist.add(ensuringRule);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Collects the types of all locals, allocations and invoked methods in the bodies of the reachable methods.
+	 */
+	private static Set<RefType> collectUsedTypes() {
+		final Set<RefType> usedTypes = new HashSet<>();
+		final ReachableMethods reachableMethods = Scene.v().getReachableMethods();
+		for (final Iterator<MethodOrMethodContext> methods = reachableMethods.listener(); methods.hasNext();) {
+			final SootMethod method = methods.next().method();
+			if (!method.hasActiveBody()) {
+				continue;
+			}
+			for (final Local local : method.getActiveBody().getLocals()) {
+				addType(local.getType(), usedTypes);
+			}
+			for (final Unit unit : method.getActiveBody().getUnits()) {
+				final Stmt stmt = (Stmt) unit;
+				if (stmt.containsInvokeExpr()) {
+					final InvokeExpr invoke = stmt.getInvokeExpr();
+					usedTypes.add(invoke.getMethodRef().getDeclaringClass().getType());
+					addType(invoke.getMethodRef().getReturnType(), usedTypes);
+				}
+				for (final ValueBox valueBox : stmt.getUseBoxes()) {
+					if (valueBox.getValue() instanceof NewExpr) {
+						usedTypes.add(((NewExpr) valueBox.getValue()).getBaseType());
+					}
+				}
+			}
+		}
+		return usedTypes;
+	}
+
+	private static void addType(final Type type, final Set<RefType> usedTypes) {
+		if (type instanceof RefType) {
+			usedTypes.add((RefType) type);
+		}
+	}
+
+	private static boolean isUsed(final String className, final Set<RefType> usedTypes, final FastHierarchy hierarchy) {
+		if (!Scene.v().containsClass(className)) {
+			return false;
+		}
+		final RefType ruleType = Scene.v().getRefType(className);
+		for (final RefType usedType : usedTypes) {
+			try {
+				if (usedType.equals(ruleType) || hierarchy.canStoreType(usedType, ruleType)) {
+					return true;
+				}
+			}
+			catch (final RuntimeException e) {
+				// the hierarchy of phantom classes is incomplete, so the rule is kept to be safe
+				return true;
+			}
+		}
+		return false;
+	}
+}
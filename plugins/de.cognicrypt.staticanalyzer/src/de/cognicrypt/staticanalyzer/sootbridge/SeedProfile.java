@@ -0,0 +1,205 @@
+/********************************************************************************
+ * Copyright (c) 2015-2019 TU Darmstadt, Paderborn University http://www.eclipse.org/legal/epl-2.0. SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package de.cognicrypt.staticanalyzer.sootbridge;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.stream.Collectors;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+/**
+ * This class profiles the data-flow analysis of an analysis run. It records the time spent on each seed, the time spent on the seeds of each CrySL rule and the seeds
+ * that timed out, so that the rules and code regions that make an analysis slow can be found. Only the {@link #TOP_N} slowest seeds are kept.
+ */
+public class SeedProfile implements Serializable {
+
+	private static final long serialVersionUID = -1528839561076447296L;
+
+	public static final int TOP_N = 10;
+
+	/**
+	 * The time spent on one seed.
+	 */
+	public static class SeedCost implements Serializable {
+
+		private static final long serialVersionUID = 7913306527284702871L;
+
+		private final String description;
+		private final String rule;
+		private final long millis;
+
+		SeedCost(final String description, final String rule, final long millis) {
+			this.description = description;
+			this.rule = rule;
+			this.millis = millis;
+		}
+
+		public String getDescription() {
+			return this.description;
+		}
+
+		/**
+		 * @return the class name of the rule the seed has been created for or <code>null</code> if the seed has been created for an ensured predicate
+		 */
+		public String getRule() {
+			return this.rule;
+		}
+
+		public long getMillis() {
+			return this.millis;
+		}
+	}
+
+	/**
+	 * The time spent on all seeds of one rule.
+	 */
+	public static class RuleCost implements Serializable {
+
+		private static final long serialVersionUID = 2958391707165484393L;
+
+		private final String rule;
+		private int seeds;
+		private long millis;
+
+		private RuleCost(final String rule) {
+			this.rule = rule;
+		}
+
+		public String getRule() {
+			return this.rule;
+		}
+
+		public int getSeeds() {
+			return this.seeds;
+		}
+
+		public long getMillis() {
+			return this.millis;
+		}
+	}
+
+	private static final Comparator<SeedCost> BY_SEED_MILLIS = Comparator.comparingLong(SeedCost::getMillis);
+
+	private final PriorityQueue<SeedCost> slowestSeeds = new PriorityQueue<>(TOP_N + 1, BY_SEED_MILLIS);
+	private final HashMap<String, RuleCost> rules = new HashMap<>();
+	private final HashMap<String, Integer> timeoutsPerClass = new HashMap<>();
+	private int timeouts;
+
+	/**
+	 * @return <code>true</code> if a seed that took {@link millis} would be among the slowest seeds, i.e., if it is worth describing it
+	 */
+	synchronized boolean isAmongSlowest(final long millis) {
+		return this.slowestSeeds.size() < TOP_N || this.slowestSeeds.peek().getMillis() < millis;
+	}
+
+	/**
+	 * Records the time spent on a seed of rule {@link rule}.
+	 *
+	 * @param description description of the seed or <code>null</code> if it is not among the slowest seeds
+	 */
+	synchronized void recordSeed(final String description, final String rule, final long millis) {
+		if (rule != null) {
+			final RuleCost ruleCost = this.rules.computeIfAbsent(rule, RuleCost::new);
+			ruleCost.seeds++;
+			ruleCost.millis += millis;
+		}
+		if (description != null) {
+			addSlowSeed(new SeedCost(description, rule, millis));
+		}
+	}
+
+	synchronized void recordTimeout(final String className) {
+		this.timeouts++;
+		this.timeoutsPerClass.merge(className, 1, Integer::sum);
+	}
+
+	private void addSlowSeed(final SeedCost seed) {
+		this.slowestSeeds.add(seed);
+		if (this.slowestSeeds.size() > TOP_N) {
+			this.slowestSeeds.poll();
+		}
+	}
+
+	/**
+	 * Adds the seeds, rules and timeouts recorded by {@link other} to this profile.
+	 */
+	public void merge(final SeedProfile other) {
+		final List<SeedCost> otherSeeds;
+		final List<RuleCost> otherRules;
+		final Map<String, Integer> otherTimeouts;
+		synchronized (other) {
+			otherSeeds = new ArrayList<>(other.slowestSeeds);
+			otherRules = new ArrayList<>(other.rules.values());
+			otherTimeouts = new HashMap<>(other.timeoutsPerClass);
+		}
+		synchronized (this) {
+			otherSeeds.forEach(this::addSlowSeed);
+			for (final RuleCost otherRule : otherRules) {
+				final RuleCost ruleCost = this.rules.computeIfAbsent(otherRule.rule, RuleCost::new);
+				ruleCost.seeds += otherRule.seeds;
+				ruleCost.millis += otherRule.millis;
+			}
+			otherTimeouts.forEach((className, count) -> {
+				this.timeouts += count;
+				this.timeoutsPerClass.merge(className, count, Integer::sum);
+			});
+		}
+	}
+
+	/**
+	 * @return the {@link #TOP_N} slowest seeds, slowest first
+	 */
+	public synchronized List<SeedCost> getSlowestSeeds() {
+		return this.slowestSeeds.stream().sorted(BY_SEED_MILLIS.reversed()).collect(Collectors.toList());
+	}
+
+	/**
+	 * @return the {@link #TOP_N} rules whose seeds took the longest in total, slowest first
+	 */
+	public synchronized List<RuleCost> getSlowestRules() {
+		return this.rules.values().stream().sorted(Comparator.comparingLong(RuleCost::getMillis).reversed()).limit(TOP_N).collect(Collectors.toList());
+	}
+
+	/**
+	 * @return the number of seeds that timed out per class declaring them
+	 */
+	public synchronized Map<String, Integer> getTimeoutsPerClass() {
+		return new HashMap<>(this.timeoutsPerClass);
+	}
+
+	public synchronized int getTimeouts() {
+		return this.timeouts;
+	}
+
+	JsonObject toJson() {
+		final JsonArray seedArray = new JsonArray();
+		for (final SeedCost seed : getSlowestSeeds()) {
+			final JsonObject seedObject = new JsonObject();
+			seedObject.addProperty("seed", seed.description);
+			seedObject.addProperty("rule", seed.rule);
+			seedObject.addProperty("millis", seed.millis);
+			seedArray.add(seedObject);
+		}
+		final JsonArray ruleArray = new JsonArray();
+		for (final RuleCost rule : getSlowestRules()) {
+			final JsonObject ruleObject = new JsonObject();
+			ruleObject.addProperty("rule", rule.rule);
+			ruleObject.addProperty("seeds", rule.seeds);
+			ruleObject.addProperty("millis", rule.millis);
+			ruleArray.add(ruleObject);
+		}
+		final JsonObject json = new JsonObject();
+		json.add("slowestSeeds", seedArray);
+		json.add("slowestRules", ruleArray);
+		json.addProperty("seedTimeouts", getTimeouts());
+		return json;
+	}
+}
@@ -0,0 +1,304 @@
+/********************************************************************************
+ * Copyright (c) 2015-2019 TU Darmstadt, Paderborn University http://www.eclipse.org/legal/epl-2.0. SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package de.cognicrypt.staticanalyzer.sootbridge;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import com.google.common.collect.Lists;
+import boomerang.callgraph.ObservableDynamicICFG;
+import boomerang.callgraph.ObservableICFG;
+import boomerang.preanalysis.BoomerangPretransformer;
+import crypto.analysis.CrySLAnalysisListener;
+import crypto.analysis.CryptoScanner;
+import crypto.providerdetection.ProviderDetection;
+import crypto.rules.CrySLRule;
+import soot.EntryPoints;
+import soot.G;
+import soot.PackManager;
+import soot.Scene;
+import soot.SceneTransformer;
+import soot.SootClass;
+import soot.SootMethod;
+import soot.Transform;
+import soot.Unit;
+import soot.jimple.toolkits.callgraph.CallGraph;
+import soot.options.Options;
+
+/**
+ * This class runs Soot and CryptoAnalysis for an {@link AnalysisConfig}. It depends neither on the workspace nor on the preference store and is therefore used both within
+ * the IDE and by the analysis process.
+ */
+public class SootAnalysis {
+
+	/**
+	 * Hooks into the phases of an analysis run.
+	 */
+	public interface Callback {
+
+		/**
+		 * Called between two phases of the analysis. Implementations throw an unchecked exception to stop the analysis.
+		 */
+		void checkCancelled();
+
+		/**
+		 * Called once the call graph has been constructed, before the data-flow analysis starts.
+		 *
+		 * @param callGraph summary of the call graph or <code>null</code> if the call graph is computed on demand during the data-flow analysis
+		 */
+		void callGraphConstructed(CallGraphSummary callGraph);
+
+		/**
+		 * Called once the data-flow analysis has analysed all seeds if the call graph has been computed on demand. It is not called if the analysis has been stopped at its
+		 * deadline, as the calls resolved until then only cover part of the project.
+		 *
+		 * @param callGraph summary of the calls the data-flow analysis has resolved
+		 */
+		void callGraphResolved(CallGraphSummary callGraph);
+
+		/**
+		 * Called once the provider detection has run, which it only does if {@link AnalysisConfig#isProviderDetection()} is set.
+		 *
+		 * @param provider name of the detected provider or <code>null</code> if none has been detected
+		 */
+		void providerDetected(String provider);
+
+		/**
+		 * Called when the data-flow analysis has been stopped at its deadline, before the listener is notified that the analysis has finished.
+		 *
+		 * @param analysedClasses top-level classes whose seeds have all been analysed before the deadline
+		 */
+		void deadlineExceeded(Set<String> analysedClasses);
+
+		/**
+		 * Called once the analysis has finished with the cost of its phases.
+		 */
+		void metricsCollected(AnalysisMetrics metrics);
+	}
+
+	private SootAnalysis() {}
+
+	/**
+	 * Analyses the classes described by {@link config} and reports all findings to {@link listener}.
+	 */
+	public static void run(final AnalysisConfig config, final CrySLAnalysisListener listener, final Callback callback) {
+		G.reset();
+		final AnalysisMetrics metrics = new AnalysisMetrics();
+		// the deadline covers the whole run, but only the data-flow analysis can be stopped early
+		final DeadlineListener deadline = config.getDeadline() > 0 ? new DeadlineListener(config.getDeadline()) : null;
+		final Set<String> applicationClasses = restrictToRelevantClasses(config, metrics);
+		metrics.measure(AnalysisMetrics.CLASS_LOADING_PHASE, () -> {
+			setSootOptions(config);
+			Scene.v().loadNecessaryClasses();
+		});
+		final List<String> projectClasses = Scene.v().getApplicationClasses().stream().map(SootClass::getName).collect(Collectors.toList());
+		PackManager.v().getPack("wjtp").add(new Transform("wjtp.ifds", createAnalysisTransformer(config, listener, callback, metrics, deadline, projectClasses)));
+
+		if (applicationClasses != null) {
+			restrictApplicationClasses(applicationClasses);
+		}
+		callback.checkCancelled();
+		if (config.getCallGraph() == AnalysisConfig.ON_DEMAND_CALL_GRAPH) {
+			metrics.measure(AnalysisMetrics.CALL_GRAPH_PHASE, SootAnalysis::prepareOnDemandCallGraph);
+			callback.checkCancelled();
+			callback.callGraphConstructed(null);
+		} else {
+			metrics.measure(AnalysisMetrics.CALL_GRAPH_PHASE, () -> CallGraphCache.constructCallGraph(config, metrics));
+			callback.checkCancelled();
+			callback.callGraphConstructed(new CallGraphSummary(Scene.v().getCallGraph(), projectClasses));
+		}
+		PackManager.v().getPack("wjtp").apply();
+		callback.metricsCollected(metrics);
+	}
+
+	/**
+	 * @param projectClasses names of all application classes of the project, which the summary of an on-demand call graph is restricted to
+	 */
+	private static SceneTransformer createAnalysisTransformer(final AnalysisConfig config, final CrySLAnalysisListener listener, final Callback callback,
+			final AnalysisMetrics metrics, final DeadlineListener deadline, final List<String> projectClasses) {
+		return new SceneTransformer() {
+
+			@Override
+			protected void internalTransform(final String phaseName, final Map<String, String> options) {
+				metrics.measure(AnalysisMetrics.PRETRANSFORMER_PHASE, () -> BoomerangPretransformer.v().apply());
+				final ObservableDynamicICFG icfg = new ObservableDynamicICFG(true);
+				CryptoScanner scanner = new CryptoScanner() {
+
+					@Override
+					public ObservableICFG<Unit, SootMethod> icfg() {
+						return icfg;
+					}
+
+					@Override
+					public int getTimeout() {
+						return config.getSeedTimeout() > 0 ? config.getSeedTimeout() : super.getTimeout();
+					}
+
+				};
+				scanner.getAnalysisListener().addReportListener(listener);
+				scanner.getAnalysisListener().addReportListener(new MetricsListener(metrics));
+				if (deadline != null) {
+					scanner.getAnalysisListener().addReportListener(deadline);
+				}
+				final List<CrySLRule> rules = Lists.newArrayList(config.getRules());
+				if (config.isProviderDetection()) {
+					metrics.measure(AnalysisMetrics.PROVIDER_DETECTION_PHASE, () -> {
+						ProviderDetection providerDetection = new ProviderDetection();
+						String detectedProvider = providerDetection.doAnalysis(icfg, config.getRulesDirectory());
+						callback.providerDetected(detectedProvider);
+						if (detectedProvider != null && config.getProviderRuleDirectories().containsKey(detectedProvider)) {
+							rules.clear();
+							rules.addAll(providerDetection.chooseRules(config.getProviderRuleDirectories().get(detectedProvider)));
+						}
+					});
+				}
+				final int ruleCount = rules.size();
+				metrics.measure(AnalysisMetrics.RULE_PRUNING_PHASE, () -> {
+					final List<CrySLRule> applicableRules = RulePruner.findApplicableRules(rules);
+					rules.clear();
+					rules.addAll(applicableRules);
+				});
+				metrics.recordRulePruning(ruleCount, rules.size());
+				try {
+					metrics.measure(AnalysisMetrics.DATA_FLOW_PHASE, () -> scanner.scan(rules));
+					if (config.getCallGraph() == AnalysisConfig.ON_DEMAND_CALL_GRAPH) {
+						// the results of a class only depend on the calls the data flow of its seeds has passed, which are exactly the resolved calls
+						callback.callGraphResolved(new CallGraphSummary(icfg.getCallGraphCopy(), projectClasses));
+					}
+				}
+				catch (final DeadlineListener.DeadlineExceededException e) {
+					metrics.setDeadlineExceeded(true);
+					// the findings of the seeds analysed so far have been reported, the listener keeps the previous results of all other classes
+					callback.deadlineExceeded(deadline.getAnalysedClasses());
+					scanner.getAnalysisListener().afterAnalysis();
+				}
+			}
+		};
+	}
+
+	/**
+	 * Sets up an empty call graph whose entry points are the methods of the application classes. The {@link ObservableDynamicICFG} of the data-flow analysis resolves the
+	 * callees of a call site when the analysis reaches it, so that only the part of the program the seeds actually flow through is explored.
+	 */
+	private static void prepareOnDemandCallGraph() {
+		final List<SootMethod> entryPoints = EntryPoints.v().methodsOfApplicationClasses();
+		Scene.v().setEntryPoints(entryPoints);
+		Scene.v().setCallGraph(new CallGraph());
+		// seeds are only searched in methods with a body, which the call graph construction would have retrieved otherwise
+		for (final SootMethod entryPoint : entryPoints) {
+			if (entryPoint.isConcrete() && !entryPoint.hasActiveBody()) {
+				entryPoint.retrieveActiveBody();
+			}
+		}
+	}
+
+	/**
+	 * Runs the {@link BytecodePrefilter} if it is enabled and narrows the classes to analyse down to those it finds relevant. The pre-filter does not run with provider
+	 * detection, as the rules of a detected provider are not known in advance.
+	 *
+	 * @return top-level classes to keep as application classes or <code>null</code> to keep all
+	 */
+	private static Set<String> restrictToRelevantClasses(final AnalysisConfig config, final AnalysisMetrics metrics) {
+		if (!config.isBytecodePrefilter() || config.isProviderDetection()) {
+			return config.getAffectedClasses();
+		}
+		final Set<String> ruleTypes = config.getRules().stream().map(CrySLRule::getClassName).collect(Collectors.toSet());
+		final Set<String> relevantClasses = new HashSet<>();
+		final int[] classCount = new int[1];
+		metrics.measure(AnalysisMetrics.PREFILTER_PHASE, () -> {
+			try {
+				final BytecodePrefilter prefilter = new BytecodePrefilter(config.getProcessDirs());
+				classCount[0] = prefilter.getClassCount();
+				relevantClasses.addAll(prefilter.getRelevantClasses(ruleTypes));
+			}
+			catch (final IOException e) {
+				// without the pre-filter, all classes are analysed
+				classCount[0] = -1;
+			}
+		});
+		if (classCount[0] < 0) {
+			return config.getAffectedClasses();
+		}
+		if (config.getAffectedClasses() != null) {
+			relevantClasses.retainAll(config.getAffectedClasses());
+		}
+		metrics.recordPrefilter(classCount[0], relevantClasses.size());
+		return relevantClasses;
+	}
+
+	/**
+	 * Turns all application classes that are not affected by a change into library classes. Their bodies remain available to the data-flow analysis, but neither serve as
+	 * entry points for the call graph nor as origin of seeds.
+	 *
+	 * @param affectedClasses top-level classes to keep as application classes, i.e., the classes affected by a change or found relevant by the {@link BytecodePrefilter}
+	 */
+	private static void restrictApplicationClasses(final Set<String> affectedClasses) {
+		for (final SootClass applicationClass : Lists.newArrayList(Scene.v().getApplicationClasses())) {
+			if (!affectedClasses.contains(ClassDependencies.getTopLevelName(applicationClass.getName()))) {
+				applicationClass.setLibraryClass();
+			}
+		}
+	}
+
+	private static void setSootOptions(final AnalysisConfig config) {
+		Options.v().set_soot_classpath(config.getSootClassPath());
+		Options.v().set_process_dir(Lists.newArrayList(config.getProcessDirs()));
+		Options.v().set_keep_line_number(true);
+		Options.v().set_prepend_classpath(true);
+		Options.v().set_allow_phantom_refs(true);
+		Options.v().set_whole_program(true);
+		Options.v().set_no_bodies_for_excluded(true);
+		Options.v().set_include(getIncludeList());
+		Options.v().set_exclude(getExcludeList(config.getRules()));
+		Scene.v().loadNecessaryClasses();
+		// choose call graph based on what user selected on preference page
+		switch (config.getCallGraph()) {
+			case 1:
+				Options.v().setPhaseOption("cg.spark", "on");
+				Options.v().setPhaseOption("cg", "all-reachable:true,library:any-subtype");
+				break;
+			case 2:
+				Options.v().setPhaseOption("cg.spark", "on");
+				Options.v().setPhaseOption("cg", "all-reachable:true");
+				break;
+			case AnalysisConfig.ON_DEMAND_CALL_GRAPH:
+				// the cg pack does not run at all
+				break;
+			case 0:
+			default:
+				Options.v().setPhaseOption("cg.cha", "on");
+				Options.v().setPhaseOption("cg", "all-reachable:true");
+		}
+		Options.v().setPhaseOption("jb", "use-original-names:true");
+		Options.v().set_output_format(Options.output_format_none);
+	}
+
+	private static List<String> getIncludeList() {
+		final List<String> includeList = new LinkedList<String>();
+		includeList.add("java.lang.AbstractStringBuilder");
+		includeList.add("java.lang.Boolean");
+		includeList.add("java.lang.Byte");
+		includeList.add("java.lang.Class");
+		includeList.add("java.lang.Integer");
+		includeList.add("java.lang.Long");
+		includeList.add("java.lang.Object");
+		includeList.add("java.lang.String");
+		includeList.add("java.lang.StringCoding");
+		includeList.add("java.lang.StringIndexOutOfBoundsException");
+		return includeList;
+	}
+
+	private static List<String> getExcludeList(final List<CrySLRule> rules) {
+		final List<String> excludeList = new LinkedList<String>();
+		for (final CrySLRule r : rules) {
+			excludeList.add(r.getClassName());
+		}
+		return excludeList;
+	}
+}
@@ -8,51 +8,52 @@ import java.io.File;
 import java.io.IOException;
 import java.net.URI;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.LinkedList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IWorkspace;
 import org.eclipse.core.resources.ResourcesPlugin;
-import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.preferences.InstanceScope;
-import org.eclipse.jdt.core.IClasspathContainer;
-import org.eclipse.jdt.core.IClasspathEntry;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.JavaCore;
-import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jface.preference.IPreferenceStore;
 import org.osgi.service.prefs.BackingStoreException;
 import org.osgi.service.prefs.Preferences;
 import com.google.common.base.Joiner;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
-import boomerang.callgraph.ObservableDynamicICFG;
-import boomerang.callgraph.ObservableICFG;
-import boomerang.preanalysis.BoomerangPretransformer;
 import crypto.analysis.CrySLRulesetSelector.RuleFormat;
-import crypto.analysis.CryptoScanner;
-import crypto.providerdetection.ProviderDetection;
 import crypto.rules.CrySLRule;
 import de.cognicrypt.core.Constants;
 import de.cognicrypt.crysl.reader.CrySLParser;
 import de.cognicrypt.staticanalyzer.Activator;
+import de.cognicrypt.staticanalyzer.results.LibrarySummary;
+import de.cognicrypt.staticanalyzer.results.ResultStore;
 import de.cognicrypt.staticanalyzer.results.ResultsCCUIListener;
+import de.cognicrypt.staticanalyzer.results.StoredResults;
 import de.cognicrypt.staticanalyzer.utilities.Ruleset;
+import de.cognicrypt.staticanalyzer.view.AnalysisData;
+import de.cognicrypt.staticanalyzer.view.StatisticsView;
+import de.cognicrypt.staticanalyzer.view.Stats;
+import de.cognicrypt.staticanalyzer.worker.WorkerProcess;
 import de.cognicrypt.utils.CrySLUtils;
 import de.cognicrypt.utils.Utils;
-import soot.G;
-import soot.PackManager;
-import soot.Scene;
-import soot.SceneTransformer;
-import soot.SootMethod;
-import soot.Transform;
-import soot.Unit;
-import soot.options.Options;
 
 /**
  * This runner triggers Soot.
@@ -64,61 +65,120 @@ public class SootRunner {
 
 	final Boolean depValue = false;
 
-	private static SceneTransformer createAnalysisTransformer(final ResultsCCUIListener resultsReporter) {
-		return new SceneTransformer() {
+	private static final String PROJECT_RULES_VERSION = "project";
+	private static final String CUSTOM_RULES_VERSION = "custom";
+	private static final String CLASS_FILE_ENDING = ".class";
 
-			@Override
-			protected void internalTransform(final String phaseName, final Map<String, String> options) {
-				BoomerangPretransformer.v().apply();
-				final ObservableDynamicICFG icfg = new ObservableDynamicICFG(true);
-				CryptoScanner scanner = new CryptoScanner() {
-
-					@Override
-					public ObservableICFG<Unit, SootMethod> icfg() {
-						return icfg;
-					}
+	/**
+	 * Soot, Boomerang and CryptoAnalysis keep global state, so only one analysis may use them inside this JVM at a time.
+	 */
+	static final ReentrantLock SOOT_LOCK = new ReentrantLock();
 
-				};
-				scanner.getAnalysisListener().addReportListener(resultsReporter);
-				List<CrySLRule> rules = getRules(resultsReporter.getReporterProject());
-				if (Activator.getDefault().getPreferenceStore().getBoolean(Constants.PROVIDER_DETECTION_ANALYSIS)) {
-					ProviderDetection providerDetection = new ProviderDetection();
-					String detectedProvider = providerDetection.doAnalysis(icfg, Constants.ECLIPSE_RULES_DIR);
-					if (detectedProvider != null) {
-						rules.clear();
-						rules.addAll(providerDetection.chooseRules(Constants.ECLIPSE_RULES_DIR + Constants.innerFileSeparator + detectedProvider + Constants.innerFileSeparator
-								+ CrySLUtils.getRuleVersions(detectedProvider)[CrySLUtils.getRuleVersions(detectedProvider).length - 1] + Constants.innerFileSeparator + detectedProvider));
-					}
-				}
-				scanner.scan(rules);
+	/**
+	 * A CrySL source file together with the version of the rule set it belongs to.
+	 */
+	static class RuleSource {
+
+		final File file;
+		final String version;
+
+		RuleSource(final File file, final String version) {
+			this.file = file;
+			this.version = version;
+		}
+	}
+
+	static List<CrySLRule> loadRules(IProject project) {
+
+		List<CrySLRule> rules = Lists.newArrayList();
+		RuleCache ruleCache = RuleCache.getInstance();
+		ruleCache.prune();
+		final RuleCache.Statistics cacheStatistics = new RuleCache.Statistics();
+		final Callable<CrySLParser> parserProvider = createParserProvider(project);
+		final String classPath = RuleCache.fingerprintClassPath(JavaCore.create(project));
+
+		for (RuleSource source : collectRuleSources(project)) {
+			CrySLRule rule = ruleCache.getRule(source.file, source.version, classPath, parserProvider, cacheStatistics);
+			if (rule != null) {
+				rules.add(rule);
+			}
+		}
+		if (rules.isEmpty()) {
+			Activator.getDefault().logInfo("No CrySL rules loaded");
+		} else {
+			Activator.getDefault().logInfo("Loaded " + rules.size() + " CrySL rules (" + cacheStatistics.getHits() + " cache hits, " + cacheStatistics.getMisses() + " cache misses).");
+		}
+
+		return rules;
+	}
+
+	/**
+	 * Loads the rules of a provider found by the provider detection. Like all other rules, they are taken from the {@link RuleCache} if possible.
+	 *
+	 * @param providerRuleDirectory directory containing the CrySL source files of the provider
+	 * @param rulesetVersion version of the provider's rule set
+	 */
+	static List<CrySLRule> loadProviderRules(final IProject project, final String providerRuleDirectory, final String rulesetVersion) {
+		final List<Path> ruleFiles;
+		try (Stream<Path> files = Files.find(Paths.get(providerRuleDirectory), Integer.MAX_VALUE,
+				(file, attr) -> file.toString().endsWith(RuleFormat.SOURCE.toString()))) {
+			ruleFiles = files.collect(Collectors.toList());
+		}
+		catch (final IOException e) {
+			Activator.getDefault().logError(e, "Could not load the CrySL rules of " + rulesetVersion + ".");
+			return Lists.newArrayList();
+		}
+		final List<CrySLRule> rules = Lists.newArrayList();
+		final Callable<CrySLParser> parserProvider = createParserProvider(project);
+		final String classPath = RuleCache.fingerprintClassPath(JavaCore.create(project));
+		final RuleCache.Statistics cacheStatistics = new RuleCache.Statistics();
+		for (final Path ruleFile : ruleFiles) {
+			final CrySLRule rule = RuleCache.getInstance().getRule(ruleFile.toFile(), rulesetVersion, classPath, parserProvider, cacheStatistics);
+			if (rule != null) {
+				rules.add(rule);
 			}
+		}
+		return rules;
+	}
+
+	/**
+	 * The parser sets up its own Xtext resource set and is therefore only created if at least one rule is not cached.
+	 */
+	private static Callable<CrySLParser> createParserProvider(final IProject project) {
+		final CrySLParser[] parser = new CrySLParser[1];
+		return () -> {
+			if (parser[0] == null) {
+				parser[0] = new CrySLParser(project);
+			}
+			return parser[0];
 		};
 	}
 
-	private static List<CrySLRule> getRules(IProject project) {
+	/**
+	 * Collects the CrySL source files the analysis of {@link project} uses without parsing them.
+	 */
+	static List<RuleSource> collectRuleSources(IProject project) {
 
-		List<CrySLRule> rules = Lists.newArrayList();
+		List<RuleSource> sources = Lists.newArrayList();
 		Set<String> readRules = Sets.newHashSet();
 
 		try {
-			CrySLParser r = new CrySLParser(project);
 			for (String path : projectClassPath(JavaCore.create(project))) {
-				List<CrySLRule> readRuleFromBinaryFiles = r.readRulesOutside(path);
-				rules.addAll(readRuleFromBinaryFiles);
+				collectRulesOutside(path, sources);
 			}
 
 			for (String path : applicationClassPath(JavaCore.create(project))) {
-				List<CrySLRule> readRuleFromBinaryFiles = r.readRulesOutside(path);
-				rules.addAll(readRuleFromBinaryFiles);
+				collectRulesOutside(path, sources);
 			}
 
 			if (Activator.getDefault().getPreferenceStore().getBoolean(Constants.SELECT_CUSTOM_RULES)) {
-				Activator.getDefault().logInfo("Loading custom rules.");
-				rules.addAll(Files.find(Paths.get(Utils.getResourceFromWithin(Constants.RELATIVE_CUSTOM_RULES_DIR).getPath()), Integer.MAX_VALUE,
-						(file, attr) -> file.toString().endsWith(RuleFormat.SOURCE.toString())).map(path -> {
-							readRules.add(path.getFileName().toString());
-							return r.readRule(path.toFile());
-						}).collect(Collectors.toList()));
+				try (Stream<Path> files = Files.find(Paths.get(Utils.getResourceFromWithin(Constants.RELATIVE_CUSTOM_RULES_DIR).getPath()), Integer.MAX_VALUE,
+						(file, attr) -> file.toString().endsWith(RuleFormat.SOURCE.toString()))) {
+					files.forEach(path -> {
+						readRules.add(path.getFileName().toString());
+						sources.add(new RuleSource(path.toFile(), CUSTOM_RULES_VERSION));
+					});
+				}
 			}
 
 			Preferences prefs = InstanceScope.INSTANCE.getNode(de.cognicrypt.core.Activator.PLUGIN_ID);
@@ -127,13 +187,14 @@ public class SootRunner {
 				for (String currentNode : listOfNodes) {
 					Ruleset loadedRuleset = new Ruleset(prefs.node(currentNode));
 					if (loadedRuleset.isChecked()) {
-						rules.addAll(Files.find(
+						final String rulesetVersion = loadedRuleset.getFolderName() + "-" + loadedRuleset.getSelectedVersion();
+						try (Stream<Path> files = Files.find(
 								Paths.get(new File(Constants.ECLIPSE_RULES_DIR + File.separator + loadedRuleset.getFolderName() + File.separator + loadedRuleset.getSelectedVersion()).getPath()),
 								Integer.MAX_VALUE, (file, attr) -> {
 									return file.toString().endsWith(RuleFormat.SOURCE.toString()) && !readRules.contains(file.getFileName().toString());
-								}).map(path -> {
-									return r.readRule(path.toFile());
-								}).collect(Collectors.toList()));
+								})) {
+							files.forEach(path -> sources.add(new RuleSource(path.toFile(), rulesetVersion)));
+						}
 					}
 				}
 			}
@@ -142,14 +203,22 @@ public class SootRunner {
 			}
 
 		}
-		catch (IOException | CoreException e) {
+		catch (IOException e) {
 			Activator.getDefault().logError(e, "Could not load CrySL Rules");
 		}
-		if (rules.isEmpty()) {
-			Activator.getDefault().logInfo("No CrySL rules loaded");
-		}
+		return sources;
+	}
 
-		return rules;
+	private static void collectRulesOutside(final String resourcesPath, final List<RuleSource> sources) {
+		final File[] files = new File(resourcesPath).listFiles();
+		if (files == null) {
+			return;
+		}
+		for (final File file : files) {
+			if (!file.isDirectory() && file.canRead() && file.getName().endsWith(Constants.cryslFileEnding)) {
+				sources.add(new RuleSource(file, PROJECT_RULES_VERSION));
+			}
+		}
 	}
 
 	private static List<String> projectClassPath(final IJavaProject javaProject) {
@@ -166,94 +235,283 @@ public class SootRunner {
 	}
 
 	public static boolean runSoot(final IJavaProject project, final ResultsCCUIListener resultsReporter, final Boolean dependencyAnalyser) {
+		return runSoot(project, resultsReporter, dependencyAnalyser, null);
+	}
 
-		G.reset();
-		setSootOptions(project, dependencyAnalyser);
-		registerTransformers(resultsReporter);
+	/**
+	 * Runs the analysis on {@link project}. Depending on the preferences, the analysis runs within the IDE or in a separate analysis process.
+	 *
+	 * @param affectedClasses top-level classes to analyse again after a change or <code>null</code> to analyse the whole project
+	 * @return <code>true</code>/<code>false</code> if analysis (not) successful
+	 */
+	public static boolean runSoot(final IJavaProject project, final ResultsCCUIListener resultsReporter, final Boolean dependencyAnalyser, final Set<String> affectedClasses) {
+
+		final AnalysisSession session = new AnalysisSession(project, dependencyAnalyser);
+		JimpleBodies.invalidate(project.getProject());
+		resultsReporter.setStats(session.getStats());
+		session.setAffectedClasses(affectedClasses);
+
+		// only the results of full analyses are stored, as an incremental run does not know the results of the classes it skips
+		final ResultFingerprint fingerprint = dependencyAnalyser || affectedClasses != null ? null : computeFingerprint(project);
+		if (fingerprint != null) {
+			final StoredResults stored = ResultStore.getInstance().load(project.getProject());
+			if (stored != null && fingerprint.getValue().equals(stored.getFingerprint())) {
+				Activator.getDefault().logInfo("Restoring the results of the previous analysis of " + project.getElementName() + ", which has not changed since.");
+				if (stored.getCallGraph() != null) {
+					ClassDependencies.forProject(project.getProject()).update(stored.getCallGraph(), null);
+				}
+				resultsReporter.restoreResults(stored);
+				return true;
+			}
+		}
+
+		final Map<String, File> unsummarisedLibraries = dependencyAnalyser ? useLibrarySummaries(session, resultsReporter) : null;
+		if (unsummarisedLibraries != null && session.getLibraries().isEmpty()) {
+			Activator.getDefault().logInfo("All dependencies of " + project.getElementName() + " have been analysed before. Their summaries are reported.");
+			resultsReporter.beforeAnalysis();
+			resultsReporter.afterAnalysis();
+			return true;
+		}
+
+		final SootAnalysis.Callback callback = createCallback(session, resultsReporter);
 		try {
-			runSoot(resultsReporter);
+			if (Activator.getDefault().getPreferenceStore().getBoolean(Constants.ANALYSIS_WORKER_PROCESS)) {
+				final AnalysisConfig config = createConfig(session);
+				final WorkerProcess worker = WorkerProcess.acquire();
+				try {
+					worker.analyse(config, resultsReporter, callback);
+				}
+				finally {
+					WorkerProcess.release(worker);
+				}
+			} else {
+				SOOT_LOCK.lockInterruptibly();
+				try {
+					SootAnalysis.run(createConfig(session), resultsReporter, callback);
+				}
+				finally {
+					SOOT_LOCK.unlock();
+				}
+			}
+		}
+		catch (final OperationCanceledException | InterruptedException e) {
+			Activator.getDefault().logInfo("Analysis of " + project.getElementName() + " cancelled.");
+			return false;
 		}
 		catch (final Exception t) {
 			Activator.getDefault().logError(t);
 			return false;
 		}
+		finally {
+			session.logMetrics();
+		}
+		if (!dependencyAnalyser && session.getCallGraph() == null) {
+			// an on-demand call graph stopped at the deadline leaves the dependencies unknown, so the next change is analysed with the whole project
+			ClassDependencies.invalidate(project.getProject());
+		}
+		if (!dependencyAnalyser) {
+			StatisticsView.updateViewProfile(session.getMetrics().getProfile());
+		}
+		if (session.getMetrics().isDeadlineExceeded()) {
+			Activator.getDefault().logInfo("Analysis of " + project.getElementName() + " stopped at its deadline after " + session.getMetrics().getSeeds()
+					+ " seeds. Its results are incomplete.");
+		} else if (unsummarisedLibraries != null) {
+			saveLibrarySummaries(unsummarisedLibraries, session.getStats());
+		} else if (fingerprint != null) {
+			ResultStore.getInstance().save(project.getProject(),
+					new StoredResults(fingerprint.getValue(), session.getStats(), session.getPhaseTimes(), fingerprint.getRuleVersions(), session.getCallGraph()));
+		}
 		return true;
 	}
 
-	private static void runSoot(final ResultsCCUIListener resultsReporter) {
-		Scene.v().loadNecessaryClasses();
-		PackManager.v().getPack("cg").apply();
-		resultsReporter.setCgGenComplete(true);
-		PackManager.v().getPack("wjtp").apply();
+	/**
+	 * @return the fingerprint of {@link project} or <code>null</code> if it cannot be computed, in which case the results of the analysis are not stored
+	 */
+	private static ResultFingerprint computeFingerprint(final IJavaProject project) {
+		try {
+			return ResultFingerprint.compute(project);
+		}
+		catch (final IOException e) {
+			Activator.getDefault().logError(e, "Could not compute the fingerprint of " + project.getElementName() + ".");
+			return null;
+		}
 	}
 
-	private static void setSootOptions(final IJavaProject project, final Boolean dependencyAnalyser) {
-
-		if (dependencyAnalyser) {
-			Options.v().set_soot_classpath(Joiner.on(File.pathSeparator).join(libraryClassPath(project, dependencyAnalyser)));
-			Options.v().set_process_dir(Lists.newArrayList(libraryClassPath(project, dependencyAnalyser)));
-		} else {
-			Options.v().set_soot_classpath(getSootClasspath(project, dependencyAnalyser));
-			Options.v().set_process_dir(Lists.newArrayList(applicationClassPath(project)));
-		}
-		Options.v().set_keep_line_number(true);
-		Options.v().set_prepend_classpath(true);
-		Options.v().set_allow_phantom_refs(true);
-		Options.v().set_whole_program(true);
-		Options.v().set_no_bodies_for_excluded(true);
-		Options.v().set_include(getIncludeList());
-		Options.v().set_exclude(getExcludeList(project));
-		Scene.v().loadNecessaryClasses();
-		// choose call graph based on what user selected on preference page
-		switch (Activator.getDefault().getPreferenceStore().getInt(Constants.CALL_GRAPH_SELECTION)) {
-			case 1:
-				Options.v().setPhaseOption("cg.spark", "on");
-				Options.v().setPhaseOption("cg", "all-reachable:true,library:any-subtype");
-				break;
-			case 0:
-			default:
-				Options.v().setPhaseOption("cg.cha", "on");
-				Options.v().setPhaseOption("cg", "all-reachable:true");
-		}
-		Options.v().setPhaseOption("jb", "use-original-names:true");
-		Options.v().set_output_format(Options.output_format_none);
+	/**
+	 * Looks up the summaries of the libraries a dependency analysis of {@link session} analyses. The summaries found are reported by {@link resultsReporter} as part of the
+	 * next run, only the remaining libraries are analysed.
+	 *
+	 * @return maps the fingerprints of the libraries without summary to the libraries
+	 */
+	private static Map<String, File> useLibrarySummaries(final AnalysisSession session, final ResultsCCUIListener resultsReporter) {
+		final IJavaProject project = session.getProject();
+		final List<String> libraries = new ArrayList<>();
+		final Map<String, File> unsummarised = new HashMap<>();
+		final List<AnalysisData> summarisedResults = new ArrayList<>();
+		int summarised = 0;
+		final Collection<String> classPath = libraryClassPath(project, true);
+		Map<String, String> fingerprints = new HashMap<>();
+		try {
+			fingerprints = ResultFingerprint.computeLibraries(ResultFingerprint.computeLibrarySettings(project), classPath);
+		}
+		catch (final IOException e) {
+			Activator.getDefault().logError(e, "Could not compute the fingerprints of the dependencies of " + project.getElementName() + ".");
+		}
+		for (final String entry : classPath) {
+			final String fingerprint = fingerprints.get(entry);
+			// class folders, e.g., the output folders of other projects, change too often to be worth summarising
+			if (fingerprint == null) {
+				libraries.add(entry);
+				continue;
+			}
+			final LibrarySummary summary = ResultStore.getInstance().loadLibrary(fingerprint);
+			if (summary != null) {
+				summarisedResults.addAll(summary.getClassesAnalysed().values());
+				summarised++;
+			} else {
+				libraries.add(entry);
+				unsummarised.put(fingerprint, new File(entry));
+			}
+		}
+		Activator.getDefault().logInfo("Reusing the summaries of " + summarised + " libraries of " + project.getElementName() + ", analysing " + libraries.size() + " libraries.");
+		session.setLibraries(libraries);
+		resultsReporter.setCachedResults(summarisedResults);
+		return unsummarised;
 	}
 
-	private static List<String> getIncludeList() {
-		final List<String> includeList = new LinkedList<String>();
-		includeList.add("java.lang.AbstractStringBuilder");
-		includeList.add("java.lang.Boolean");
-		includeList.add("java.lang.Byte");
-		includeList.add("java.lang.Class");
-		includeList.add("java.lang.Integer");
-		includeList.add("java.lang.Long");
-		includeList.add("java.lang.Object");
-		includeList.add("java.lang.String");
-		includeList.add("java.lang.StringCoding");
-		includeList.add("java.lang.StringIndexOutOfBoundsException");
-		return includeList;
+	/**
+	 * Splits the results of a dependency analysis by library and stores a summary for each of the libraries {@link libraries}.
+	 */
+	private static void saveLibrarySummaries(final Map<String, File> libraries, final Stats stats) {
+		final Map<String, AnalysisData> results = stats.getClassesAnalysed();
+		for (final Entry<String, File> library : libraries.entrySet()) {
+			final Map<String, AnalysisData> libraryResults = new HashMap<>();
+			try (ZipFile archive = new ZipFile(library.getValue())) {
+				for (final Enumeration<? extends ZipEntry> entries = archive.entries(); entries.hasMoreElements();) {
+					final String entryName = entries.nextElement().getName();
+					if (entryName.endsWith(CLASS_FILE_ENDING)) {
+						final String className = entryName.substring(0, entryName.length() - CLASS_FILE_ENDING.length()).replace('/', '.');
+						final AnalysisData classResults = results.get(className);
+						if (classResults != null) {
+							libraryResults.put(className, classResults);
+						}
+					}
+				}
+			}
+			catch (final IOException e) {
+				Activator.getDefault().logError(e, "Could not read the classes of " + library.getValue().getName() + ".");
+				continue;
+			}
+			// libraries without any results are summarised as well, so that they are not analysed again
+			ResultStore.getInstance().saveLibrary(library.getKey(), new LibrarySummary(library.getValue().getName(), libraryResults));
+		}
 	}
 
-	private static List<String> getExcludeList(IJavaProject project) {
-		final List<String> excludeList = new LinkedList<String>();
-		for (final CrySLRule r : getRules(project.getProject())) {
-			try {
-				String fullyQualifiedName = r.getClassName();
-				excludeList.add(fullyQualifiedName);
+	private static SootAnalysis.Callback createCallback(final AnalysisSession session, final ResultsCCUIListener resultsReporter) {
+		return new SootAnalysis.Callback() {
+
+			@Override
+			public void checkCancelled() {
+				resultsReporter.checkCancelled();
 			}
-			catch (RuntimeException e) {
-				Activator.getDefault().logError(e);
+
+			@Override
+			public void callGraphConstructed(final CallGraphSummary callGraph) {
+				// an on-demand call graph is reported once the data-flow analysis has resolved it
+				if (callGraph != null) {
+					callGraphResolved(callGraph);
+				}
+				resultsReporter.setCgGenComplete(true);
 			}
-		}
-		return excludeList;
+
+			@Override
+			public void callGraphResolved(final CallGraphSummary callGraph) {
+				session.setCallGraph(callGraph);
+				if (!session.isDependencyAnalyser()) {
+					ClassDependencies.forProject(session.getProject().getProject()).update(callGraph, session.getAffectedClasses());
+				}
+			}
+
+			@Override
+			public void providerDetected(final String provider) {
+				// an incremental or scoped run only sees part of the project and may therefore miss the provider
+				if (!session.isDependencyAnalyser() && session.getAffectedClasses() == null) {
+					DetectedProviders.getInstance().put(session.getProject(), provider);
+				}
+			}
+
+			@Override
+			public void deadlineExceeded(final Set<String> analysedClasses) {
+				resultsReporter.setStoppedAtDeadline(analysedClasses);
+			}
+
+			@Override
+			public void metricsCollected(final AnalysisMetrics metrics) {
+				session.getMetrics().merge(metrics);
+			}
+		};
 	}
 
+	/**
+	 * Collects everything the analysis of {@link session} needs from the workspace and the preference store.
+	 */
+	private static AnalysisConfig createConfig(final AnalysisSession session) {
+		final IJavaProject project = session.getProject();
+		final Boolean dependencyAnalyser = session.isDependencyAnalyser();
+		final IPreferenceStore preferences = Activator.getDefault().getPreferenceStore();
+		final AnalysisConfig config = new AnalysisConfig();
 
-	private static void registerTransformers(final ResultsCCUIListener resultsReporter) {
-		PackManager.v().getPack("wjtp").add(new Transform("wjtp.ifds", createAnalysisTransformer(resultsReporter)));
+		if (dependencyAnalyser) {
+			config.setSootClassPath(Joiner.on(File.pathSeparator).join(libraryClassPath(project, dependencyAnalyser)));
+			config.setProcessDirs(session.getLibraries() != null ? session.getLibraries() : Lists.newArrayList(libraryClassPath(project, dependencyAnalyser)));
+		} else {
+			config.setSootClassPath(getSootClasspath(project, dependencyAnalyser));
+			config.setProcessDirs(Lists.newArrayList(applicationClassPath(project)));
+		}
+		config.setRules(session.getRules());
+		config.setCallGraph(preferences.getInt(Constants.CALL_GRAPH_SELECTION));
+		config.setAffectedClasses(session.getAffectedClasses());
+		config.setReportSecureObjects(preferences.getBoolean(Constants.SHOW_SECURE_OBJECTS));
+		config.setBytecodePrefilter(preferences.getBoolean(Constants.BYTECODE_PREFILTER));
+		if (preferences.getBoolean(Constants.CALL_GRAPH_CACHE)) {
+			config.setCallGraphCacheFile(ResultStore.getInstance().getCallGraphFile(project.getProject(), dependencyAnalyser).getAbsolutePath());
+		}
+		// both budgets are 0, i.e., unlimited or the default of CryptoAnalysis, until the preference page has been opened once
+		config.setSeedTimeout(Math.max(preferences.getInt(Constants.SEED_TIMEOUT), 0) * 1000);
+		config.setDeadline(Math.max(preferences.getInt(Constants.ANALYSIS_DEADLINE), 0) * 60000L);
+		config.setRulesDirectory(Constants.ECLIPSE_RULES_DIR);
+		if (preferences.getBoolean(Constants.PROVIDER_DETECTION_ANALYSIS)) {
+			final Map<String, String> providerRuleDirectories = new HashMap<>();
+			final Map<String, String> providerRulesetVersions = new HashMap<>();
+			for (final Constants.Rules provider : Constants.Rules.values()) {
+				final String[] versions = CrySLUtils.getRuleVersions(provider.toString());
+				if (versions != null && versions.length > 0) {
+					providerRuleDirectories.put(provider.toString(), Constants.ECLIPSE_RULES_DIR + Constants.innerFileSeparator + provider + Constants.innerFileSeparator
+							+ versions[versions.length - 1] + Constants.innerFileSeparator + provider);
+					providerRulesetVersions.put(provider.toString(), provider + "-" + versions[versions.length - 1]);
+				}
+			}
+			// the provider of a project is detected once, the rules of the detected provider are then taken from the rule cache
+			final DetectedProviders detectedProviders = DetectedProviders.getInstance();
+			if (dependencyAnalyser || !detectedProviders.isKnown(project)) {
+				config.setProviderDetection(true);
+				config.setProviderRuleDirectories(providerRuleDirectories);
+			} else {
+				final String provider = detectedProviders.get(project);
+				if (provider != null && providerRuleDirectories.containsKey(provider)) {
+					final List<CrySLRule> providerRules = loadProviderRules(project.getProject(), providerRuleDirectories.get(provider), providerRulesetVersions.get(provider));
+					if (!providerRules.isEmpty()) {
+						Activator.getDefault().logInfo("Analysing " + project.getElementName() + " with the " + providerRules.size() + " rules of " + provider
+								+ ", which has been detected before.");
+						config.setRules(providerRules);
+					}
+				}
+			}
+		}
+		return config;
 	}
 
-	private static String getSootClasspath(final IJavaProject javaProject, final Boolean dependencyAnalyser) {
+	static String getSootClasspath(final IJavaProject javaProject, final Boolean dependencyAnalyser) {
 
 		Collection<String> applicationClassPath = applicationClassPath(javaProject);
 		Collection<String> libraryClassPath = libraryClassPath(javaProject, dependencyAnalyser);
@@ -262,7 +520,7 @@ public class SootRunner {
 		return Joiner.on(File.pathSeparator).join(libraryClassPath);
 	}
 
-	private static Collection<String> applicationClassPath(final IJavaProject javaProject) {
+	static Collection<String> applicationClassPath(final IJavaProject javaProject) {
 		final IWorkspace workspace = ResourcesPlugin.getWorkspace();
 		try {
 			final List<String> urls = new ArrayList<>();
@@ -277,66 +535,11 @@ public class SootRunner {
 	}
 
 	private static Collection<String> libraryClassPath(IJavaProject project, Boolean dependencyAnalyser) {
-		Collection<String> libraryClassPath = Sets.newHashSet();
-		IClasspathEntry[] rentries;
-		try {
-			// check if "include dependencies" checkbox is checked in preference page or analysis is running for dependencies
-			if (Activator.getDefault().getPreferenceStore().getBoolean(Constants.ANALYSE_DEPENDENCIES) || dependencyAnalyser) {
-
-				rentries = project.getRawClasspath();
-				for (IClasspathEntry entry : rentries) {
-					resolveClassPathEntry(entry, libraryClassPath, project);
-				}
-			}
-		}
-		catch (CoreException e) {
-			Activator.getDefault().logError(e, "Could not collect libraries from classpath.");
-		}
-		return libraryClassPath;
-	}
-
-	private static void resolveClassPathEntry(IClasspathEntry entry, Collection<String> libraryClassPath, IJavaProject project) {
-		IClasspathEntry[] rentries;
-		switch (entry.getEntryKind()) {
-			case IClasspathEntry.CPE_SOURCE:
-				libraryClassPath.addAll(applicationClassPath(project));
-				break;
-			case IClasspathEntry.CPE_PROJECT:
-				IJavaProject requiredProject = JavaCore.create((IProject) ResourcesPlugin.getWorkspace().getRoot().findMember(entry.getPath()));
-				try {
-					rentries = project.getRawClasspath();
-					for (IClasspathEntry e : rentries) {
-						resolveClassPathEntry(e, libraryClassPath, requiredProject);
-					}
-
-				}
-				catch (JavaModelException e) {
-					Activator.getDefault().logError(e);
-				}
-				break;
-			case IClasspathEntry.CPE_LIBRARY:
-
-				if (entry.getPath().segment(0).equals(project.getProject().getName())) {
-					libraryClassPath.add(project.getProject().getParent().getRawLocation() + Constants.innerFileSeparator + entry.getPath().toOSString());
-				} else {
-					libraryClassPath.add(entry.getPath().toOSString());
-				}
-				break;
-			case IClasspathEntry.CPE_CONTAINER:
-				try {
-					IClasspathContainer container = JavaCore.getClasspathContainer(entry.getPath(), project);
-					IClasspathEntry[] subEntries = container.getClasspathEntries();
-					for (IClasspathEntry subEntry : subEntries) {
-						resolveClassPathEntry(subEntry, libraryClassPath, project);
-					}
-				}
-				catch (JavaModelException e) {
-					Activator.getDefault().logError(e);
-				}
-				break;
-			default:
-				break;
+		// check if "include dependencies" checkbox is checked in preference page or analysis is running for dependencies
+		if (Activator.getDefault().getPreferenceStore().getBoolean(Constants.ANALYSE_DEPENDENCIES) || dependencyAnalyser) {
+			return new LinkedHashSet<>(ClassPathResolver.getInstance().resolve(project));
 		}
+		return new LinkedHashSet<>();
 	}
 
 }
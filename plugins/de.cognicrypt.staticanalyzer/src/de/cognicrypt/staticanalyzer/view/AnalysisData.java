@@ -10,40 +10,79 @@
 
 package de.cognicrypt.staticanalyzer.view;
 
+import java.io.Serializable;
 import java.util.ArrayList;
-import crypto.analysis.IAnalysisSeed;
-import crypto.analysis.errors.AbstractError;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import de.cognicrypt.staticanalyzer.results.ErrorSummary;
+import de.cognicrypt.staticanalyzer.results.SeedSummary;
 
 /**
- * This class contains the seeds, errors and health information from all the classes that were analysed and reached ResultsCCUIListener.
+ * This class contains the seeds, errors and health information from all the classes that were analysed and reached ResultsCCUIListener. Seeds and errors may be added
+ * concurrently. The data is serializable, so that it can be stored with the results of an analysis.
  * 
  * @author Adnan Manzoor
  */
-public class AnalysisData {
-	private final ArrayList<IAnalysisSeed> seeds;
-	private final ArrayList<AbstractError> errors;
-	private boolean isHealthy;
+public class AnalysisData implements Serializable {
+
+	private static final long serialVersionUID = -3877935409916412190L;
+
+	private final Queue<SeedSummary> seeds;
+	private final Queue<ErrorSummary> errors;
+	private final Queue<SeedSummary> secureObjects;
+	private final Queue<SeedSummary> timedOutSeeds;
+	private volatile boolean isHealthy;
 
 	public AnalysisData() {
-		this.seeds = new ArrayList<>();
-		this.errors = new ArrayList<>();
+		this.seeds = new ConcurrentLinkedQueue<>();
+		this.errors = new ConcurrentLinkedQueue<>();
+		this.secureObjects = new ConcurrentLinkedQueue<>();
+		this.timedOutSeeds = new ConcurrentLinkedQueue<>();
 		this.isHealthy = true;
 	}
 
-	public void addSeed(IAnalysisSeed seed) {
+	public void addSeed(SeedSummary seed) {
 		seeds.add(seed);
 	}
 
-	public ArrayList<IAnalysisSeed> getSeeds() {
-		return seeds;
+	/**
+	 * @return a snapshot of the seeds added so far
+	 */
+	public ArrayList<SeedSummary> getSeeds() {
+		return new ArrayList<>(seeds);
 	}
 
-	public void addError(AbstractError error) {
+	public void addError(ErrorSummary error) {
 		errors.add(error);
 	}
 
-	public ArrayList<AbstractError> getErrors() {
-		return errors;
+	/**
+	 * @return a snapshot of the errors added so far
+	 */
+	public ArrayList<ErrorSummary> getErrors() {
+		return new ArrayList<>(errors);
+	}
+
+	public void addSecureObject(SeedSummary secureObject) {
+		secureObjects.add(secureObject);
+	}
+
+	/**
+	 * @return a snapshot of the secure objects added so far
+	 */
+	public ArrayList<SeedSummary> getSecureObjects() {
+		return new ArrayList<>(secureObjects);
+	}
+
+	public void addTimedOutSeed(SeedSummary seed) {
+		timedOutSeeds.add(seed);
+	}
+
+	/**
+	 * @return a snapshot of the seeds whose analysis has exceeded its time budget
+	 */
+	public ArrayList<SeedSummary> getTimedOutSeeds() {
+		return new ArrayList<>(timedOutSeeds);
 	}
 
 	public void setHealth(boolean isHealthy) {
@@ -10,12 +10,9 @@
 
 package de.cognicrypt.staticanalyzer.view;
 
-import crypto.analysis.IAnalysisSeed;
-import crypto.analysis.errors.AbstractError;
-import crypto.analysis.errors.ErrorWithObjectAllocation;
-import crypto.analysis.errors.IncompleteOperationError;
-import crypto.analysis.errors.TypestateError;
-import soot.jimple.InstanceInvokeExpr;
+import java.util.Set;
+import de.cognicrypt.staticanalyzer.results.ErrorSummary;
+import de.cognicrypt.staticanalyzer.results.SeedSummary;
 
 /**
  * This class contains the analysis Data to be shown in the Statistics View.
@@ -26,16 +23,16 @@ import soot.jimple.InstanceInvokeExpr;
 public class ResultsUnit {
 
 	private String className;
-	private IAnalysisSeed seedLocation;
-	private AbstractError error;
+	private SeedSummary seedLocation;
+	private ErrorSummary error;
 	private boolean isHealthy;
 	private boolean showClassName;
 
-	public ResultsUnit(String className, IAnalysisSeed location, AbstractError error, boolean isHealthy) {
+	public ResultsUnit(String className, SeedSummary location, ErrorSummary error, boolean isHealthy) {
 		this(className, location, error, isHealthy, false);
 	}
 
-	public ResultsUnit(String className, IAnalysisSeed location, AbstractError error, boolean isHealthy, boolean showClassName) {
+	public ResultsUnit(String className, SeedSummary location, ErrorSummary error, boolean isHealthy, boolean showClassName) {
 		this.className = className;
 		this.seedLocation = location;
 		this.error = error;
@@ -51,19 +48,19 @@ public class ResultsUnit {
 		this.className = className;
 	}
 
-	public IAnalysisSeed getSeed() {
+	public SeedSummary getSeed() {
 		return seedLocation;
 	}
 
-	public void setSeed(IAnalysisSeed seed) {
+	public void setSeed(SeedSummary seed) {
 		this.seedLocation = seed;
 	}
 
-	public AbstractError getError() {
+	public ErrorSummary getError() {
 		return error;
 	}
 
-	public void setError(AbstractError error) {
+	public void setError(ErrorSummary error) {
 		this.error = error;
 	}
 
@@ -87,48 +84,55 @@ public class ResultsUnit {
 		if (error == null) {
 			return "";
 		}
-		return error.toErrorMarkerString();
+		return error.getMessage();
 	}
 
 	public String printSeedDescription() {
 		if (seedLocation != null) {
 			return printDescriptionOfSeed(seedLocation);
+		} else if (error.getCallDescription() == null && error.getObjectLocation() != null) {
+			return printDescriptionOfSeed(error.getObjectLocation());
 		} else {
-			String seed = error.getErrorLocation().toString();
-			if (error instanceof IncompleteOperationError || error instanceof TypestateError) {
-				seed = printDescriptionOfSeed(((ErrorWithObjectAllocation) error).getObjectLocation());
-			} else {
-				seed = "Call to " + error.getErrorLocation().getUnit().get().getInvokeExpr().getMethodRef().getSignature() + " in Line "
-						+ error.getErrorLocation().getUnit().get().getJavaSourceStartLineNumber() + " of Method " + error.getErrorLocation().getMethod().getName() + "()";
-			}
-			return seed;
+			return error.getCallDescription() == null ? "" : error.getCallDescription();
 		}
 	}
 
-	private String printDescriptionOfSeed(IAnalysisSeed seed) {
-		String varName = seed.var().value().toString();
+	private String printDescriptionOfSeed(SeedSummary seed) {
+		String varName = seed.getVariable();
 		if (varName.startsWith("$") || varName.contains("varMatcher")) {
-			String fqn = seed.var().value().getType().toQuotedString();
+			String fqn = seed.getTypeName();
 			varName = "Object of type " + fqn.substring(fqn.lastIndexOf('.') + 1);
 		} else {
 			varName = "Object " + varName;
 		}
-		varName += " in Line " + seed.stmt().getUnit().get().getJavaSourceStartLineNumber();
+		varName += " in Line " + seed.getLineNumber();
 
-		String methodName = seed.getMethod().getName();
+		String methodName = seed.getMethodName();
 		if ("<init>".equals(methodName)) {
 			methodName = className.substring(className.lastIndexOf('.') + 1);
 		}
 		return varName + " of Method " + methodName + "()";
 	}
 
-	public boolean doesSeedmatchWithError(IAnalysisSeed seed) {
-		if (error instanceof ErrorWithObjectAllocation) {
-			return ((ErrorWithObjectAllocation) error).getObjectLocation().equals(seed);
-		} else if (error == null) {
-			return false;
+	/**
+	 * Returns the key under which {@link error} is matched with the seed it refers to. An error that refers to an object allocation matches the seed of that allocation,
+	 * any other error matches the seeds stored in the receiver variable of its call.
+	 * 
+	 * @return the key or <code>null</code> if the error does not refer to a seed
+	 */
+	public static String getMatchKey(ErrorSummary error) {
+		if (error.getObjectLocation() != null) {
+			return "allocation#" + error.getObjectLocation().getAllocationKey();
 		}
-		return seed.var().value().equals(((InstanceInvokeExpr) error.getErrorLocation().getUnit().get().getInvokeExpr()).getBase());
+		return error.getReceiverKey() == null ? null : "variable#" + error.getReceiverKey();
+	}
+
+	/**
+	 * @param errorKeys keys of errors created by {@link #getMatchKey(ErrorSummary)}
+	 * @return <code>true</code> if any of the errors refers to {@link seed}
+	 */
+	public static boolean doesSeedMatchAnyError(SeedSummary seed, Set<String> errorKeys) {
+		return errorKeys.contains("allocation#" + seed.getAllocationKey()) || errorKeys.contains("variable#" + seed.getVariableKey());
 	}
 
 }
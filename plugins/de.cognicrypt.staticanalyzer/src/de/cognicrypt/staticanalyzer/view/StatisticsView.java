@@ -10,20 +10,23 @@
 
 package de.cognicrypt.staticanalyzer.view;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.IRegion;
-import org.eclipse.jface.viewers.ArrayContentProvider;
 import org.eclipse.jface.viewers.ColumnLabelProvider;
 import org.eclipse.jface.viewers.DoubleClickEvent;
 import org.eclipse.jface.viewers.IDoubleClickListener;
+import org.eclipse.jface.viewers.ILazyContentProvider;
 import org.eclipse.jface.viewers.IStructuredSelection;
 import org.eclipse.jface.viewers.TableViewer;
 import org.eclipse.jface.viewers.TableViewerColumn;
+import org.eclipse.jface.viewers.Viewer;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.custom.StyledText;
 import org.eclipse.swt.events.SelectionEvent;
@@ -42,10 +45,12 @@ import org.eclipse.ui.ide.IDE;
 import org.eclipse.ui.part.ViewPart;
 import org.eclipse.ui.texteditor.ITextEditor;
 import com.google.common.base.Optional;
-import crypto.analysis.errors.AbstractError;
 import de.cognicrypt.core.Constants;
 import de.cognicrypt.staticanalyzer.Activator;
-import de.cognicrypt.staticanalyzer.handlers.AnalysisKickOff;
+import de.cognicrypt.staticanalyzer.handlers.AnalysisRequest;
+import de.cognicrypt.staticanalyzer.handlers.AnalysisScheduler;
+import de.cognicrypt.staticanalyzer.results.ErrorSummary;
+import de.cognicrypt.staticanalyzer.sootbridge.SeedProfile;
 import de.cognicrypt.utils.Utils;
 
 /**
@@ -57,15 +62,24 @@ import de.cognicrypt.utils.Utils;
 
 public class StatisticsView extends ViewPart {
 
+	private static final String UPDATING_SUFFIX = " (Updating)";
+
+	/**
+	 * set while a partial update of the results is waiting for the UI thread
+	 */
+	private static final AtomicBoolean partialUpdatePending = new AtomicBoolean();
+
 	/**
 	 * table which contains the results of the analysis
 	 */
 	private TableViewer viewer;
 	private StyledText projectname;
 	private StyledText timeofanalysis;
+	private StyledText profile;
 	private boolean resultsEnabled;
 	private Button reRunButton;
 	private IProject lastProject;
+	private List<ResultsUnit> units = Collections.emptyList();
 
 	@Override
 	public void createPartControl(Composite parent) {
@@ -90,9 +104,7 @@ public class StatisticsView extends ViewPart {
 		reRunButton.addSelectionListener(new SelectionListener() {
 			@Override
 			public void widgetSelected(SelectionEvent e) {
-				final AnalysisKickOff runningAnalysis = new AnalysisKickOff();
-				runningAnalysis.setUp(JavaCore.create(lastProject));
-				runningAnalysis.run();
+				AnalysisScheduler.getInstance().schedule(new AnalysisRequest(JavaCore.create(lastProject), false));
 				resultsEnabled = true;
 			}
 
@@ -111,6 +123,16 @@ public class StatisticsView extends ViewPart {
 
 		// Results Table
 		createViewer(parent);
+
+		// Profile of the data-flow analysis
+		Label profileLabel = new Label(parent, SWT.NONE);
+		profileLabel.setText("Slowest Rules and Seeds: ");
+		profileLabel.setLayoutData(new GridData(SWT.BEGINNING, SWT.CENTER, false, false, 3, 1));
+		profile = new StyledText(parent, SWT.MULTI | SWT.V_SCROLL | SWT.H_SCROLL | SWT.BORDER);
+		GridData profileData = new GridData(SWT.FILL, SWT.FILL, true, false, 3, 1);
+		profileData.heightHint = profile.getLineHeight() * (SeedProfile.TOP_N + 4);
+		profile.setLayoutData(profileData);
+		profile.setEditable(false);
 	}
 
 	@Override
@@ -119,13 +141,32 @@ public class StatisticsView extends ViewPart {
 	}
 
 	private void createViewer(Composite parent) {
-		viewer = new TableViewer(parent, SWT.MULTI | SWT.H_SCROLL | SWT.V_SCROLL | SWT.FULL_SELECTION | SWT.BORDER | SWT.READ_ONLY | SWT.PUSH);
+		// the table is virtual, so that only the rows that are visible are created
+		viewer = new TableViewer(parent, SWT.MULTI | SWT.H_SCROLL | SWT.V_SCROLL | SWT.FULL_SELECTION | SWT.BORDER | SWT.READ_ONLY | SWT.PUSH | SWT.VIRTUAL);
 		createColumns(parent, viewer);
 		final Table table = viewer.getTable();
 		table.setHeaderVisible(true);
 		table.setLinesVisible(true);
 
-		viewer.setContentProvider(new ArrayContentProvider());
+		viewer.setUseHashlookup(true);
+		viewer.setContentProvider(new ILazyContentProvider() {
+
+			@Override
+			public void updateElement(int index) {
+				if (index < units.size()) {
+					viewer.replace(units.get(index), index);
+				}
+			}
+
+			@SuppressWarnings("unchecked")
+			@Override
+			public void inputChanged(Viewer viewer, Object oldInput, Object newInput) {
+				units = newInput == null ? Collections.emptyList() : (List<ResultsUnit>) newInput;
+			}
+
+			@Override
+			public void dispose() {}
+		});
 		getSite().setSelectionProvider(viewer);
 
 		GridData gridData = new GridData();
@@ -142,12 +183,12 @@ public class StatisticsView extends ViewPart {
 			public void doubleClick(DoubleClickEvent event) {
 				ResultsUnit clickedRow = (ResultsUnit) ((IStructuredSelection) event.getSelection()).getFirstElement();
 				int lineNumber = -1;
-				AbstractError error = clickedRow.getError();
+				ErrorSummary error = clickedRow.getError();
 
 				if (error != null) {
-					lineNumber = error.getErrorLocation().getUnit().get().getJavaSourceStartLineNumber();
+					lineNumber = error.getLineNumber();
 				} else {
-					lineNumber = clickedRow.getSeed().stmt().getUnit().get().getJavaSourceStartLineNumber();
+					lineNumber = clickedRow.getSeed().getLineNumber();
 				}
 
 				try {
@@ -231,21 +272,53 @@ public class StatisticsView extends ViewPart {
 	}
 
 	public void updateData(IProject project, String timeOfAnalysis, List<ResultsUnit> units) {
+		updateData(project, timeOfAnalysis, units, true);
+	}
+
+	/**
+	 * Shows {@link units} in the table.
+	 * 
+	 * @param complete <code>false</code> if the analysis is still running and more results are to come
+	 */
+	public void updateData(IProject project, String timeOfAnalysis, List<ResultsUnit> units, boolean complete) {
 		if (resultsEnabled) {
 			lastProject = project;
-			projectname.setText(project.getName());
+			projectname.setText(complete ? project.getName() : project.getName() + UPDATING_SUFFIX);
 			timeofanalysis.setText(timeOfAnalysis);
 			viewer.setInput(units);
+			viewer.setItemCount(units.size());
 			viewer.refresh();
 		}
 	}
 
+	/**
+	 * Shows the {@link SeedProfile#TOP_N} slowest rules and seeds of the last analysis.
+	 */
+	public void updateProfile(SeedProfile seedProfile) {
+		StringBuilder text = new StringBuilder("Rules:");
+		for (SeedProfile.RuleCost rule : seedProfile.getSlowestRules()) {
+			text.append(System.lineSeparator()).append("  ").append(rule.getMillis()).append(" ms\t").append(rule.getRule()).append(" (").append(rule.getSeeds())
+					.append(" seeds)");
+		}
+		text.append(System.lineSeparator()).append("Seeds:");
+		for (SeedProfile.SeedCost seed : seedProfile.getSlowestSeeds()) {
+			text.append(System.lineSeparator()).append("  ").append(seed.getMillis()).append(" ms\t").append(seed.getDescription());
+			if (seed.getRule() != null) {
+				text.append(" (").append(seed.getRule()).append(")");
+			}
+		}
+		text.append(System.lineSeparator()).append("Timed out seeds: ").append(seedProfile.getTimeouts());
+		if (seedProfile.getTimeouts() > 0) {
+			text.append(" ").append(seedProfile.getTimeoutsPerClass());
+		}
+		profile.setText(text.toString());
+	}
+
 	private void allowAnalysisReRun(boolean isAllowed) {
 		reRunButton.setEnabled(isAllowed);
 		final String projectName = projectname.getText();
-		final String suffix = " (Updating)";
-		if (!isAllowed && !projectName.endsWith(suffix)) {
-			projectname.setText(projectName + suffix);
+		if (!isAllowed && !projectName.endsWith(UPDATING_SUFFIX)) {
+			projectname.setText(projectName + UPDATING_SUFFIX);
 		}
 	}
 
@@ -271,6 +344,41 @@ public class StatisticsView extends ViewPart {
 		});
 	}
 
+	public static void updateViewProfile(SeedProfile seedProfile) {
+		Display.getDefault().asyncExec(new Runnable() {
+			public void run() {
+				Optional<StatisticsView> view = getView();
+				if (view.isPresent()) {
+					view.get().updateProfile(seedProfile);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Shows the results that a running analysis has reported so far. The call is dropped if the previous partial update has not been shown yet. The results units are built on
+	 * the calling thread, so that the UI thread only has to display them.
+	 * 
+	 * @param stats results of the running analysis
+	 */
+	public static void updateViewPartially(Stats stats) {
+		if (!partialUpdatePending.compareAndSet(false, true)) {
+			return;
+		}
+		final IProject project = stats.getProject();
+		final String timeOfAnalysis = stats.getTimeOfAnalysis();
+		final List<ResultsUnit> units = stats.createResultsUnits();
+		Display.getDefault().asyncExec(new Runnable() {
+			public void run() {
+				partialUpdatePending.set(false);
+				Optional<StatisticsView> view = getView();
+				if (view.isPresent()) {
+					view.get().updateData(project, timeOfAnalysis, units, false);
+				}
+			}
+		});
+	}
+
 	private static Optional<StatisticsView> getView() {
 		IViewPart viewPart = PlatformUI.getWorkbench().getActiveWorkbenchWindow().getActivePage().findView(Constants.STATVIEWID);
 		if (viewPart != null) {
@@ -10,21 +10,30 @@
 
 package de.cognicrypt.staticanalyzer.view;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import org.eclipse.core.resources.IProject;
+import de.cognicrypt.staticanalyzer.results.ErrorSummary;
+import de.cognicrypt.staticanalyzer.results.SeedSummary;
 
 /**
- * This class contains the data of the analysis from the ResultsCCUIListener.
+ * This class contains the data of one analysis run from the ResultsCCUIListener. It is owned by the analysis session and aggregates the results per class. Results may be
+ * added concurrently, e.g., by several solver threads, while the Statistics View reads them.
  * 
  * @author Adnan Manzoor
  */
 
 public class Stats {
 
-	private IProject project;
-	private String timeOfAnalysis;
-	private Map<String, AnalysisData> classesAnalysed = new HashMap<>();
+	private volatile IProject project;
+	private volatile String timeOfAnalysis;
+	private final Map<String, AnalysisData> classesAnalysed = new ConcurrentHashMap<>();
+	private final Set<String> errorKeys = ConcurrentHashMap.newKeySet();
 
 	public void setProject(IProject project) {
 		this.project = project;
@@ -42,12 +51,67 @@ public class Stats {
 		return timeOfAnalysis;
 	}
 
-	public void setClassesAnalysed(Map<String, AnalysisData> classAnalysed) {
-		this.classesAnalysed = classAnalysed;
-	}
-
 	public Map<String, AnalysisData> getClassesAnalysed() {
 		return classesAnalysed;
 	}
 
+	public void addError(String className, ErrorSummary error) {
+		AnalysisData data = classesAnalysed.computeIfAbsent(className, name -> new AnalysisData());
+		data.addError(error);
+		data.setHealth(false);
+		indexError(error);
+	}
+
+	public void addSeed(String className, SeedSummary seed) {
+		classesAnalysed.computeIfAbsent(className, name -> new AnalysisData()).addSeed(seed);
+	}
+
+	public void addSecureObject(String className, SeedSummary secureObject) {
+		classesAnalysed.computeIfAbsent(className, name -> new AnalysisData()).addSecureObject(secureObject);
+	}
+
+	public void addTimedOutSeed(String className, SeedSummary seed) {
+		classesAnalysed.computeIfAbsent(className, name -> new AnalysisData()).addTimedOutSeed(seed);
+	}
+
+	/**
+	 * Takes over the results of a class from a previous analysis.
+	 */
+	public void retainResults(String className, AnalysisData data) {
+		classesAnalysed.put(className, data);
+		for (ErrorSummary error : data.getErrors()) {
+			indexError(error);
+		}
+	}
+
+	private void indexError(ErrorSummary error) {
+		String key = ResultsUnit.getMatchKey(error);
+		if (key != null) {
+			errorKeys.add(key);
+		}
+	}
+
+	/**
+	 * Creates the rows of the Statistics View from the results recorded so far, ordered by class name. Seeds that an error refers to are not listed separately.
+	 */
+	public List<ResultsUnit> createResultsUnits() {
+		List<ResultsUnit> units = new ArrayList<>();
+		for (Entry<String, AnalysisData> result : new TreeMap<>(classesAnalysed).entrySet()) {
+			String className = result.getKey();
+			AnalysisData findings = result.getValue();
+			boolean first = true;
+			for (ErrorSummary err : findings.getErrors()) {
+				units.add(new ResultsUnit(className, null, err, false, first));
+				first = false;
+			}
+
+			for (SeedSummary seed : findings.getSeeds()) {
+				if (!ResultsUnit.doesSeedMatchAnyError(seed, errorKeys)) {
+					units.add(new ResultsUnit(className, seed, null, true));
+				}
+			}
+		}
+		return units;
+	}
+
 }
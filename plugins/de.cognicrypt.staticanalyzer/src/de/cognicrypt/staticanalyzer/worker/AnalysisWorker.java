@@ -0,0 +1,122 @@
+/********************************************************************************
+ * Copyright (c) 2015-2019 TU Darmstadt, Paderborn University http://www.eclipse.org/legal/epl-2.0. SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package de.cognicrypt.staticanalyzer.worker;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.HashSet;
+import java.util.Set;
+import de.cognicrypt.staticanalyzer.sootbridge.AnalysisConfig;
+import de.cognicrypt.staticanalyzer.sootbridge.AnalysisMetrics;
+import de.cognicrypt.staticanalyzer.sootbridge.CallGraphSummary;
+import de.cognicrypt.staticanalyzer.sootbridge.SootAnalysis;
+import soot.G;
+
+/**
+ * This class is the entry point of the analysis process. The process connects to the IDE on the loopback interface and then analyses one {@link AnalysisConfig} after the
+ * other, streaming its findings back as {@link WorkerMessage}s. It stays alive between two analyses, so that only the first analysis pays for starting the JVM, and
+ * terminates once the IDE closes the connection.
+ *
+ * Usage: <code>AnalysisWorker &lt;port&gt; &lt;token&gt;</code>
+ */
+public class AnalysisWorker {
+
+	private AnalysisWorker() {}
+
+	public static void main(final String[] args) throws IOException {
+		if (args.length != 2) {
+			System.err.println("Usage: AnalysisWorker <port> <token>");
+			System.exit(1);
+		}
+		try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), Integer.parseInt(args[0]))) {
+			final ObjectOutputStream out = new ObjectOutputStream(socket.getOutputStream());
+			out.flush();
+			final ObjectInputStream in = new ObjectInputStream(socket.getInputStream());
+			new WorkerListener(out, false).send(new WorkerMessage(WorkerMessage.Kind.HELLO, args[1]));
+
+			while (true) {
+				final AnalysisConfig config;
+				try {
+					config = (AnalysisConfig) in.readObject();
+				}
+				catch (final EOFException e) {
+					return;
+				}
+				catch (final ClassNotFoundException e) {
+					throw new IOException(e);
+				}
+				analyse(config, new WorkerListener(out, config.isReportSecureObjects()));
+			}
+		}
+	}
+
+	private static void analyse(final AnalysisConfig config, final WorkerListener listener) {
+		try {
+			SootAnalysis.run(config, listener, new SootAnalysis.Callback() {
+
+				@Override
+				public void checkCancelled() {
+					// the IDE cancels an analysis by terminating this process
+				}
+
+				@Override
+				public void callGraphConstructed(final CallGraphSummary callGraph) {
+					listener.send(new WorkerMessage(WorkerMessage.Kind.CALL_GRAPH, callGraph));
+				}
+
+				@Override
+				public void callGraphResolved(final CallGraphSummary callGraph) {
+					listener.send(new WorkerMessage(WorkerMessage.Kind.RESOLVED_CALL_GRAPH, callGraph));
+				}
+
+				@Override
+				public void providerDetected(final String provider) {
+					listener.send(new WorkerMessage(WorkerMessage.Kind.PROVIDER, provider));
+				}
+
+				@Override
+				public void deadlineExceeded(final Set<String> analysedClasses) {
+					listener.send(new WorkerMessage(WorkerMessage.Kind.DEADLINE_EXCEEDED, new HashSet<>(analysedClasses)));
+				}
+
+				@Override
+				public void metricsCollected(final AnalysisMetrics metrics) {
+					listener.send(new WorkerMessage(WorkerMessage.Kind.METRICS, metrics));
+				}
+			});
+			listener.send(new WorkerMessage(WorkerMessage.Kind.FINISHED));
+		}
+		catch (final UncheckedIOException e) {
+			// the connection to the IDE is lost
+			System.exit(1);
+		}
+		catch (final OutOfMemoryError e) {
+			G.reset();
+			listener.send(new WorkerMessage(WorkerMessage.Kind.FAILED, getStackTrace(e)));
+			// the heap may be in an inconsistent state, the IDE starts a fresh process for the next analysis
+			System.exit(1);
+		}
+		catch (final Throwable e) {
+			listener.send(new WorkerMessage(WorkerMessage.Kind.FAILED, getStackTrace(e)));
+		}
+		finally {
+			// release the scene while the process waits for the next analysis
+			G.reset();
+		}
+	}
+
+	private static String getStackTrace(final Throwable e) {
+		final StringWriter trace = new StringWriter();
+		e.printStackTrace(new PrintWriter(trace));
+		return trace.toString();
+	}
+}
@@ -0,0 +1,134 @@
+/********************************************************************************
+ * Copyright (c) 2015-2019 TU Darmstadt, Paderborn University http://www.eclipse.org/legal/epl-2.0. SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package de.cognicrypt.staticanalyzer.worker;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.ProcessBuilder.Redirect;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.UUID;
+import java.util.function.Consumer;
+import de.cognicrypt.staticanalyzer.sootbridge.AnalysisConfig;
+
+/**
+ * This class starts an {@link AnalysisWorker} process and talks to it. It does not depend on the Eclipse platform, so that it can be used both by the IDE and by the
+ * headless analysis.
+ */
+public class WorkerConnection {
+
+	private static final int CONNECT_TIMEOUT = 60000;
+
+	private final Process process;
+	private final Socket socket;
+	private final ObjectOutputStream out;
+	private final ObjectInputStream in;
+	private final int heapSize;
+
+	private WorkerConnection(final Process process, final Socket socket, final int heapSize) throws IOException {
+		this.process = process;
+		this.socket = socket;
+		this.heapSize = heapSize;
+		this.out = new ObjectOutputStream(socket.getOutputStream());
+		this.out.flush();
+		this.in = new ObjectInputStream(socket.getInputStream());
+	}
+
+	/**
+	 * Starts an analysis process and waits until it has connected.
+	 *
+	 * @param classPath class path of the process, it must contain this plug-in and the analysis libraries
+	 * @param heapSize maximum heap size of the process in MB
+	 * @param output destination of the standard and error output of the process
+	 * @throws IOException if the process cannot be started or does not connect
+	 */
+	public static WorkerConnection start(final String classPath, final int heapSize, final Redirect output) throws IOException {
+		final String token = UUID.randomUUID().toString();
+		try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+			server.setSoTimeout(CONNECT_TIMEOUT);
+			final ProcessBuilder builder = new ProcessBuilder(getJavaExecutable(), "-Xmx" + heapSize + "m", "-cp", classPath, AnalysisWorker.class.getName(),
+					String.valueOf(server.getLocalPort()), token);
+			builder.redirectErrorStream(true);
+			builder.redirectOutput(output);
+			final Process process = builder.start();
+
+			WorkerConnection connection = null;
+			try {
+				final Socket socket = server.accept();
+				connection = new WorkerConnection(process, socket, heapSize);
+				final WorkerMessage hello = (WorkerMessage) connection.in.readObject();
+				if (hello.getKind() != WorkerMessage.Kind.HELLO || !token.equals(hello.getPayload())) {
+					throw new IOException("Unexpected connection to the analysis process.");
+				}
+				return connection;
+			}
+			catch (final IOException | ClassNotFoundException e) {
+				if (connection != null) {
+					connection.destroy();
+				} else {
+					process.destroyForcibly();
+				}
+				throw new IOException("Could not start the analysis process.", e);
+			}
+		}
+	}
+
+	/**
+	 * Analyses {@link config} in the process and passes all messages but the final one to {@link handler}.
+	 *
+	 * @throws IOException if the connection to the process is lost
+	 * @throws IllegalStateException if the analysis failed within the process
+	 */
+	public void analyse(final AnalysisConfig config, final Consumer<WorkerMessage> handler) throws IOException {
+		this.out.writeObject(config);
+		this.out.reset();
+		this.out.flush();
+		while (true) {
+			final WorkerMessage message;
+			try {
+				message = (WorkerMessage) this.in.readObject();
+			}
+			catch (final ClassNotFoundException e) {
+				throw new IOException(e);
+			}
+			switch (message.getKind()) {
+				case FINISHED:
+					return;
+				case FAILED:
+					throw new IllegalStateException("The analysis process failed:\n" + message.getPayload());
+				default:
+					handler.accept(message);
+			}
+		}
+	}
+
+	public int getHeapSize() {
+		return this.heapSize;
+	}
+
+	public boolean isAlive() {
+		return this.process.isAlive() && !this.socket.isClosed();
+	}
+
+	/**
+	 * Terminates the process immediately.
+	 */
+	public void destroy() {
+		try {
+			this.socket.close();
+		}
+		catch (final IOException e) {
+			// the process is terminated anyway
+		}
+		this.process.destroyForcibly();
+	}
+
+	private static String getJavaExecutable() {
+		return System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+	}
+}
@@ -0,0 +1,134 @@
+/********************************************************************************
+ * Copyright (c) 2015-2019 TU Darmstadt, Paderborn University http://www.eclipse.org/legal/epl-2.0. SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package de.cognicrypt.staticanalyzer.worker;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.Set;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Table;
+import boomerang.BackwardQuery;
+import boomerang.Query;
+import boomerang.jimple.Statement;
+import boomerang.jimple.Val;
+import boomerang.results.ForwardBoomerangResults;
+import crypto.analysis.AnalysisSeedWithSpecification;
+import crypto.analysis.CrySLAnalysisListener;
+import crypto.analysis.EnsuredCrySLPredicate;
+import crypto.analysis.IAnalysisSeed;
+import crypto.analysis.errors.AbstractError;
+import crypto.extractparameter.CallSiteWithParamIndex;
+import crypto.extractparameter.ExtractedValue;
+import crypto.interfaces.ISLConstraint;
+import crypto.rules.CrySLPredicate;
+import de.cognicrypt.staticanalyzer.results.ErrorSummary;
+import de.cognicrypt.staticanalyzer.results.SeedSummary;
+import typestate.TransitionFunction;
+
+/**
+ * This listener runs in the analysis process and forwards the findings of the analysis to the IDE.
+ */
+class WorkerListener extends CrySLAnalysisListener {
+
+	private final ObjectOutputStream out;
+	private final boolean reportSecureObjects;
+
+	WorkerListener(final ObjectOutputStream out, final boolean reportSecureObjects) {
+		this.out = out;
+		this.reportSecureObjects = reportSecureObjects;
+	}
+
+	/**
+	 * Sends {@link message} to the IDE.
+	 *
+	 * @throws UncheckedIOException if the connection to the IDE is lost, which stops the analysis
+	 */
+	void send(final WorkerMessage message) {
+		synchronized (this.out) {
+			try {
+				this.out.writeObject(message);
+				// messages are independent of each other, so the stream does not need to remember the objects written so far
+				this.out.reset();
+				this.out.flush();
+			}
+			catch (final IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	@Override
+	public void beforeAnalysis() {
+		send(new WorkerMessage(WorkerMessage.Kind.BEFORE_ANALYSIS));
+	}
+
+	@Override
+	public void afterAnalysis() {
+		send(new WorkerMessage(WorkerMessage.Kind.AFTER_ANALYSIS));
+	}
+
+	@Override
+	public void reportError(final AbstractError error) {
+		send(new WorkerMessage(WorkerMessage.Kind.ERROR, ErrorSummary.of(error)));
+	}
+
+	@Override
+	public void discoveredSeed(final IAnalysisSeed seed) {
+		send(new WorkerMessage(WorkerMessage.Kind.SEED, SeedSummary.of(seed)));
+	}
+
+	@Override
+	public void onSecureObjectFound(final IAnalysisSeed secureObject) {
+		if (this.reportSecureObjects) {
+			send(new WorkerMessage(WorkerMessage.Kind.SECURE_OBJECT, SeedSummary.ofSecureObject(secureObject)));
+		}
+	}
+
+	@Override
+	public void addProgress(final int processedSeeds, final int workListSize) {
+		send(WorkerMessage.progress(processedSeeds, workListSize));
+	}
+
+	@Override
+	public void checkedConstraints(final AnalysisSeedWithSpecification analysisSeedWithSpecification, final Collection<ISLConstraint> relevantConstraints) {}
+
+	@Override
+	public void onSeedTimeout(final sync.pds.solver.nodes.Node<Statement, Val> seed) {
+		send(new WorkerMessage(WorkerMessage.Kind.SEED_TIMEOUT, SeedSummary.ofTimeout(seed)));
+	}
+
+	@Override
+	public void collectedValues(final AnalysisSeedWithSpecification seed, final Multimap<CallSiteWithParamIndex, ExtractedValue> collectedValues) {}
+
+	@Override
+	public void onSeedFinished(final IAnalysisSeed seed, final ForwardBoomerangResults<TransitionFunction> results) {}
+
+	@Override
+	public void beforeConstraintCheck(final AnalysisSeedWithSpecification analysisSeedWithSpecification) {}
+
+	@Override
+	public void afterConstraintCheck(final AnalysisSeedWithSpecification analysisSeedWithSpecification) {}
+
+	@Override
+	public void beforePredicateCheck(final AnalysisSeedWithSpecification analysisSeedWithSpecification) {}
+
+	@Override
+	public void afterPredicateCheck(final AnalysisSeedWithSpecification analysisSeedWithSpecification) {}
+
+	@Override
+	public void seedStarted(final IAnalysisSeed seed) {}
+
+	@Override
+	public void boomerangQueryStarted(final Query seed, final BackwardQuery q) {}
+
+	@Override
+	public void boomerangQueryFinished(final Query seed, final BackwardQuery q) {}
+
+	@Override
+	public void ensuredPredicates(final Table<Statement, Val, Set<EnsuredCrySLPredicate>> existingPredicates,
+			final Table<Statement, IAnalysisSeed, Set<CrySLPredicate>> expectedPredicates, final Table<Statement, IAnalysisSeed, Set<CrySLPredicate>> missingPredicates) {}
+}
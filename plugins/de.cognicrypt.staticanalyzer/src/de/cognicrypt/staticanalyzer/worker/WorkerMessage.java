@@ -0,0 +1,94 @@
+/********************************************************************************
+ * Copyright (c) 2015-2019 TU Darmstadt, Paderborn University http://www.eclipse.org/legal/epl-2.0. SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package de.cognicrypt.staticanalyzer.worker;
+
+import java.io.Serializable;
+
+/**
+ * This class describes a message the analysis process sends to the IDE while it analyses a project.
+ */
+public class WorkerMessage implements Serializable {
+
+	private static final long serialVersionUID = -2306436335418412561L;
+
+	public enum Kind {
+		/**
+		 * sent once the analysis process has accepted the connection, carries the token it was started with
+		 */
+		HELLO,
+		BEFORE_ANALYSIS,
+		/**
+		 * carries a {@link de.cognicrypt.staticanalyzer.sootbridge.CallGraphSummary}
+		 */
+		CALL_GRAPH,
+		/**
+		 * carries a {@link de.cognicrypt.staticanalyzer.sootbridge.CallGraphSummary} of the calls an on-demand call graph has resolved during the data-flow analysis
+		 */
+		RESOLVED_CALL_GRAPH,
+		/**
+		 * carries the name of the provider found by the provider detection or <code>null</code> if none has been found
+		 */
+		PROVIDER,
+		/**
+		 * carries a {@link de.cognicrypt.staticanalyzer.results.SeedSummary}
+		 */
+		SEED,
+		/**
+		 * carries a {@link de.cognicrypt.staticanalyzer.results.SeedSummary} created for a secure object
+		 */
+		SECURE_OBJECT,
+		/**
+		 * carries an {@link de.cognicrypt.staticanalyzer.results.ErrorSummary}
+		 */
+		ERROR,
+		/**
+		 * carries a {@link de.cognicrypt.staticanalyzer.results.SeedSummary} created for a seed that timed out
+		 */
+		SEED_TIMEOUT,
+		/**
+		 * carries the number of processed seeds and the size of the work list
+		 */
+		PROGRESS,
+		/**
+		 * sent before {@link #AFTER_ANALYSIS} if the analysis has been stopped at its deadline, carries the top-level classes whose seeds have all been analysed
+		 */
+		DEADLINE_EXCEEDED,
+		AFTER_ANALYSIS,
+		/**
+		 * carries the {@link de.cognicrypt.staticanalyzer.sootbridge.AnalysisMetrics} of the analysis
+		 */
+		METRICS,
+		FINISHED,
+		/**
+		 * carries the stack trace of the exception that stopped the analysis
+		 */
+		FAILED
+	}
+
+	private final Kind kind;
+	private final Serializable payload;
+
+	public WorkerMessage(final Kind kind) {
+		this(kind, null);
+	}
+
+	public WorkerMessage(final Kind kind, final Serializable payload) {
+		this.kind = kind;
+		this.payload = payload;
+	}
+
+	public static WorkerMessage progress(final int processedSeeds, final int workListSize) {
+		return new WorkerMessage(Kind.PROGRESS, new int[] {processedSeeds, workListSize});
+	}
+
+	public Kind getKind() {
+		return this.kind;
+	}
+
+	@SuppressWarnings("unchecked")
+	public <T extends Serializable> T getPayload() {
+		return (T) this.payload;
+	}
+}
@@ -0,0 +1,212 @@
+/********************************************************************************
+ * Copyright (c) 2015-2019 TU Darmstadt, Paderborn University http://www.eclipse.org/legal/epl-2.0. SPDX-License-Identifier: EPL-2.0
+ ********************************************************************************/
+
+package de.cognicrypt.staticanalyzer.worker;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.ProcessBuilder.Redirect;
+import java.net.URL;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import org.eclipse.core.runtime.FileLocator;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Platform;
+import org.osgi.framework.Bundle;
+import de.cognicrypt.core.Constants;
+import de.cognicrypt.staticanalyzer.Activator;
+import de.cognicrypt.staticanalyzer.results.ErrorSummary;
+import de.cognicrypt.staticanalyzer.results.ResultsCCUIListener;
+import de.cognicrypt.staticanalyzer.results.SeedSummary;
+import de.cognicrypt.staticanalyzer.sootbridge.AnalysisConfig;
+import de.cognicrypt.staticanalyzer.sootbridge.SootAnalysis;
+
+/**
+ * This class manages the analysis processes of the IDE, i.e., separate JVMs that run {@link AnalysisWorker}. Running the analysis in its own process keeps its memory
+ * consumption out of the IDE and allows to stop it immediately when it is cancelled. Idle processes are kept for the next analysis.
+ */
+public class WorkerProcess {
+
+	private static final int DEFAULT_HEAP_SIZE = 4096;
+	private static final String LOG_FILE = "worker.log";
+
+	private static final Deque<WorkerProcess> idleWorkers = new ArrayDeque<>();
+
+	private final WorkerConnection connection;
+
+	private WorkerProcess(final WorkerConnection connection) {
+		this.connection = connection;
+	}
+
+	/**
+	 * Returns an idle analysis process or starts a new one.
+	 *
+	 * @throws IOException if the process cannot be started
+	 */
+	public static WorkerProcess acquire() throws IOException {
+		final int heapSize = getHeapSize();
+		synchronized (idleWorkers) {
+			while (!idleWorkers.isEmpty()) {
+				final WorkerProcess worker = idleWorkers.pop();
+				if (worker.isAlive() && worker.connection.getHeapSize() == heapSize) {
+					return worker;
+				}
+				worker.destroy();
+			}
+		}
+		try {
+			final WorkerProcess worker = new WorkerProcess(WorkerConnection.start(getClassPath(), heapSize, Redirect.appendTo(getLogFile())));
+			Activator.getDefault().logInfo("Started analysis process with " + heapSize + " MB heap.");
+			return worker;
+		}
+		catch (final IOException e) {
+			throw new IOException(e.getMessage() + " See " + getLogFile() + " for details.", e);
+		}
+	}
+
+	/**
+	 * Keeps {@link worker} for the next analysis. Processes that are no longer usable or exceed the number of concurrent analyses are terminated.
+	 */
+	public static void release(final WorkerProcess worker) {
+		if (!worker.isAlive()) {
+			return;
+		}
+		synchronized (idleWorkers) {
+			if (idleWorkers.size() < Math.max(1, Activator.getDefault().getPreferenceStore().getInt(Constants.ANALYSIS_WORKERS))) {
+				idleWorkers.push(worker);
+				return;
+			}
+		}
+		worker.destroy();
+	}
+
+	/**
+	 * Terminates all idle analysis processes.
+	 */
+	public static void shutdown() {
+		synchronized (idleWorkers) {
+			while (!idleWorkers.isEmpty()) {
+				idleWorkers.pop().destroy();
+			}
+		}
+	}
+
+	/**
+	 * Analyses {@link config} in this process and reports all findings to {@link resultsReporter}. Cancelling {@link resultsReporter} terminates the process.
+	 *
+	 * @throws IOException if the process terminates unexpectedly
+	 * @throws OperationCanceledException if the analysis has been cancelled
+	 */
+	public void analyse(final AnalysisConfig config, final ResultsCCUIListener resultsReporter, final SootAnalysis.Callback callback) throws IOException {
+		resultsReporter.setCancelHandler(this::destroy);
+		try {
+			resultsReporter.checkCancelled();
+			this.connection.analyse(config, message -> {
+				switch (message.getKind()) {
+					case BEFORE_ANALYSIS:
+						resultsReporter.beforeAnalysis();
+						break;
+					case CALL_GRAPH:
+						callback.callGraphConstructed(message.getPayload());
+						break;
+					case RESOLVED_CALL_GRAPH:
+						callback.callGraphResolved(message.getPayload());
+						break;
+					case PROVIDER:
+						callback.providerDetected(message.getPayload());
+						break;
+					case SEED:
+						resultsReporter.discoveredSeed((SeedSummary) message.getPayload());
+						break;
+					case SECURE_OBJECT:
+						resultsReporter.onSecureObjectFound((SeedSummary) message.getPayload());
+						break;
+					case ERROR:
+						resultsReporter.reportError((ErrorSummary) message.getPayload());
+						break;
+					case SEED_TIMEOUT:
+						resultsReporter.onSeedTimeout((SeedSummary) message.getPayload());
+						break;
+					case PROGRESS:
+						final int[] progress = message.getPayload();
+						resultsReporter.addProgress(progress[0], progress[1]);
+						break;
+					case DEADLINE_EXCEEDED:
+						final HashSet<String> analysedClasses = message.getPayload();
+						callback.deadlineExceeded(analysedClasses);
+						break;
+					case AFTER_ANALYSIS:
+						resultsReporter.afterAnalysis();
+						break;
+					case METRICS:
+						callback.metricsCollected(message.getPayload());
+						break;
+					default:
+						break;
+				}
+			});
+		}
+		catch (final IOException e) {
+			destroy();
+			resultsReporter.checkCancelled();
+			throw new IOException("The analysis process terminated unexpectedly. See " + getLogFile() + " for details.", e);
+		}
+		catch (final OperationCanceledException e) {
+			destroy();
+			throw e;
+		}
+		finally {
+			resultsReporter.setCancelHandler(null);
+		}
+	}
+
+	public boolean isAlive() {
+		return this.connection.isAlive();
+	}
+
+	/**
+	 * Terminates the process immediately.
+	 */
+	public void destroy() {
+		this.connection.destroy();
+	}
+
+	private static int getHeapSize() {
+		final int heapSize = Activator.getDefault().getPreferenceStore().getInt(Constants.ANALYSIS_WORKER_HEAP);
+		return heapSize > 0 ? heapSize : DEFAULT_HEAP_SIZE;
+	}
+
+	private static File getLogFile() {
+		return Activator.getDefault().getStateLocation().append(LOG_FILE).toFile();
+	}
+
+	/**
+	 * The analysis process needs the classes of this plug-in and the analysis libraries shipped with the core plug-in.
+	 */
+	private static String getClassPath() throws IOException {
+		final List<String> classPath = new ArrayList<>();
+		addBundleClassPath(Activator.getDefault().getBundle(), classPath);
+		addBundleClassPath(Platform.getBundle(de.cognicrypt.core.Activator.PLUGIN_ID), classPath);
+		return String.join(File.pathSeparator, classPath);
+	}
+
+	private static void addBundleClassPath(final Bundle bundle, final List<String> classPath) throws IOException {
+		final String header = bundle.getHeaders().get(org.osgi.framework.Constants.BUNDLE_CLASSPATH);
+		final String[] entries = header == null ? new String[] {"."} : header.split(",");
+		for (final String entry : entries) {
+			final String path = entry.split(";")[0].trim();
+			if (".".equals(path)) {
+				classPath.add(FileLocator.getBundleFile(bundle).getAbsolutePath());
+			} else {
+				final URL url = bundle.getEntry(path);
+				if (url != null) {
+					classPath.add(new File(FileLocator.toFileURL(url).getPath()).getAbsolutePath());
+				}
+			}
+		}
+	}
+}